@@ -0,0 +1,79 @@
+package com.sunasterisk.expense_management.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded retries for methods annotated with {@link RetryOnConflict}.
+ * Ordered before the transaction interceptor, so every attempt gets its own transaction;
+ * when already inside a transaction the failure is rethrown, since that transaction is rolled back anyway.
+ * Backoff is randomized (full jitter) so colliding writers do not retry in lockstep.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConflictRetryAspect {
+
+    private final Counter retries;
+    private final Counter exhausted;
+
+    /**
+     * Total attempts, including the first one
+     */
+    @Value("${app.db.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    /**
+     * Upper bound of the first backoff; doubled on each further attempt
+     */
+    @Value("${app.db.retry.backoff-ms:20}")
+    private long backoffMs;
+
+    public ConflictRetryAspect(MeterRegistry meterRegistry) {
+        this.retries = Counter.builder("app.db.retry")
+                .description("Transactions retried after a concurrency failure")
+                .tag("outcome", "retried")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("app.db.retry")
+                .description("Transactions retried after a concurrency failure")
+                .tag("outcome", "exhausted")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(com.sunasterisk.expense_management.config.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    log.warn("{} failed after {} attempts: {}",
+                            joinPoint.getSignature().toShortString(), attempt, e.getMessage());
+                    throw e;
+                }
+                retries.increment();
+                log.debug("{} hit a concurrency failure (attempt {}), retrying: {}",
+                        joinPoint.getSignature().toShortString(), attempt, e.getMessage());
+                Thread.sleep(ThreadLocalRandom.current().nextLong(Math.max(1, backoffMs << (attempt - 1))) + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.sunasterisk.expense_management.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration for background CSV export jobs.
+ * Exports (and budget template rollouts) run on a small dedicated pool so they never hold servlet request threads.
+ */
+@Configuration
+@EnableScheduling
+public class ExportConfig {
+
+    public static final String EXPORT_EXECUTOR = "exportTaskExecutor";
+    public static final String PARTITION_EXECUTOR = "exportPartitionExecutor";
+
+    @Bean(name = EXPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor exportTaskExecutor(
+            @Value("${app.export.pool-size:2}") int poolSize,
+            @Value("${app.export.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("csv-export-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers for ID-range partitions of a single large export.
+     * Each worker holds one JDBC connection while reading, so keep the pool well below the Hikari pool size.
+     */
+    @Bean(name = PARTITION_EXECUTOR)
+    public ThreadPoolTaskExecutor exportPartitionExecutor(
+            @Value("${app.export.partition.pool-size:4}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("csv-partition-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,106 @@
+package com.sunasterisk.expense_management.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * DataSource proxy that times every statement execution and reports it to the {@link QueryInspector}.
+ * Connections and statements are wrapped in JDK dynamic proxies; only execute* calls do extra work.
+ */
+class InspectingDataSource extends DelegatingDataSource {
+
+    private static final ClassLoader CLASS_LOADER = InspectingDataSource.class.getClassLoader();
+
+    private final Supplier<QueryInspector> inspector;
+
+    InspectingDataSource(DataSource target, Supplier<QueryInspector> inspector) {
+        super(target);
+        this.inspector = inspector;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> wrapStatement(result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall" -> wrapStatement(result, CallableStatement.class, (String) args[0]);
+                case "createStatement" -> wrapStatement(result, Statement.class, null);
+                default -> result;
+            };
+        }
+
+        private Object wrapStatement(Object statement, Class<?> type, String sql) {
+            return Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{type},
+                    new StatementHandler(statement, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Object target;
+        // SQL of a prepared statement; plain statements pass it to execute*
+        private final String sql;
+
+        private StatementHandler(Object target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return invokeTarget(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } finally {
+                String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+                inspector.get().record(executed, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.sunasterisk.expense_management.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+import java.util.function.Supplier;
+
+/**
+ * Routes the application DataSource through {@link InspectingDataSource}, so statements issued by
+ * Hibernate and JdbcTemplate alike are timed and counted by the {@link QueryInspector}.
+ * Replaces show-sql style logging, which prints every statement.
+ */
+@Configuration
+public class QueryInspectionConfig {
+
+    @Bean
+    static BeanPostProcessor inspectingDataSourcePostProcessor(
+            ObjectProvider<QueryInspector> queryInspector,
+            @Value("${app.db.inspection.enabled:true}") boolean enabled) {
+        // Resolved lazily (the inspector depends on beans created after the DataSource), then memoized
+        // so that statements do not each go through a bean factory lookup
+        Supplier<QueryInspector> inspector = SingletonSupplier.of(queryInspector::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && !(bean instanceof InspectingDataSource)) {
+                    return new InspectingDataSource(dataSource, inspector);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.sunasterisk.expense_management.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements executed while handling each request (including authentication).
+ * With the response header option (meant for development) the response is buffered so
+ * X-Query-Count and X-Query-Time-Ms can be added once the handler has finished.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryInspectionFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+
+    private final QueryInspector queryInspector;
+
+    @Value("${app.db.inspection.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.db.inspection.response-header:false}")
+    private boolean responseHeader;
+
+    public QueryInspectionFilter(QueryInspector queryInspector) {
+        this.queryInspector = queryInspector;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || StaticResources.isStaticResource(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        ContentCachingResponseWrapper bufferedResponse = responseHeader
+                ? new ContentCachingResponseWrapper(response)
+                : null;
+        QueryInspector.RequestQueries queries = queryInspector.beginRequest();
+        try {
+            filterChain.doFilter(request, bufferedResponse != null ? bufferedResponse : response);
+        } finally {
+            queryInspector.endRequest(queries, request.getMethod(), request.getRequestURI());
+            if (bufferedResponse != null) {
+                bufferedResponse.setHeader(QUERY_COUNT_HEADER, String.valueOf(queries.getCount()));
+                bufferedResponse.setHeader(QUERY_TIME_HEADER, String.valueOf(queries.getTotalMillis()));
+                bufferedResponse.copyBodyToResponse();
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.sunasterisk.expense_management.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every JDBC statement executed through the inspected DataSource
+ * (see {@link QueryInspectionConfig}): latency per statement type as metrics, a warning for
+ * statements slower than the threshold, and per-request counts so requests issuing an unusual
+ * number of statements (typically N+1 lazy loads) are logged with their most repeated statement.
+ * Statements run outside a request (background jobs, export partitions) only feed the metrics.
+ */
+@Slf4j
+@Component
+public class QueryInspector {
+
+    private static final int MAX_SQL_LOG_LENGTH = 500;
+    // Distinct statements tracked per request for the repetition report
+    private static final int MAX_DISTINCT_STATEMENTS = 256;
+
+    private final ThreadLocal<RequestQueries> currentRequest = new ThreadLocal<>();
+
+    private final Timer selectTimer;
+    private final Timer insertTimer;
+    private final Timer updateTimer;
+    private final Timer deleteTimer;
+    private final Timer otherTimer;
+    private final Counter slowStatements;
+    private final DistributionSummary statementsPerRequest;
+    private final Counter heavyRequests;
+
+    /**
+     * Statements slower than this are logged (with their SQL, never their parameters)
+     */
+    @Value("${app.db.inspection.slow-statement-ms:200}")
+    private long slowStatementMs;
+
+    /**
+     * Requests executing more statements than this are logged as N+1 suspects
+     */
+    @Value("${app.db.inspection.request-statement-threshold:30}")
+    private int requestStatementThreshold;
+
+    public QueryInspector(MeterRegistry meterRegistry) {
+        this.selectTimer = statementTimer(meterRegistry, "select");
+        this.insertTimer = statementTimer(meterRegistry, "insert");
+        this.updateTimer = statementTimer(meterRegistry, "update");
+        this.deleteTimer = statementTimer(meterRegistry, "delete");
+        this.otherTimer = statementTimer(meterRegistry, "other");
+        this.slowStatements = Counter.builder("app.db.statement.slow")
+                .description("Statements slower than the slow-statement threshold")
+                .register(meterRegistry);
+        this.statementsPerRequest = DistributionSummary.builder("app.db.request.statements")
+                .description("JDBC statements executed per HTTP request")
+                .register(meterRegistry);
+        this.heavyRequests = Counter.builder("app.db.request.heavy")
+                .description("Requests that exceeded the statement count threshold (N+1 suspects)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Statement counters of one HTTP request
+     */
+    public static final class RequestQueries {
+
+        private int count;
+        private long totalNanos;
+        private final Map<String, Integer> repetitions = new HashMap<>();
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getTotalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+        }
+
+        private void add(String sql, long nanos) {
+            count++;
+            totalNanos += nanos;
+            if (sql != null && (repetitions.size() < MAX_DISTINCT_STATEMENTS || repetitions.containsKey(sql))) {
+                repetitions.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        private Map.Entry<String, Integer> mostRepeated() {
+            return repetitions.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .orElse(null);
+        }
+    }
+
+    /**
+     * Start counting statements executed on the current thread
+     */
+    public RequestQueries beginRequest() {
+        RequestQueries queries = new RequestQueries();
+        currentRequest.set(queries);
+        return queries;
+    }
+
+    /**
+     * Stop counting for the current thread, record the request's statement count
+     * and log it if it exceeds the threshold
+     */
+    public void endRequest(RequestQueries queries, String method, String path) {
+        currentRequest.remove();
+        statementsPerRequest.record(queries.count);
+
+        if (queries.count > requestStatementThreshold) {
+            heavyRequests.increment();
+            Map.Entry<String, Integer> top = queries.mostRepeated();
+            log.warn("{} {} executed {} SQL statements in {} ms (threshold {}); most repeated ({}x): {}",
+                    method, path, queries.count, queries.getTotalMillis(), requestStatementThreshold,
+                    top != null ? top.getValue() : 0, top != null ? abbreviate(top.getKey()) : "-");
+        }
+    }
+
+    /**
+     * Record one executed statement
+     *
+     * @param sql   the statement text (may be null for unknown batch contents)
+     * @param nanos execution time
+     */
+    void record(String sql, long nanos) {
+        timerFor(sql).record(nanos, TimeUnit.NANOSECONDS);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (millis >= slowStatementMs) {
+            slowStatements.increment();
+            log.warn("Slow SQL statement ({} ms): {}", millis, abbreviate(sql));
+        }
+
+        RequestQueries queries = currentRequest.get();
+        if (queries != null) {
+            queries.add(sql, nanos);
+        }
+    }
+
+    private Timer timerFor(String sql) {
+        if (sql == null) {
+            return otherTimer;
+        }
+        String statement = sql.stripLeading();
+        if (statement.regionMatches(true, 0, "select", 0, 6)) {
+            return selectTimer;
+        } else if (statement.regionMatches(true, 0, "insert", 0, 6)) {
+            return insertTimer;
+        } else if (statement.regionMatches(true, 0, "update", 0, 6)) {
+            return updateTimer;
+        } else if (statement.regionMatches(true, 0, "delete", 0, 6)) {
+            return deleteTimer;
+        }
+        return otherTimer;
+    }
+
+    private static Timer statementTimer(MeterRegistry meterRegistry, String type) {
+        return Timer.builder("app.db.statement")
+                .description("JDBC statement execution time")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private static String abbreviate(String sql) {
+        if (sql == null) {
+            return "(batch)";
+        }
+        String singleLine = sql.replaceAll("\\s+", " ").trim();
+        return singleLine.length() > MAX_SQL_LOG_LENGTH
+                ? singleLine.substring(0, MAX_SQL_LOG_LENGTH) + "..."
+                : singleLine;
+    }
+}
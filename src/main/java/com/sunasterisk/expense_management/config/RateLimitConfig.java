@@ -0,0 +1,38 @@
+package com.sunasterisk.expense_management.config;
+
+import com.sunasterisk.expense_management.security.ratelimit.AdminRateLimitInterceptor;
+import com.sunasterisk.expense_management.security.ratelimit.ApiRateLimitInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the request quotas: the per-user quota for API endpoints (JSON 429 responses) and a
+ * separate quota for the heavy admin export and import pages (redirect with a flash message).
+ * Login endpoints are excluded; they have their own, stricter limiter.
+ * With the jdbc bucket store every limited request costs a read and a compare-and-swap write
+ * on {@code rate_limit_buckets}.
+ */
+@Configuration
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final ApiRateLimitInterceptor apiRateLimitInterceptor;
+    private final AdminRateLimitInterceptor adminRateLimitInterceptor;
+
+    public RateLimitConfig(ApiRateLimitInterceptor apiRateLimitInterceptor,
+                           AdminRateLimitInterceptor adminRateLimitInterceptor) {
+        this.apiRateLimitInterceptor = apiRateLimitInterceptor;
+        this.adminRateLimitInterceptor = adminRateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(apiRateLimitInterceptor)
+                .addPathPatterns("/api/**")
+                .excludePathPatterns("/api/auth/**");
+        // Only the export and import paths (app.security.rate-limit.admin.paths) consume tokens
+        registry.addInterceptor(adminRateLimitInterceptor)
+                .addPathPatterns("/admin/**")
+                .excludePathPatterns("/admin/login");
+    }
+}
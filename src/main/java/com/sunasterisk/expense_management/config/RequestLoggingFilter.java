@@ -1,108 +1,200 @@
 package com.sunasterisk.expense_management.config;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sunasterisk.expense_management.security.AuthenticatedUser;
+import com.sunasterisk.expense_management.util.SensitiveDataMasker;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Collections;
-
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Structured access log: one compact JSON line per logged request, written to the
+ * {@code ACCESS_LOG} logger (asynchronous appender, see logback-spring.xml).
+ * Successful requests are sampled; errors and slow requests are always logged.
+ * Headers and request bodies are only captured for verbose routes, or for failed requests
+ * when body capture is set to "errors"; sensitive values are masked before logging.
+ */
 @Component
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
-    private static final Logger log = LoggerFactory.getLogger(RequestLoggingFilter.class);
+    private static final Logger accessLog = LoggerFactory.getLogger("ACCESS_LOG");
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Value("${app.logging.access.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Fraction (0.0 - 1.0) of successful, fast requests that are logged
+     */
+    @Value("${app.logging.access.sample-rate:1.0}")
+    private double sampleRate;
 
-    // Sensitive fields that should be masked in logs
-    private static final String[] SENSITIVE_FIELDS = {"password", "token", "secret", "apiKey"};
+    /**
+     * Requests slower than this are always logged
+     */
+    @Value("${app.logging.access.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
+
+    /**
+     * Request body capture: never, errors (status >= 400) or always
+     */
+    @Value("${app.logging.access.capture-body:errors}")
+    private String captureBody;
+
+    @Value("${app.logging.access.max-body-size:4096}")
+    private int maxBodySize;
+
+    /**
+     * Routes (Ant patterns) logged with headers and body on every request
+     */
+    @Value("${app.logging.access.verbose-paths:}")
+    private List<String> verbosePaths;
+
+    /**
+     * Routes (Ant patterns) never logged
+     */
+    @Value("${app.logging.access.exclude-paths:/actuator/**}")
+    private List<String> excludePaths;
+
+    /**
+     * Static assets are not logged, so they are not wrapped in content caching wrappers either
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || StaticResources.isStaticResource(request)
+                || matchesAny(excludePaths, request.getRequestURI());
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
-        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
-
-        long startTime = System.currentTimeMillis();
+        boolean verbose = matchesAny(verbosePaths, request.getRequestURI());
+        HttpServletRequest loggedRequest = shouldCaptureBody(request, verbose)
+                ? new ContentCachingRequestWrapper(request, maxBodySize)
+                : request;
 
+        long startTime = System.nanoTime();
         try {
-            filterChain.doFilter(requestWrapper, responseWrapper);
+            filterChain.doFilter(loggedRequest, response);
         } finally {
-            long duration = System.currentTimeMillis() - startTime;
-            logRequest(requestWrapper, responseWrapper, duration);
-            responseWrapper.copyBodyToResponse();
+            long durationMs = (System.nanoTime() - startTime) / 1_000_000;
+            int status = response.getStatus();
+            boolean error = status >= 400;
+            if (error || verbose || durationMs >= slowThresholdMs || isSampled()) {
+                boolean detailed = verbose || "always".equalsIgnoreCase(captureBody)
+                        || (error && "errors".equalsIgnoreCase(captureBody));
+                accessLog.info(formatEntry(loggedRequest, status, durationMs, detailed));
+            }
         }
     }
 
-    private void logRequest(ContentCachingRequestWrapper request, ContentCachingResponseWrapper response, long duration) {
+    private boolean shouldCaptureBody(HttpServletRequest request, boolean verbose) {
+        if ("never".equalsIgnoreCase(captureBody) && !verbose) {
+            return false;
+        }
         String method = request.getMethod();
-        String uri = request.getRequestURI();
-        String queryString = request.getQueryString();
-        int status = response.getStatus();
-
-        StringBuilder logMessage = new StringBuilder();
-        logMessage.append("\n========== HTTP Request ==========\n");
-        logMessage.append(String.format("%-15s: %s %s\n", "Method", method, uri));
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method);
+    }
 
-        if (queryString != null) {
-            logMessage.append(String.format("%-15s: %s\n", "Query Params", queryString));
-        }
+    private boolean isSampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
 
-        logMessage.append(String.format("%-15s: \n", "Headers"));
-        Collections.list(request.getHeaderNames()).forEach(headerName -> {
-            if (!headerName.equalsIgnoreCase("authorization")) {
-                logMessage.append(String.format("  %s: %s\n", headerName, request.getHeader(headerName)));
-            } else {
-                logMessage.append(String.format("  %s: Bearer ***\n", headerName));
+    private String formatEntry(HttpServletRequest request, int status, long durationMs, boolean detailed) {
+        StringWriter writer = new StringWriter(256);
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(writer)) {
+            json.writeStartObject();
+            json.writeStringField("ts", Instant.now().toString());
+            json.writeStringField("method", request.getMethod());
+            json.writeStringField("path", request.getRequestURI());
+            if (request.getQueryString() != null) {
+                json.writeStringField("query", request.getQueryString());
             }
-        });
-
-        if ("POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method)) {
-            byte[] content = request.getContentAsByteArray();
-            if (content.length > 0) {
-                String body = new String(content, StandardCharsets.UTF_8);
-                // Mask sensitive information in request body
-                body = maskSensitiveData(body);
-                logMessage.append(String.format("%-15s: %s\n", "Request Body", body));
+            json.writeNumberField("status", status);
+            json.writeNumberField("durationMs", durationMs);
+            AuthenticatedUser principal = AuthenticatedUser.current();
+            if (principal != null) {
+                json.writeNumberField("userId", principal.getId());
             }
-        }
+            json.writeStringField("ip", request.getRemoteAddr());
 
-        logMessage.append("========== HTTP Response ==========\n");
-        logMessage.append(String.format("%-15s: %d\n", "Status", status));
-        logMessage.append(String.format("%-15s: %d ms\n", "Duration", duration));
-        logMessage.append("===================================");
+            if (detailed) {
+                writeHeaders(json, request);
+                writeBody(json, request);
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
+            return "{\"path\":\"" + request.getRequestURI() + "\",\"status\":" + status + "}";
+        }
+        return writer.toString();
+    }
 
-        if (status >= 400) {
-            log.warn(logMessage.toString());
-        } else {
-            log.info(logMessage.toString());
+    private void writeHeaders(JsonGenerator json, HttpServletRequest request) throws IOException {
+        json.writeObjectFieldStart("headers");
+        for (String name : Collections.list(request.getHeaderNames())) {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            boolean masked = "authorization".equals(lowerName) || "cookie".equals(lowerName)
+                    || SensitiveDataMasker.isSensitive(lowerName);
+            json.writeStringField(lowerName, masked ? SensitiveDataMasker.MASK : request.getHeader(name));
         }
+        json.writeEndObject();
     }
 
-    /**
-     * Mask sensitive information in JSON request body
-     * Replaces values of sensitive fields with "***"
-     */
-    private String maskSensitiveData(String body) {
-        if (body == null || body.isEmpty()) {
-            return body;
+    private void writeBody(JsonGenerator json, HttpServletRequest request) throws IOException {
+        ContentCachingRequestWrapper wrapper = WebUtils.getNativeRequest(request, ContentCachingRequestWrapper.class);
+        if (wrapper == null) {
+            return;
+        }
+        byte[] content = wrapper.getContentAsByteArray();
+        if (content.length == 0) {
+            return;
         }
 
-        String maskedBody = body;
-        for (String field : SENSITIVE_FIELDS) {
-            // Match "field": "value" or "field":"value"
-            maskedBody = maskedBody.replaceAll(
-                "\"" + field + "\"\\s*:\\s*\"[^\"]*\"",
-                "\"" + field + "\":\"***\""
-            );
+        String contentType = request.getContentType() != null ? request.getContentType().toLowerCase(Locale.ROOT) : "";
+        if (contentType.contains("json")) {
+            String masked = SensitiveDataMasker.maskJson(content, content.length);
+            if (masked != null) {
+                json.writeFieldName("body");
+                json.writeRawValue(masked);
+                return;
+            }
+        } else if (contentType.startsWith("application/x-www-form-urlencoded")) {
+            json.writeStringField("body",
+                    SensitiveDataMasker.maskFormUrlEncoded(new String(content, StandardCharsets.UTF_8)));
+            return;
+        }
+        // Binary, multipart, truncated or malformed bodies are never logged verbatim
+        json.writeNumberField("bodyBytes", content.length);
+    }
+
+    private boolean matchesAny(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (!pattern.isBlank() && pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
         }
-        return maskedBody;
+        return false;
     }
 }
@@ -0,0 +1,18 @@
+package com.sunasterisk.expense_management.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-run a transactional method when it fails with a transient concurrency error
+ * (deadlock, lock wait timeout, optimistic lock conflict). Each attempt runs in a fresh transaction,
+ * so the method must be the outermost transactional call; see {@link ConflictRetryAspect}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RetryOnConflict {
+}
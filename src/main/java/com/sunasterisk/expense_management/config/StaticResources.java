@@ -0,0 +1,38 @@
+package com.sunasterisk.expense_management.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * URL patterns of static assets (WebJars for the admin UI, CSS, JS, fonts, images).
+ * Shared by the security configuration and the servlet filters so that asset requests
+ * take the same minimal path everywhere.
+ */
+public final class StaticResources {
+
+    /**
+     * Ant patterns used by the static resources security filter chain
+     */
+    public static final String[] PATTERNS = {
+            "/webjars/**", "/css/**", "/js/**", "/fonts/**", "/webfonts/**", "/images/**", "/favicon.ico"
+    };
+
+    private static final String[] PREFIXES = {
+            "/webjars/", "/css/", "/js/", "/fonts/", "/webfonts/", "/images/"
+    };
+
+    private StaticResources() {
+    }
+
+    /**
+     * Whether the request targets a static asset (plain prefix checks, no pattern matching)
+     */
+    public static boolean isStaticResource(HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (String prefix : PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return "/favicon.ico".equals(path);
+    }
+}
@@ -1,6 +1,5 @@
 package com.sunasterisk.expense_management.controller;
 
-import com.sunasterisk.expense_management.dto.PageResponse;
 import com.sunasterisk.expense_management.dto.expense.ExpenseFilterRequest;
 import com.sunasterisk.expense_management.dto.expense.ExpenseRequest;
 import com.sunasterisk.expense_management.dto.expense.ExpenseResponse;
@@ -30,10 +29,12 @@ public class ExpenseController {
     }
 
     /**
-     * Lấy danh sách chi tiêu với phân trang và filter
+     * Lấy danh sách chi tiêu với phân trang và filter.
+     * Khi có tham số cursor (rỗng = trang đầu) sẽ dùng keyset pagination, sắp xếp mới nhất trước
+     * và bỏ qua page/sortBy/sortDir.
      */
     @GetMapping
-    public ResponseEntity<PageResponse<ExpenseResponse>> getExpenses(
+    public ResponseEntity<?> getExpenses(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) @Positive Long categoryId,
             @RequestParam(required = false) LocalDate startDate,
@@ -42,6 +43,7 @@ public class ExpenseController {
             @RequestParam(required = false) @DecimalMin("0.0") BigDecimal maxAmount,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer page,
             @RequestParam(defaultValue = "10") @Positive @Max(100) Integer size,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "expenseDate") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir
     ) {
@@ -57,6 +59,10 @@ public class ExpenseController {
         filter.setSortBy(sortBy);
         filter.setSortDir(sortDir);
 
+        if (cursor != null) {
+            filter.setCursor(cursor);
+            return ResponseEntity.ok(expenseService.getExpensesByCursor(filter));
+        }
         return ResponseEntity.ok(expenseService.getExpenses(filter));
     }
 
@@ -1,6 +1,5 @@
 package com.sunasterisk.expense_management.controller;
 
-import com.sunasterisk.expense_management.dto.PageResponse;
 import com.sunasterisk.expense_management.dto.income.IncomeFilterRequest;
 import com.sunasterisk.expense_management.dto.income.IncomeRequest;
 import com.sunasterisk.expense_management.dto.income.IncomeResponse;
@@ -35,10 +34,12 @@ public class IncomeController {
     }
 
     /**
-     * Lấy danh sách thu nhập với phân trang và filter
+     * Lấy danh sách thu nhập với phân trang và filter.
+     * Khi có tham số cursor (rỗng = trang đầu) sẽ dùng keyset pagination, sắp xếp mới nhất trước
+     * và bỏ qua page/sortBy/sortDir.
      */
     @GetMapping
-    public ResponseEntity<PageResponse<IncomeResponse>> getIncomes(
+    public ResponseEntity<?> getIncomes(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) @Positive Long categoryId,
             @RequestParam(required = false) LocalDate startDate,
@@ -47,6 +48,7 @@ public class IncomeController {
             @RequestParam(required = false) @DecimalMin("0.0") BigDecimal maxAmount,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer page,
             @RequestParam(defaultValue = "10") @Positive @Max(100) Integer size,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "incomeDate") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir
     ) {
@@ -62,6 +64,10 @@ public class IncomeController {
         filter.setSortBy(sortBy);
         filter.setSortDir(sortDir);
 
+        if (cursor != null) {
+            filter.setCursor(cursor);
+            return ResponseEntity.ok(incomeService.getIncomesByCursor(filter));
+        }
         return ResponseEntity.ok(incomeService.getIncomes(filter));
     }
 
@@ -1,16 +1,20 @@
 package com.sunasterisk.expense_management.controller.admin;
 
-import com.sunasterisk.expense_management.dto.PageResponse;
+import com.sunasterisk.expense_management.dto.CursorPageResponse;
 import com.sunasterisk.expense_management.dto.activitylog.ActivityLogFilterRequest;
 import com.sunasterisk.expense_management.dto.activitylog.ActivityLogResponse;
 import com.sunasterisk.expense_management.entity.ActivityLog.ActionType;
 import com.sunasterisk.expense_management.service.ActivityLogService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+@Validated
 @Controller
 @RequestMapping("/admin")
 public class AdminActivityLogController extends BaseAdminController {
@@ -29,16 +33,20 @@ public class AdminActivityLogController extends BaseAdminController {
                         @RequestParam(required = false) Long userId,
                         @RequestParam(required = false) ActionType action,
                         @RequestParam(required = false) String entityType,
+                        @RequestParam(required = false) Long entityId,
+                        @RequestParam(required = false) String keyword,
                         @RequestParam(required = false) String startDate,
                         @RequestParam(required = false) String endDate,
-                        @RequestParam(defaultValue = "0") Integer page,
-                        @RequestParam(defaultValue = "20") Integer size) {
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "20") @Positive @Max(100) Integer size) {
 
         ActivityLogFilterRequest.ActivityLogFilterRequestBuilder filterBuilder = ActivityLogFilterRequest.builder()
                 .userId(userId)
                 .action(action)
                 .entityType(entityType)
-                .page(page)
+                .entityId(entityId)
+                .keyword(keyword)
+                .cursor(cursor)
                 .size(size);
 
         if (parseLocalDate(startDate) != null) {
@@ -49,13 +57,14 @@ public class AdminActivityLogController extends BaseAdminController {
         }
 
         ActivityLogFilterRequest filter = filterBuilder.build();
-        PageResponse<ActivityLogResponse> response = activityLogService.getAllLogs(filter);
+        CursorPageResponse<ActivityLogResponse> response = activityLogService.getLogsByCursor(filter);
 
         model.addAttribute("activeMenu", MODULE);
         model.addAttribute("logs", response.getContent());
-        model.addAttribute("currentPage", response.getPageNumber());
-        model.addAttribute("totalPages", response.getTotalPages());
-        model.addAttribute("totalElements", response.getTotalElements());
+        model.addAttribute("nextCursor", response.getNextCursor());
+        model.addAttribute("previousCursor", response.getPreviousCursor());
+        model.addAttribute("approximateTotal", response.getApproximateTotal());
+        model.addAttribute("truncated", response.isTruncated());
         model.addAttribute("filter", filter);
         model.addAttribute("actionTypes", ActionType.values());
 
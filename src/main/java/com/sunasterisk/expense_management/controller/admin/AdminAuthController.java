@@ -3,6 +3,7 @@ package com.sunasterisk.expense_management.controller.admin;
 import com.sunasterisk.expense_management.dto.admin.AdminLoginRequest;
 import com.sunasterisk.expense_management.entity.ActivityLog.ActionType;
 import com.sunasterisk.expense_management.entity.User;
+import com.sunasterisk.expense_management.exception.RateLimitExceededException;
 import com.sunasterisk.expense_management.repository.UserRepository;
 import com.sunasterisk.expense_management.service.ActivityLogService;
 import com.sunasterisk.expense_management.util.CommonUtil;
@@ -156,6 +157,9 @@ public class AdminAuthController {
         } catch (BadCredentialsException e) {
             model.addAttribute("error", messageUtil.getMessage("auth.invalid.credentials"));
             return "admin/login";
+        } catch (RateLimitExceededException e) {
+            model.addAttribute("error", e.getMessage());
+            return "admin/login";
         } catch (Exception e) {
             model.addAttribute("error", messageUtil.getMessage("error.internal.server"));
             return "admin/login";
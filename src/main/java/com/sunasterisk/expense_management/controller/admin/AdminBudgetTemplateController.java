@@ -4,6 +4,10 @@ import com.sunasterisk.expense_management.dto.PageResponse;
 import com.sunasterisk.expense_management.dto.budgettemplate.BudgetTemplateFilterRequest;
 import com.sunasterisk.expense_management.dto.budgettemplate.BudgetTemplateRequest;
 import com.sunasterisk.expense_management.dto.budgettemplate.BudgetTemplateResponse;
+import com.sunasterisk.expense_management.dto.budgettemplate.BudgetTemplateRolloutJobResponse;
+import com.sunasterisk.expense_management.dto.budgettemplate.BudgetTemplateRolloutRequest;
+import com.sunasterisk.expense_management.entity.User.Role;
+import com.sunasterisk.expense_management.service.BudgetTemplateRolloutService;
 import com.sunasterisk.expense_management.service.BudgetTemplateService;
 import com.sunasterisk.expense_management.service.CategoryService;
 import com.sunasterisk.expense_management.service.CsvExportService;
@@ -16,6 +20,8 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.YearMonth;
+
 @Controller
 @RequestMapping("/admin")
 public class AdminBudgetTemplateController extends BaseAdminController {
@@ -23,15 +29,18 @@ public class AdminBudgetTemplateController extends BaseAdminController {
     private static final String MODULE = "budget-templates";
 
     private final BudgetTemplateService budgetTemplateService;
+    private final BudgetTemplateRolloutService budgetTemplateRolloutService;
     private final CategoryService categoryService;
     private final CsvExportService csvExportService;
 
     public AdminBudgetTemplateController(BudgetTemplateService budgetTemplateService,
+                                         BudgetTemplateRolloutService budgetTemplateRolloutService,
                                          CategoryService categoryService,
                                          CsvExportService csvExportService,
                                          MessageSource messageSource) {
         super(messageSource);
         this.budgetTemplateService = budgetTemplateService;
+        this.budgetTemplateRolloutService = budgetTemplateRolloutService;
         this.categoryService = categoryService;
         this.csvExportService = csvExportService;
     }
@@ -67,6 +76,14 @@ public class AdminBudgetTemplateController extends BaseAdminController {
             model.addAttribute("activeMenu", MODULE);
             BudgetTemplateResponse template = budgetTemplateService.getBudgetTemplateById(id);
             model.addAttribute("template", template);
+            // Rollout form defaults to next month
+            YearMonth nextMonth = YearMonth.now().plusMonths(1);
+            model.addAttribute("rollout", BudgetTemplateRolloutRequest.builder()
+                    .year(nextMonth.getYear())
+                    .month(nextMonth.getMonthValue())
+                    .build());
+            model.addAttribute("roles", Role.values());
+            model.addAttribute("rolloutJobs", budgetTemplateRolloutService.getJobs(id));
             return viewDetail(MODULE);
         } catch (RuntimeException e) {
             redirectAttributes.addFlashAttribute("error", e.getMessage());
@@ -160,6 +177,38 @@ public class AdminBudgetTemplateController extends BaseAdminController {
         return redirectToIndex(MODULE);
     }
 
+    /**
+     * Start a background job creating the template's budgets for all active users (or those of one role)
+     * in the given month
+     */
+    @PostMapping("/budget-templates/{id}/rollout")
+    public String rollout(@PathVariable Long id,
+                          @Valid @ModelAttribute("rollout") BudgetTemplateRolloutRequest rollout,
+                          BindingResult bindingResult,
+                          RedirectAttributes redirectAttributes) {
+        if (bindingResult.hasErrors()) {
+            redirectAttributes.addFlashAttribute("error", getMessage("admin.budget.template.rollout.invalid"));
+            return REDIRECT_PREFIX + MODULE + "/" + id;
+        }
+        try {
+            budgetTemplateRolloutService.submit(id, rollout);
+            redirectAttributes.addFlashAttribute("success", getMessage("admin.budget.template.rollout.started",
+                    rollout.getMonth(), String.valueOf(rollout.getYear())));
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return REDIRECT_PREFIX + MODULE + "/" + id;
+    }
+
+    /**
+     * Rollout job status, polled by the template detail page
+     */
+    @GetMapping("/budget-templates/rollouts/{jobId}/status")
+    @ResponseBody
+    public BudgetTemplateRolloutJobResponse rolloutStatus(@PathVariable String jobId) {
+        return budgetTemplateRolloutService.getJob(jobId);
+    }
+
     /**
      * Export budget templates to CSV
      */
@@ -0,0 +1,84 @@
+package com.sunasterisk.expense_management.controller.admin;
+
+import com.sunasterisk.expense_management.dto.export.ExportJobResponse;
+import com.sunasterisk.expense_management.service.CsvExportService.ExportType;
+import com.sunasterisk.expense_management.service.admin.AdminExportService;
+import org.springframework.context.MessageSource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Controller for background CSV export jobs in Admin Panel
+ */
+@Controller
+@RequestMapping("/admin")
+public class AdminExportController extends BaseAdminController {
+
+    private static final String MODULE = "exports";
+
+    private final AdminExportService adminExportService;
+
+    public AdminExportController(AdminExportService adminExportService, MessageSource messageSource) {
+        super(messageSource);
+        this.adminExportService = adminExportService;
+    }
+
+    /**
+     * List export jobs
+     */
+    @GetMapping("/exports")
+    public String index(Model model) {
+        model.addAttribute("activeMenu", MODULE);
+        model.addAttribute("jobs", adminExportService.getJobs());
+        model.addAttribute("exportTypes", ExportType.values());
+        return viewIndex(MODULE);
+    }
+
+    /**
+     * Start a background export job
+     */
+    @PostMapping("/exports")
+    public String start(@RequestParam ExportType type, RedirectAttributes redirectAttributes) {
+        try {
+            adminExportService.submit(type);
+            redirectAttributes.addFlashAttribute("success", getMessage("admin.export.started", type.getFileName()));
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return redirectToIndex(MODULE);
+    }
+
+    /**
+     * Job status, polled by the export list page
+     */
+    @GetMapping("/exports/{id}/status")
+    @ResponseBody
+    public ExportJobResponse status(@PathVariable String id) {
+        return adminExportService.getJob(id);
+    }
+
+    /**
+     * Download the stored artifact. Range requests are handled by Spring for Resource bodies,
+     * so interrupted downloads can be resumed.
+     */
+    @GetMapping("/exports/{id}/download")
+    public ResponseEntity<Resource> download(@PathVariable String id) {
+        ExportJobResponse job = adminExportService.getJob(id);
+        Resource artifact = adminExportService.getArtifact(id);
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(job.getFileName()).build().toString())
+                .body(artifact);
+    }
+}
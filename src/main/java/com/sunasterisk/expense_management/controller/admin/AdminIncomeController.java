@@ -1,6 +1,6 @@
 package com.sunasterisk.expense_management.controller.admin;
 
-import com.sunasterisk.expense_management.dto.PageResponse;
+import com.sunasterisk.expense_management.dto.CursorPageResponse;
 import com.sunasterisk.expense_management.dto.csv.CsvImportResult;
 import com.sunasterisk.expense_management.dto.income.AdminIncomeFilterRequest;
 import com.sunasterisk.expense_management.dto.income.IncomeRequest;
@@ -11,6 +11,8 @@ import com.sunasterisk.expense_management.service.CsvExportService;
 import com.sunasterisk.expense_management.service.CsvImportService;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 
 import java.time.LocalDate;
 
@@ -18,10 +20,12 @@ import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+@Validated
 @Controller
 @RequestMapping("/admin")
 public class AdminIncomeController extends BaseAdminController {
@@ -52,13 +56,13 @@ public class AdminIncomeController extends BaseAdminController {
                         @RequestParam(required = false) Long categoryId,
                         @RequestParam(required = false) String startDate,
                         @RequestParam(required = false) String endDate,
-                        @RequestParam(defaultValue = "0") Integer page,
-                        @RequestParam(defaultValue = "20") Integer size) {
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "20") @Positive @Max(100) Integer size) {
         AdminIncomeFilterRequest.AdminIncomeFilterRequestBuilder filterBuilder = AdminIncomeFilterRequest.builder()
                 .name(name)
                 .userId(userId)
                 .categoryId(categoryId)
-                .page(page)
+                .cursor(cursor)
                 .size(size);
 
         LocalDate parsedStartDate = parseLocalDate(startDate);
@@ -72,13 +76,13 @@ public class AdminIncomeController extends BaseAdminController {
         }
 
         AdminIncomeFilterRequest filter = filterBuilder.build();
-        PageResponse<IncomeResponse> response = adminIncomeService.getAllIncomes(filter);
+        CursorPageResponse<IncomeResponse> response = adminIncomeService.getIncomesByCursor(filter);
 
         model.addAttribute("activeMenu", "incomes");
         model.addAttribute("incomes", response.getContent());
-        model.addAttribute("currentPage", response.getPageNumber());
-        model.addAttribute("totalPages", response.getTotalPages());
-        model.addAttribute("totalElements", response.getTotalElements());
+        model.addAttribute("nextCursor", response.getNextCursor());
+        model.addAttribute("previousCursor", response.getPreviousCursor());
+        model.addAttribute("approximateTotal", response.getApproximateTotal());
         model.addAttribute("filter", filter);
 
         return viewIndex(MODULE);
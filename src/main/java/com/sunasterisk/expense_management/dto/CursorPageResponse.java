@@ -0,0 +1,24 @@
+package com.sunasterisk.expense_management.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. Pages are addressed by opaque cursors instead of page numbers,
+ * so no COUNT query or OFFSET scan is needed; the total is only an estimate and may be absent.
+ */
+@Data
+@Builder
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int pageSize;
+    private String nextCursor;
+    private String previousCursor;
+    private boolean hasNext;
+    private boolean hasPrevious;
+    private Long approximateTotal;
+    // The underlying search result was capped, so older matches are not listed
+    private boolean truncated;
+}
@@ -17,6 +17,9 @@ public class ActivityLogFilterRequest {
     private Long userId;
     private ActionType action;
     private String entityType;
+    private Long entityId;
+    // Full-text search over description and entity key (e.g. Expense_42)
+    private String keyword;
     private LocalDate startDate;
     private LocalDate endDate;
 
@@ -26,6 +29,9 @@ public class ActivityLogFilterRequest {
     @Builder.Default
     private Integer size = 20;
 
+    // Keyset pagination cursor (null or blank = first page)
+    private String cursor;
+
     @Builder.Default
     private String sortBy = "createdAt";
 
@@ -22,6 +22,10 @@ public class ActivityLogResponse {
     private String description;
     private String oldValue;
     private String newValue;
+
+    // Full entity state before/after this action, rebuilt from the entity's log history (detail view only)
+    private String stateBefore;
+    private String stateAfter;
     private String ipAddress;
     private String userAgent;
 
@@ -0,0 +1,52 @@
+package com.sunasterisk.expense_management.dto.budgettemplate;
+
+import com.sunasterisk.expense_management.entity.User.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State and progress of a background budget template rollout
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetTemplateRolloutJobResponse {
+
+    private String id;
+    private Long templateId;
+    private Integer year;
+    private Integer month;
+    private Role role;
+    private Status status;
+    private int chunksDone;
+    private int chunksTotal;
+    private int budgetsCreated;
+    private int alertsQueued;
+    private String errorMessage;
+    private String requestedBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    /**
+     * Share of user-id ranges processed, 0-100
+     */
+    public int getProgressPercent() {
+        if (isFinished()) {
+            return 100;
+        }
+        return chunksTotal > 0 ? chunksDone * 100 / chunksTotal : 0;
+    }
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
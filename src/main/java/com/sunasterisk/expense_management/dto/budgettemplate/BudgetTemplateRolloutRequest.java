@@ -0,0 +1,40 @@
+package com.sunasterisk.expense_management.dto.budgettemplate;
+
+import com.sunasterisk.expense_management.entity.User.Role;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Target month and users of a budget template rollout
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetTemplateRolloutRequest {
+
+    @NotNull(message = "{budget.year.required}")
+    @Min(value = 2000, message = "{validation.min.value}")
+    @Max(value = 2100, message = "{validation.max.value}")
+    private Integer year;
+
+    @NotNull(message = "{budget.month.required}")
+    @Min(value = 1, message = "{validation.min.value}")
+    @Max(value = 12, message = "{validation.max.value}")
+    private Integer month;
+
+    /**
+     * Only active users with this role; null targets every active user
+     */
+    private Role role;
+
+    @Min(value = 0, message = "{validation.min.value}")
+    @Max(value = 100, message = "{validation.max.value}")
+    @Builder.Default
+    private Integer alertThreshold = 80;
+}
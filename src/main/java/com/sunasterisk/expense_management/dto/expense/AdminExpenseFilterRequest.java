@@ -32,6 +32,9 @@ public class AdminExpenseFilterRequest {
     @Builder.Default
     private Integer size = 20;
 
+    // Keyset pagination cursor (null or blank = first page)
+    private String cursor;
+
     @ValidSortFields(
         entityClass = Expense.class,
         allowedFields = {"id", "name", "amount", "expenseDate", "note", "createdAt", "updatedAt"},
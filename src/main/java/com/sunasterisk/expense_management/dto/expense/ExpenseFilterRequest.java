@@ -21,6 +21,9 @@ public class ExpenseFilterRequest {
     private Integer page = 0;
     private Integer size = 10;
 
+    // Keyset pagination cursor (null = offset pagination, blank = first page)
+    private String cursor;
+
     @ValidSortFields(
         entityClass = Expense.class,
         allowedFields = {"id", "name", "amount", "expenseDate", "note", "createdAt", "updatedAt"},
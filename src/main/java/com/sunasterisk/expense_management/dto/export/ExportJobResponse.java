@@ -0,0 +1,36 @@
+package com.sunasterisk.expense_management.dto.export;
+
+import com.sunasterisk.expense_management.service.CsvExportService.ExportType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobResponse {
+
+    private String id;
+    private ExportType type;
+    private Status status;
+    private String fileName;
+    private Integer rowCount;
+    private Long sizeBytes;
+    private String errorMessage;
+    private String requestedBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
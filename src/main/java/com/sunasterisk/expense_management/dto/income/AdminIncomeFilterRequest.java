@@ -32,6 +32,9 @@ public class AdminIncomeFilterRequest {
     @Builder.Default
     private Integer size = 20;
 
+    // Keyset pagination cursor (null or blank = first page)
+    private String cursor;
+
     @ValidSortFields(
         entityClass = Income.class,
         allowedFields = {"id", "name", "amount", "incomeDate", "note", "createdAt", "updatedAt"},
@@ -23,6 +23,9 @@ public class IncomeFilterRequest {
     private int page = 0;
     private int size = 20;
 
+    // Keyset pagination cursor (null = offset pagination, blank = first page)
+    private String cursor;
+
     @ValidSortFields(
         entityClass = Income.class,
         allowedFields = {"id", "name", "amount", "incomeDate", "note", "createdAt", "updatedAt"},
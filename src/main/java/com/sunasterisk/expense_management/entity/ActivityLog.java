@@ -1,82 +1,89 @@
-package com.sunasterisk.expense_management.entity;
-
-import jakarta.persistence.*;
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Size;
-import lombok.*;
-
-import java.time.LocalDateTime;
-
-/**
- * Entity đại diện cho log hoạt động trong hệ thống
- */
-@Entity
-@Table(name = "activity_logs", indexes = {
-    @Index(name = "idx_activity_user", columnList = "user_id"),
-    @Index(name = "idx_activity_action", columnList = "action"),
-    @Index(name = "idx_activity_created", columnList = "created_at")
-})
-@Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
-public class ActivityLog {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @NotNull(message = "{activity.action.required}")
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false, length = 30)
-    private ActionType action;
-
-    @NotBlank(message = "{activity.entity.type.required}")
-    @Size(max = 50, message = "{activity.entity.type.max.length}")
-    @Column(name = "entity_type", nullable = false, length = 50)
-    private String entityType;
-
-    @Column(name = "entity_id")
-    private Long entityId;
-
-    @Column(columnDefinition = "TEXT")
-    private String description;
-
-    @Column(name = "old_value", columnDefinition = "TEXT")
-    private String oldValue;
-
-    @Column(name = "new_value", columnDefinition = "TEXT")
-    private String newValue;
-
-    @Column(name = "ip_address", length = 50)
-    private String ipAddress;
-
-    @Column(name = "user_agent", columnDefinition = "TEXT")
-    private String userAgent;
-
-    @Column(name = "created_at", nullable = false, updatable = false)
-    private LocalDateTime createdAt;
-
-    // Relationships
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id")
-    private User user;
-
-    @PrePersist
-    protected void onCreate() {
-        createdAt = LocalDateTime.now();
-    }
-
-    public enum ActionType {
-        LOGIN,
-        LOGOUT,
-        CREATE,
-        UPDATE,
-        DELETE,
-        EXPORT,
-        IMPORT,
-        VIEW
-    }
-}
+package com.sunasterisk.expense_management.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import org.hibernate.annotations.NotFound;
+import org.hibernate.annotations.NotFoundAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity đại diện cho log hoạt động trong hệ thống
+ */
+@Entity
+@Table(name = "activity_logs", indexes = {
+    @Index(name = "idx_activity_user", columnList = "user_id"),
+    @Index(name = "idx_activity_action", columnList = "action"),
+    @Index(name = "idx_activity_created", columnList = "created_at"),
+    @Index(name = "idx_logs_entity_created", columnList = "entity_type, entity_id, created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull(message = "{activity.action.required}")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private ActionType action;
+
+    @NotBlank(message = "{activity.entity.type.required}")
+    @Size(max = 50, message = "{activity.entity.type.max.length}")
+    @Column(name = "entity_type", nullable = false, length = 50)
+    private String entityType;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "old_value", columnDefinition = "TEXT")
+    private String oldValue;
+
+    @Column(name = "new_value", columnDefinition = "TEXT")
+    private String newValue;
+
+    @Column(name = "ip_address", length = 50)
+    private String ipAddress;
+
+    @Column(name = "user_agent", columnDefinition = "TEXT")
+    private String userAgent;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Relationships
+    // Bảng được phân vùng theo tháng (created_at) nên không có khóa ngoại tới users;
+    // user_id trỏ tới người dùng không còn tồn tại được coi là null
+    // @NotFound buộc Hibernate tải user ngay cả khi khai báo LAZY, nên mọi truy vấn danh sách phải fetch user bằng @EntityGraph
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @NotFound(action = NotFoundAction.IGNORE)
+    private User user;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public enum ActionType {
+        LOGIN,
+        LOGOUT,
+        CREATE,
+        UPDATE,
+        DELETE,
+        EXPORT,
+        IMPORT,
+        VIEW
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -19,7 +20,11 @@ import java.time.YearMonth;
     @Index(name = "idx_budget_user", columnList = "user_id"),
     @Index(name = "idx_budget_category", columnList = "category_id"),
     @Index(name = "idx_budget_period", columnList = "year, month")
+}, uniqueConstraints = {
+    // Khóa duy nhất như trong schema.sql: câu UPDATE cộng dồn spent_amount chỉ khóa đúng một dòng
+    @UniqueConstraint(name = "uk_budget_user_category_period", columnNames = {"user_id", "category_id", "year", "month"})
 })
+@DynamicUpdate // Chỉ cập nhật cột thay đổi: spent_amount chỉ được cộng dồn bằng câu UPDATE nguyên tử
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,111 @@
+package com.sunasterisk.expense_management.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Entity cảnh báo ngân sách trong hộp thư đi (transactional outbox).
+ * Bản ghi được tạo trong cùng giao dịch với chi tiêu làm ngân sách vượt ngưỡng cảnh báo,
+ * sau đó được gửi theo lô qua các kênh thông báo bởi tiến trình nền.
+ * Giá trị ngân sách được chụp lại tại thời điểm vượt ngưỡng.
+ */
+@Entity
+@Table(name = "budget_alert_outbox", indexes = {
+    @Index(name = "idx_alert_outbox_status", columnList = "status, id"),
+    @Index(name = "idx_alert_outbox_budget", columnList = "budget_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BudgetAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id")
+    private Long categoryId; // NULL = ngân sách tổng
+
+    @Column(name = "budget_name", nullable = false, length = 200)
+    private String budgetName;
+
+    @Column(nullable = false)
+    private Integer year;
+
+    @Column(nullable = false)
+    private Integer month;
+
+    @Column(name = "spent_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal spentAmount;
+
+    @Column(name = "amount_limit", nullable = false, precision = 15, scale = 2)
+    private BigDecimal amountLimit;
+
+    @Column(name = "alert_threshold", nullable = false)
+    private Integer alertThreshold;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Column(name = "delivered_channels", nullable = false, length = 200)
+    @Builder.Default
+    private String deliveredChannels = ""; // Các kênh đã gửi thành công, phân tách bởi dấu phẩy
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Kiểm tra cảnh báo đã được gửi thành công qua kênh hay chưa
+     */
+    public boolean isDeliveredTo(String channel) {
+        return Arrays.asList(deliveredChannels.split(",")).contains(channel);
+    }
+
+    /**
+     * Ghi nhận cảnh báo đã được gửi thành công qua kênh
+     */
+    public void markDeliveredTo(String channel) {
+        if (!isDeliveredTo(channel)) {
+            deliveredChannels = deliveredChannels.isEmpty() ? channel : deliveredChannels + "," + channel;
+        }
+    }
+
+    public enum Status {
+        PENDING,        // Chờ gửi
+        IN_PROGRESS,    // Đang được một tiến trình gửi
+        SENT,           // Đã gửi qua mọi kênh
+        FAILED          // Hết số lần thử
+    }
+}
@@ -18,9 +18,13 @@ import java.util.List;
  */
 @Entity
 @Table(name = "expenses", indexes = {
-    @Index(name = "idx_expense_user", columnList = "user_id"),
+    // Chỉ mục bao phủ cho báo cáo theo khoảng ngày và tổng theo danh mục/tháng (thay cho chỉ mục user_id)
+    @Index(name = "idx_expenses_user_date", columnList = "user_id, expense_date, category_id, amount"),
+    @Index(name = "idx_expenses_user_category_date", columnList = "user_id, category_id, expense_date, amount"),
     @Index(name = "idx_expense_category", columnList = "category_id"),
-    @Index(name = "idx_expense_date", columnList = "expense_date")
+    @Index(name = "idx_expense_date", columnList = "expense_date"),
+    @Index(name = "idx_expenses_created", columnList = "created_at, id"),
+    @Index(name = "idx_expenses_user_created", columnList = "user_id, created_at, id")
 })
 @Getter
 @Setter
@@ -16,9 +16,13 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "incomes", indexes = {
-    @Index(name = "idx_income_user", columnList = "user_id"),
+    // Chỉ mục bao phủ cho báo cáo theo khoảng ngày và tổng theo danh mục/tháng (thay cho chỉ mục user_id)
+    @Index(name = "idx_incomes_user_date", columnList = "user_id, income_date, category_id, amount"),
+    @Index(name = "idx_incomes_user_category_date", columnList = "user_id, category_id, income_date, amount"),
     @Index(name = "idx_income_category", columnList = "category_id"),
-    @Index(name = "idx_income_date", columnList = "income_date")
+    @Index(name = "idx_income_date", columnList = "income_date"),
+    @Index(name = "idx_incomes_created", columnList = "created_at, id"),
+    @Index(name = "idx_incomes_user_created", columnList = "user_id, created_at, id")
 })
 @Getter
 @Setter
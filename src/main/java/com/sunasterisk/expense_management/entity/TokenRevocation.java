@@ -0,0 +1,49 @@
+package com.sunasterisk.expense_management.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity lưu token JWT đã bị thu hồi.
+ * Mỗi bản ghi là một token cụ thể (jti) hoặc một mốc "token phát hành trước thời điểm này"
+ * của một người dùng (jti = null). Bản ghi được xóa sau khi các token liên quan hết hạn.
+ */
+@Entity
+@Table(name = "token_revocations", indexes = {
+    @Index(name = "idx_revocation_jti", columnList = "jti", unique = true),
+    @Index(name = "idx_revocation_user", columnList = "user_id"),
+    @Index(name = "idx_revocation_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 64)
+    private String jti;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "issued_before")
+    private LocalDateTime issuedBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -10,6 +10,8 @@ import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -124,7 +126,9 @@ public class GlobalExceptionHandler {
                 .message(ex.getMessage())
                 .path(request.getRequestURI())
                 .build();
-        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfterSeconds())))
+                .body(response);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -185,13 +189,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
-    @ExceptionHandler(OptimisticLockException.class)
+    /**
+     * Concurrent update conflicts: stale entity versions, and deadlocks or lock timeouts
+     * that persisted through @RetryOnConflict
+     */
+    @ExceptionHandler({OptimisticLockException.class, ConcurrencyFailureException.class})
     public ResponseEntity<ErrorResponse> handleOptimisticLockException(
-            OptimisticLockException ex,
+            Exception ex,
             HttpServletRequest request) {
 
         // Log concurrent update conflicts
-        log.warn("OptimisticLockException at {} from user: {}",
+        log.warn("{} at {} from user: {}",
+                ex.getClass().getSimpleName(),
                 request.getRequestURI(),
                 request.getUserPrincipal() != null ? request.getUserPrincipal().getName() : "anonymous");
 
@@ -1,18 +1,30 @@
 package com.sunasterisk.expense_management.exception;
 
+import java.time.Duration;
+
 /**
  * Exception thrown when rate limit is exceeded
  */
 public class RateLimitExceededException extends RuntimeException {
 
-    private final int lockoutDurationMinutes;
+    private final Duration retryAfter;
 
-    public RateLimitExceededException(String message, int lockoutDurationMinutes) {
+    /**
+     * @param retryAfter how long the client is locked out
+     */
+    public RateLimitExceededException(String message, Duration retryAfter) {
         super(message);
-        this.lockoutDurationMinutes = lockoutDurationMinutes;
+        this.retryAfter = retryAfter;
     }
 
     public int getLockoutDurationMinutes() {
-        return lockoutDurationMinutes;
+        return (int) Math.ceil(retryAfter.toSeconds() / 60.0);
+    }
+
+    /**
+     * Seconds the client should wait before retrying, sent as the Retry-After header
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfter.toSeconds();
     }
 }
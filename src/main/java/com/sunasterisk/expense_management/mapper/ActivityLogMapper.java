@@ -12,5 +12,7 @@ public interface ActivityLogMapper {
     @Mapping(source = "user.name", target = "userName")
     @Mapping(source = "user.email", target = "userEmail")
     @Mapping(source = "userAgent", target = "userAgent")
+    @Mapping(target = "stateBefore", ignore = true)
+    @Mapping(target = "stateAfter", ignore = true)
     ActivityLogResponse toResponse(ActivityLog activityLog);
 }
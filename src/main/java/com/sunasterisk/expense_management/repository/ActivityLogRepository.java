@@ -9,9 +9,11 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -35,11 +37,13 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>,
     /**
      * Find logs by action type.
      */
+    @EntityGraph(attributePaths = {"user"})
     Page<ActivityLog> findByAction(ActionType action, Pageable pageable);
 
     /**
      * Find logs by entity type.
      */
+    @EntityGraph(attributePaths = {"user"})
     Page<ActivityLog> findByEntityType(String entityType, Pageable pageable);
 
     /**
@@ -48,6 +52,13 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>,
     @EntityGraph(attributePaths = {"user"})
     List<ActivityLog> findByEntityTypeAndEntityIdOrderByCreatedAtDesc(String entityType, Long entityId);
 
+    /**
+     * Find the history of an entity up to (and including) a given log, oldest first.
+     * Used to rebuild full entity states from compact change payloads.
+     */
+    @EntityGraph(attributePaths = {"user"})
+    List<ActivityLog> findByEntityTypeAndEntityIdAndIdLessThanEqualOrderByIdAsc(String entityType, Long entityId, Long id);
+
     /**
      * Find logs within a date range.
      */
@@ -61,9 +72,20 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>,
     Long countByAction(@Param("action") ActionType action);
 
     /**
-     * Delete old logs before a certain date.
+     * Delete old logs before a certain date (single bulk statement, pruned to the partitions before the date).
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ActivityLog a WHERE a.createdAt < :date")
+    int deleteByCreatedAtBefore(@Param("date") LocalDateTime date);
+
+    /**
+     * Detach logs from a user that is about to be deleted
+     * (partitioned tables cannot have foreign keys, so there is no ON DELETE SET NULL).
      */
-    void deleteByCreatedAtBefore(LocalDateTime date);
+    @Modifying
+    @Query("UPDATE ActivityLog a SET a.user = null WHERE a.user.id = :userId")
+    int clearUser(@Param("userId") Long userId);
 
     /**
      * Find recent logs for a user.
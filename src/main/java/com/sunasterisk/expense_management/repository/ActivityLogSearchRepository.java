@@ -0,0 +1,160 @@
+package com.sunasterisk.expense_management.repository;
+
+import com.sunasterisk.expense_management.entity.ActivityLog;
+import com.sunasterisk.expense_management.entity.ActivityLog.ActionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full-text search over activity logs, backed by the non-partitioned {@code activity_log_search} table
+ * (MySQL does not support FULLTEXT indexes on the partitioned {@code activity_logs} table).
+ * Each row holds the log's description plus an entity key token such as {@code Expense_42}, and a copy of
+ * the columns the admin list filters on, so the filters narrow the search before its result is capped.
+ * Rows are written by the activity log writer right after the logs themselves.
+ */
+@Repository
+public class ActivityLogSearchRepository {
+
+    private static final String INSERT_PREFIX = "INSERT IGNORE INTO activity_log_search "
+            + "(log_id, created_at, search_text, user_id, action, entity_type, entity_id) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * A matching log: id and creation time (the latter allows partition pruning on activity_logs)
+     */
+    public record Match(Long id, LocalDateTime createdAt) {
+    }
+
+    /**
+     * Keyword plus optional (null) filters; the date bounds are inclusive
+     */
+    public record Criteria(String keyword, Long userId, ActionType action, String entityType, Long entityId,
+                           LocalDateTime from, LocalDateTime to) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ActivityLogSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Index already inserted logs (ids must be set) with one multi-row INSERT
+     */
+    public void index(List<ActivityLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(logs.size() * 7);
+        for (ActivityLog entry : logs) {
+            if (!args.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            args.add(entry.getId());
+            args.add(Timestamp.valueOf(entry.getCreatedAt()));
+            args.add(searchText(entry));
+            args.add(entry.getUser() != null ? entry.getUser().getId() : null);
+            args.add(entry.getAction().name());
+            args.add(entry.getEntityType());
+            args.add(entry.getEntityId());
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Most recent logs matching every word of the keyword (prefix match) and every given filter, newest first
+     *
+     * @param limit maximum number of matches
+     */
+    public List<Match> search(Criteria criteria, int limit) {
+        String query = toBooleanQuery(criteria.keyword());
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT log_id, created_at FROM activity_log_search WHERE MATCH(search_text) AGAINST (? IN BOOLEAN MODE)");
+        List<Object> args = new ArrayList<>(8);
+        args.add(query);
+        if (criteria.userId() != null) {
+            sql.append(" AND user_id = ?");
+            args.add(criteria.userId());
+        }
+        if (criteria.action() != null) {
+            sql.append(" AND action = ?");
+            args.add(criteria.action().name());
+        }
+        if (criteria.entityType() != null && !criteria.entityType().isEmpty()) {
+            sql.append(" AND entity_type = ?");
+            args.add(criteria.entityType());
+        }
+        if (criteria.entityId() != null) {
+            sql.append(" AND entity_id = ?");
+            args.add(criteria.entityId());
+        }
+        if (criteria.from() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.valueOf(criteria.from()));
+        }
+        if (criteria.to() != null) {
+            sql.append(" AND created_at <= ?");
+            args.add(Timestamp.valueOf(criteria.to()));
+        }
+        sql.append(" ORDER BY created_at DESC, log_id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new Match(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()),
+                args.toArray());
+    }
+
+    public int deleteById(Long logId) {
+        return jdbcTemplate.update("DELETE FROM activity_log_search WHERE log_id = ?", logId);
+    }
+
+    public int clearUser(Long userId) {
+        return jdbcTemplate.update("UPDATE activity_log_search SET user_id = NULL WHERE user_id = ?", userId);
+    }
+
+    public int deleteByCreatedAtBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM activity_log_search WHERE created_at < ?", Timestamp.valueOf(cutoff));
+    }
+
+    /**
+     * Entity key token used to find all logs of one entity by text, e.g. "Expense_42"
+     */
+    public static String entityKey(String entityType, Long entityId) {
+        return entityId != null ? entityType + "_" + entityId : entityType;
+    }
+
+    private static String searchText(ActivityLog entry) {
+        String key = entityKey(entry.getEntityType(), entry.getEntityId());
+        return entry.getDescription() != null ? key + " " + entry.getDescription() : key;
+    }
+
+    /**
+     * Turn free text into a boolean-mode query requiring every word as a prefix: "+word1* +word2*".
+     * Boolean operators typed by the user are stripped.
+     */
+    private static String toBooleanQuery(String keyword) {
+        StringBuilder query = new StringBuilder();
+        for (String word : keyword.trim().split("\\s+")) {
+            String term = word.replaceAll("[+\\-<>()~*\"@]", "");
+            if (!term.isEmpty()) {
+                if (!query.isEmpty()) {
+                    query.append(' ');
+                }
+                query.append('+').append(term).append('*');
+            }
+        }
+        return query.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.sunasterisk.expense_management.repository;
+
+import com.sunasterisk.expense_management.entity.BudgetAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BudgetAlertRepository extends JpaRepository<BudgetAlert, Long> {
+
+    /**
+     * Queue an alert for every budget an expense in the category and month counts against
+     * (category and overall budget) whose spent amount has just reached its alert threshold
+     * and has not been alerted yet. The budget rows are already locked by the spent-amount increment.
+     *
+     * @return number of alerts queued (almost always 0)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO budget_alert_outbox (budget_id, user_id, category_id, budget_name, year, month, " +
+                   "spent_amount, amount_limit, alert_threshold, status, attempts, created_at) " +
+                   "SELECT b.id, b.user_id, b.category_id, b.name, b.year, b.month, " +
+                   "b.spent_amount, b.amount_limit, b.alert_threshold, 'PENDING', 0, NOW() " +
+                   "FROM budgets b " +
+                   "WHERE b.user_id = :userId AND (b.category_id = :categoryId OR b.category_id IS NULL) " +
+                   "AND b.year = :year AND b.month = :month " +
+                   "AND b.active = TRUE AND b.is_alert_sent = FALSE AND b.alert_threshold IS NOT NULL " +
+                   "AND b.amount_limit > 0 AND b.spent_amount * 100 >= b.amount_limit * b.alert_threshold",
+           nativeQuery = true)
+    int queueThresholdAlerts(@Param("userId") Long userId,
+                             @Param("categoryId") Long categoryId,
+                             @Param("year") Integer year,
+                             @Param("month") Integer month);
+
+    /**
+     * Queue the alert of a single budget whose limit or threshold was just edited, if its spent amount
+     * now reaches the threshold and it has not been alerted yet. The budget row is locked by the edit.
+     *
+     * @return 1 if an alert was queued, 0 otherwise
+     */
+    @Modifying
+    @Query(value = "INSERT INTO budget_alert_outbox (budget_id, user_id, category_id, budget_name, year, month, " +
+                   "spent_amount, amount_limit, alert_threshold, status, attempts, created_at) " +
+                   "SELECT b.id, b.user_id, b.category_id, b.name, b.year, b.month, " +
+                   "b.spent_amount, b.amount_limit, b.alert_threshold, 'PENDING', 0, NOW() " +
+                   "FROM budgets b " +
+                   "WHERE b.id = :budgetId " +
+                   "AND b.active = TRUE AND b.is_alert_sent = FALSE AND b.alert_threshold IS NOT NULL " +
+                   "AND b.amount_limit > 0 AND b.spent_amount * 100 >= b.amount_limit * b.alert_threshold",
+           nativeQuery = true)
+    int queueThresholdAlert(@Param("budgetId") Long budgetId);
+
+    /**
+     * Lock the oldest pending alerts, plus alerts whose claim is older than {@code staleBefore}
+     * (the claiming node died mid-delivery); rows locked by another node are skipped
+     */
+    @Query(value = "SELECT * FROM budget_alert_outbox " +
+                   "WHERE status = 'PENDING' OR (status = 'IN_PROGRESS' AND claimed_at < :staleBefore) " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<BudgetAlert> lockClaimableBatch(@Param("limit") int limit, @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("DELETE FROM BudgetAlert a WHERE a.status IN (com.sunasterisk.expense_management.entity.BudgetAlert.Status.SENT, " +
+           "com.sunasterisk.expense_management.entity.BudgetAlert.Status.FAILED) AND a.createdAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -3,8 +3,13 @@ package com.sunasterisk.expense_management.repository;
 import com.sunasterisk.expense_management.entity.Budget;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -21,4 +26,76 @@ public interface BudgetRepository extends JpaRepository<Budget, Long>, JpaSpecif
     boolean existsByUser_IdAndCategoryIsNullAndYearAndMonthAndIdNot(Long userId, Integer year, Integer month, Long excludeId);
 
     Optional<Budget> findByUser_IdAndCategory_IdAndYearAndMonth(Long userId, Long categoryId, Integer year, Integer month);
+
+    List<Budget> findByYearAndMonth(Integer year, Integer month);
+
+    /**
+     * Atomically add a signed delta to the spent amount of the user's budget for the category and month.
+     * The version is left alone: the counter is only ever changed by such increments, so concurrent
+     * expense writes never conflict with each other or with an edit of the budget itself
+     * (Budget uses dynamic updates, so saving the entity never writes a stale spent amount).
+     *
+     * @return number of budgets updated (0 or 1)
+     */
+    @Modifying
+    @Query("UPDATE Budget b SET b.spentAmount = b.spentAmount + :delta, b.updatedAt = LOCAL DATETIME " +
+           "WHERE b.user.id = :userId AND b.category.id = :categoryId AND b.year = :year AND b.month = :month")
+    int addToCategorySpentAmount(@Param("userId") Long userId,
+                                 @Param("categoryId") Long categoryId,
+                                 @Param("year") Integer year,
+                                 @Param("month") Integer month,
+                                 @Param("delta") BigDecimal delta);
+
+    /**
+     * Atomically add a signed delta to the spent amount of the user's overall ("All Categories") budget
+     * for the month. Kept separate from the category increment so callers can lock the overall row last.
+     *
+     * @return number of budgets updated (0 or 1)
+     */
+    @Modifying
+    @Query("UPDATE Budget b SET b.spentAmount = b.spentAmount + :delta, b.updatedAt = LOCAL DATETIME " +
+           "WHERE b.user.id = :userId AND b.category IS NULL AND b.year = :year AND b.month = :month")
+    int addToOverallSpentAmount(@Param("userId") Long userId,
+                                @Param("year") Integer year,
+                                @Param("month") Integer month,
+                                @Param("delta") BigDecimal delta);
+
+    /**
+     * Overwrite the spent amount only if it still has the value that was read (compare-and-set)
+     *
+     * @return 1 if updated, 0 if the spent amount was changed concurrently
+     */
+    @Modifying
+    @Query("UPDATE Budget b SET b.spentAmount = :spentAmount, b.updatedAt = LOCAL DATETIME " +
+           "WHERE b.id = :id AND b.spentAmount = :expected")
+    int updateSpentAmountIfUnchanged(@Param("id") Long id,
+                                     @Param("expected") BigDecimal expected,
+                                     @Param("spentAmount") BigDecimal spentAmount);
+
+    /**
+     * Flag the category and overall budgets of the category and month that have reached their alert threshold
+     * (called after the alerts were queued, in the same transaction)
+     */
+    @Modifying
+    @Query("UPDATE Budget b SET b.isAlertSent = true " +
+           "WHERE b.user.id = :userId AND (b.category.id = :categoryId OR b.category IS NULL) " +
+           "AND b.year = :year AND b.month = :month AND b.isAlertSent = false " +
+           "AND b.active = true AND b.alertThreshold IS NOT NULL AND b.amountLimit > 0 AND b.spentAmount * 100 >= b.amountLimit * b.alertThreshold")
+    int markThresholdAlertsSent(@Param("userId") Long userId,
+                                @Param("categoryId") Long categoryId,
+                                @Param("year") Integer year,
+                                @Param("month") Integer month);
+
+    /**
+     * Re-arm the alert of budgets that dropped back below their threshold (e.g. an expense was deleted)
+     */
+    @Modifying
+    @Query("UPDATE Budget b SET b.isAlertSent = false " +
+           "WHERE b.user.id = :userId AND (b.category.id = :categoryId OR b.category IS NULL) " +
+           "AND b.year = :year AND b.month = :month AND b.isAlertSent = true " +
+           "AND b.spentAmount * 100 < b.amountLimit * b.alertThreshold")
+    int rearmAlertsBelowThreshold(@Param("userId") Long userId,
+                                  @Param("categoryId") Long categoryId,
+                                  @Param("year") Integer year,
+                                  @Param("month") Integer month);
 }
@@ -0,0 +1,159 @@
+package com.sunasterisk.expense_management.repository;
+
+import com.sunasterisk.expense_management.entity.User.Role;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set-based budget creation from a budget template. One INSERT ... SELECT per user-id range creates
+ * a budget for every (active user, template item) pair that does not have one yet, with the spent
+ * amount seeded from a single grouped aggregate of the month's expenses. Budgets created already at
+ * or above their alert threshold are marked alerted and get their alert queued by a second statement.
+ */
+@Repository
+public class BudgetRolloutRepository {
+
+    // Budget per user and template item; same rules as BudgetService: one budget per
+    // (user, category, year, month), and custom categories only for their owner.
+    // NOT EXISTS skips existing budgets cheaply; ON DUPLICATE KEY keeps the budget of a concurrent insert
+    // (uk_budget_user_category_period) instead of failing the chunk, without hiding any other error as IGNORE would;
+    // the no-op assignment is qualified because the SELECT's tables also have an id column
+    private static final String INSERT_FROM_TEMPLATE = """
+            INSERT INTO budgets (name, amount_limit, spent_amount, year, month, alert_threshold, is_alert_sent,
+                                        active, version, user_id, category_id, created_at, updated_at)
+            SELECT LEFT(CONCAT(t.name, ' - ', c.name), 200), ti.default_amount, COALESCE(s.spent, 0), ?, ?,
+                   ?, ti.default_amount > 0 AND COALESCE(s.spent, 0) * 100 >= ti.default_amount * ?,
+                   TRUE, 0, u.id, c.id, NOW(), NOW()
+            FROM users u
+            JOIN budget_templates t ON t.id = ?
+            JOIN budget_template_items ti ON ti.budget_template_id = t.id
+            JOIN categories c ON c.id = ti.category_id AND c.active = TRUE
+                 AND (c.is_default = TRUE OR c.user_id = u.id)
+            LEFT JOIN (
+                SELECT e.user_id, e.category_id, SUM(e.amount) AS spent
+                FROM expenses e
+                WHERE e.user_id BETWEEN ? AND ? AND e.expense_date >= ? AND e.expense_date < ?
+                GROUP BY e.user_id, e.category_id
+            ) s ON s.user_id = u.id AND s.category_id = c.id
+            WHERE u.id BETWEEN ? AND ? AND u.active = TRUE
+            """;
+
+    private static final String KEEP_DUPLICATE = """
+            ON DUPLICATE KEY UPDATE budgets.id = budgets.id
+            """;
+
+    private static final String SKIP_EXISTING = """
+              AND NOT EXISTS (
+                SELECT 1 FROM budgets b
+                WHERE b.user_id = u.id AND b.category_id = c.id AND b.year = ? AND b.month = ?
+              )
+            """;
+
+    // Alerts for the budgets a chunk created already over their threshold. They are found again through
+    // the unique key (user, template category, year, month) and an id above the highest budget id read before
+    // the insert, which leaves out the chunk's users' pre-existing budgets (their old outbox rows may have been
+    // purged); the outbox check skips a budget a concurrent writer created and alerted in the meantime
+    private static final String QUEUE_ALERTS = """
+            INSERT INTO budget_alert_outbox (budget_id, user_id, category_id, budget_name, year, month,
+                                             spent_amount, amount_limit, alert_threshold, status, attempts, created_at)
+            SELECT b.id, b.user_id, b.category_id, b.name, b.year, b.month,
+                   b.spent_amount, b.amount_limit, b.alert_threshold, 'PENDING', 0, NOW()
+            FROM users u
+            JOIN budget_template_items ti ON ti.budget_template_id = ?
+            JOIN budgets b ON b.user_id = u.id AND b.category_id = ti.category_id AND b.year = ? AND b.month = ?
+            WHERE u.id BETWEEN ? AND ? AND b.id > ? AND b.is_alert_sent = TRUE
+              AND NOT EXISTS (SELECT 1 FROM budget_alert_outbox o WHERE o.budget_id = b.id)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BudgetRolloutRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Lowest and highest id of the active users targeted by a rollout ({null, null} if none)
+     *
+     * @param role only users with this role, or null for all active users
+     */
+    public Long[] findUserIdBounds(Role role) {
+        String sql = "SELECT MIN(id), MAX(id) FROM users WHERE active = TRUE" + (role != null ? " AND role = ?" : "");
+        Object[] args = role != null ? new Object[]{role.name()} : new Object[0];
+        return jdbcTemplate.queryForObject(sql,
+                (rs, rowNum) -> new Long[]{rs.getObject(1, Long.class), rs.getObject(2, Long.class)},
+                args);
+    }
+
+    /**
+     * Highest budget id so far (0 if none); read before {@link #insertFromTemplate} in the chunk's transaction
+     */
+    public long findMaxBudgetId() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM budgets", Long.class);
+    }
+
+    /**
+     * Create the template's budgets for the active users with an id in [fromUserId, toUserId]
+     *
+     * @return number of budgets created (a budget that lost the race with a concurrent insert of the same
+     *         budget is counted too, as the driver reports found rather than changed rows)
+     */
+    public int insertFromTemplate(Long templateId, YearMonth month, Role role, int alertThreshold,
+                                  long fromUserId, long toUserId) {
+        Date from = Date.valueOf(month.atDay(1));
+        Date to = Date.valueOf(month.plusMonths(1).atDay(1));
+
+        StringBuilder sql = new StringBuilder(INSERT_FROM_TEMPLATE);
+        List<Object> args = new ArrayList<>(13);
+        args.add(month.getYear());
+        args.add(month.getMonthValue());
+        args.add(alertThreshold);
+        args.add(alertThreshold);
+        args.add(templateId);
+        args.add(fromUserId);
+        args.add(toUserId);
+        args.add(from);
+        args.add(to);
+        args.add(fromUserId);
+        args.add(toUserId);
+        if (role != null) {
+            sql.append("  AND u.role = ?\n");
+            args.add(role.name());
+        }
+        sql.append(SKIP_EXISTING);
+        args.add(month.getYear());
+        args.add(month.getMonthValue());
+        sql.append(KEEP_DUPLICATE);
+
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Queue alerts for the budgets {@link #insertFromTemplate} created over their threshold;
+     * must run in the same transaction
+     *
+     * @param afterBudgetId {@link #findMaxBudgetId} before the insert; auto-increment ids of the created budgets
+     *                      are all above it
+     * @return number of alerts queued
+     */
+    public int queueAlertsForCreated(Long templateId, YearMonth month, Role role, long fromUserId, long toUserId,
+                                     long afterBudgetId) {
+        StringBuilder sql = new StringBuilder(QUEUE_ALERTS);
+        List<Object> args = new ArrayList<>(7);
+        args.add(templateId);
+        args.add(month.getYear());
+        args.add(month.getMonthValue());
+        args.add(fromUserId);
+        args.add(toUserId);
+        args.add(afterBudgetId);
+        if (role != null) {
+            sql.append("  AND u.role = ?\n");
+            args.add(role.name());
+        }
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
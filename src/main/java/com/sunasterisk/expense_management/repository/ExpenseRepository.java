@@ -15,6 +15,7 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -52,50 +53,46 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpec
     // See ExpenseSpecification.withFilters() for flexible dynamic queries
 
     @Query("SELECT SUM(e.amount) FROM Expense e WHERE e.user = :user " +
-           "AND e.expenseDate BETWEEN :startDate AND :endDate")
+           "AND e.expenseDate >= :startDate AND e.expenseDate < :endExclusive")
     BigDecimal sumAmountByUserAndDateBetween(
             @Param("user") User user,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endExclusive") LocalDate endExclusive
     );
 
     /**
-     * Calculate total spent amount for a specific category in a given year/month
-     * Used for Budget tracking
+     * Total spent per user and category in a date range [from, to), as {userId, categoryId, sum} rows.
+     * Used by budget reconciliation; the range predicate can use idx_expense_date.
      */
-    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e " +
-           "WHERE e.user.id = :userId " +
-           "AND (:categoryId IS NULL OR e.category.id = :categoryId) " +
-           "AND YEAR(e.expenseDate) = :year " +
-           "AND MONTH(e.expenseDate) = :month")
-    BigDecimal sumByUserAndCategoryAndYearMonth(
-            @Param("userId") Long userId,
-            @Param("categoryId") Long categoryId,
-            @Param("year") Integer year,
-            @Param("month") Integer month
+    @Query("SELECT e.user.id, e.category.id, SUM(e.amount) FROM Expense e " +
+           "WHERE e.expenseDate >= :from AND e.expenseDate < :to " +
+           "GROUP BY e.user.id, e.category.id")
+    List<Object[]> sumByUserAndCategoryBetween(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
     );
 
     /**
-     * Count expenses in date range
+     * Count expenses in date range [startDate, endExclusive)
      */
     @Query("SELECT COUNT(e) FROM Expense e WHERE e.user.id = :userId " +
-           "AND e.expenseDate BETWEEN :startDate AND :endDate")
+           "AND e.expenseDate >= :startDate AND e.expenseDate < :endExclusive")
     Long countByUserAndDateBetween(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endExclusive") LocalDate endExclusive
     );
 
     /**
-     * Sum expenses in date range
+     * Sum expenses in date range [startDate, endExclusive)
      */
     @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e " +
            "WHERE e.user.id = :userId " +
-           "AND e.expenseDate BETWEEN :startDate AND :endDate")
+           "AND e.expenseDate >= :startDate AND e.expenseDate < :endExclusive")
     BigDecimal sumByUserAndDateBetween(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endExclusive") LocalDate endExclusive
     );
 
     /**
@@ -105,29 +102,31 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpec
            "COALESCE(SUM(e.amount), 0), COUNT(e) " +
            "FROM Expense e " +
            "WHERE e.user.id = :userId " +
-           "AND e.expenseDate BETWEEN :startDate AND :endDate " +
+           "AND e.expenseDate >= :startDate AND e.expenseDate < :endExclusive " +
            "GROUP BY e.category.id, e.category.name, e.category.icon, e.category.color " +
            "ORDER BY SUM(e.amount) DESC")
     java.util.List<Object[]> groupByCategoryAndDateBetween(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endExclusive") LocalDate endExclusive
     );
 
     /**
-     * Group expenses by month for trend analysis
+     * Group expenses by month for trend analysis.
+     * The range predicate is evaluated on the (user_id, expense_date, ...) covering index;
+     * YEAR()/MONTH() only bucket the rows already in range.
      */
     @Query("SELECT YEAR(e.expenseDate), MONTH(e.expenseDate), " +
            "COALESCE(SUM(e.amount), 0), COUNT(e) " +
            "FROM Expense e " +
            "WHERE e.user.id = :userId " +
-           "AND e.expenseDate BETWEEN :startDate AND :endDate " +
+           "AND e.expenseDate >= :startDate AND e.expenseDate < :endExclusive " +
            "GROUP BY YEAR(e.expenseDate), MONTH(e.expenseDate) " +
            "ORDER BY YEAR(e.expenseDate), MONTH(e.expenseDate)")
     java.util.List<Object[]> groupByMonthAndDateBetween(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endExclusive") LocalDate endExclusive
     );
 
     /**
@@ -137,13 +136,13 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpec
            "COALESCE(SUM(e.amount), 0), COUNT(e) " +
            "FROM Expense e " +
            "WHERE e.user.id = :userId " +
-           "AND e.expenseDate BETWEEN :startDate AND :endDate " +
+           "AND e.expenseDate >= :startDate AND e.expenseDate < :endExclusive " +
            "GROUP BY YEAR(e.expenseDate), QUARTER(e.expenseDate) " +
            "ORDER BY YEAR(e.expenseDate), QUARTER(e.expenseDate)")
     java.util.List<Object[]> groupByQuarterAndDateBetween(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endExclusive") LocalDate endExclusive
     );
 
     /**
@@ -152,13 +151,13 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpec
     @Query("SELECT YEAR(e.expenseDate), COALESCE(SUM(e.amount), 0), COUNT(e) " +
            "FROM Expense e " +
            "WHERE e.user.id = :userId " +
-           "AND e.expenseDate BETWEEN :startDate AND :endDate " +
+           "AND e.expenseDate >= :startDate AND e.expenseDate < :endExclusive " +
            "GROUP BY YEAR(e.expenseDate) " +
            "ORDER BY YEAR(e.expenseDate)")
     java.util.List<Object[]> groupByYearAndDateBetween(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endExclusive") LocalDate endExclusive
     );
 
     @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e")
@@ -176,4 +175,34 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpec
            "WHERE e.user IS NOT NULL " +
            "GROUP BY e.user.id")
     java.util.List<Object[]> sumByUser();
+
+    /**
+     * Lowest and highest expense IDs, used to split full exports into ID-range partitions
+     */
+    @Query("SELECT MIN(e.id) FROM Expense e")
+    Long findMinId();
+
+    @Query("SELECT MAX(e.id) FROM Expense e")
+    Long findMaxId();
+
+    /**
+     * ID of the expense {@code offset} rows after {@code fromId} in ID order, or null past the last one.
+     * Walks only the primary key, so export partitions hold the same number of rows whatever the ID gaps.
+     */
+    @Query(value = "SELECT id FROM expenses WHERE id >= :fromId ORDER BY id LIMIT 1 OFFSET :offset", nativeQuery = true)
+    Long findIdAtOffset(@Param("fromId") Long fromId, @Param("offset") long offset);
+
+    /**
+     * Find expenses in an inclusive ID range with user and category eagerly loaded.
+     * Used by partitioned CSV export so each partition is read with a single query.
+     */
+    @EntityGraph(attributePaths = {"user", "category"})
+    java.util.List<Expense> findByIdBetweenOrderByIdAsc(Long fromId, Long toId);
+
+    /**
+     * Next keyset batch of expenses after the given ID (0 for the first batch), with user and category eagerly loaded.
+     * Used by the single-stream CSV export so the table is never loaded at once.
+     */
+    @EntityGraph(attributePaths = {"user", "category"})
+    java.util.List<Expense> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
 }
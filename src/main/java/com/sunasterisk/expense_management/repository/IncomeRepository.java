@@ -52,50 +52,52 @@ public interface IncomeRepository extends JpaRepository<Income, Long>, JpaSpecif
     // See IncomeSpecification.withFilters() for flexible dynamic queries
 
     @Query("SELECT SUM(i.amount) FROM Income i WHERE i.user = :user " +
-           "AND i.incomeDate BETWEEN :startDate AND :endDate")
+           "AND i.incomeDate >= :startDate AND i.incomeDate < :endExclusive")
     BigDecimal sumAmountByUserAndDateBetween(
             @Param("user") User user,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endExclusive") LocalDate endExclusive
     );
 
     /**
-     * Count incomes in date range
+     * Count incomes in date range [startDate, endExclusive)
      */
     @Query("SELECT COUNT(i) FROM Income i WHERE i.user.id = :userId " +
-           "AND i.incomeDate BETWEEN :startDate AND :endDate")
+           "AND i.incomeDate >= :startDate AND i.incomeDate < :endExclusive")
     Long countByUserAndDateBetween(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endExclusive") LocalDate endExclusive
     );
 
     /**
-     * Sum incomes in date range
+     * Sum incomes in date range [startDate, endExclusive)
      */
     @Query("SELECT COALESCE(SUM(i.amount), 0) FROM Income i " +
            "WHERE i.user.id = :userId " +
-           "AND i.incomeDate BETWEEN :startDate AND :endDate")
+           "AND i.incomeDate >= :startDate AND i.incomeDate < :endExclusive")
     BigDecimal sumByUserAndDateBetween(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endExclusive") LocalDate endExclusive
     );
 
     /**
-     * Group incomes by month for trend analysis
+     * Group incomes by month for trend analysis.
+     * The range predicate is evaluated on the (user_id, income_date, ...) covering index;
+     * YEAR()/MONTH() only bucket the rows already in range.
      */
     @Query("SELECT YEAR(i.incomeDate), MONTH(i.incomeDate), " +
            "COALESCE(SUM(i.amount), 0), COUNT(i) " +
            "FROM Income i " +
            "WHERE i.user.id = :userId " +
-           "AND i.incomeDate BETWEEN :startDate AND :endDate " +
+           "AND i.incomeDate >= :startDate AND i.incomeDate < :endExclusive " +
            "GROUP BY YEAR(i.incomeDate), MONTH(i.incomeDate) " +
            "ORDER BY YEAR(i.incomeDate), MONTH(i.incomeDate)")
     java.util.List<Object[]> groupByMonthAndDateBetween(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endExclusive") LocalDate endExclusive
     );
 
     /**
@@ -105,13 +107,13 @@ public interface IncomeRepository extends JpaRepository<Income, Long>, JpaSpecif
            "COALESCE(SUM(i.amount), 0), COUNT(i) " +
            "FROM Income i " +
            "WHERE i.user.id = :userId " +
-           "AND i.incomeDate BETWEEN :startDate AND :endDate " +
+           "AND i.incomeDate >= :startDate AND i.incomeDate < :endExclusive " +
            "GROUP BY YEAR(i.incomeDate), QUARTER(i.incomeDate) " +
            "ORDER BY YEAR(i.incomeDate), QUARTER(i.incomeDate)")
     java.util.List<Object[]> groupByQuarterAndDateBetween(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endExclusive") LocalDate endExclusive
     );
 
     /**
@@ -120,13 +122,13 @@ public interface IncomeRepository extends JpaRepository<Income, Long>, JpaSpecif
     @Query("SELECT YEAR(i.incomeDate), COALESCE(SUM(i.amount), 0), COUNT(i) " +
            "FROM Income i " +
            "WHERE i.user.id = :userId " +
-           "AND i.incomeDate BETWEEN :startDate AND :endDate " +
+           "AND i.incomeDate >= :startDate AND i.incomeDate < :endExclusive " +
            "GROUP BY YEAR(i.incomeDate) " +
            "ORDER BY YEAR(i.incomeDate)")
     java.util.List<Object[]> groupByYearAndDateBetween(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endExclusive") LocalDate endExclusive
     );
 
     @Query("SELECT COALESCE(SUM(i.amount), 0) FROM Income i")
@@ -144,4 +146,34 @@ public interface IncomeRepository extends JpaRepository<Income, Long>, JpaSpecif
            "WHERE i.user IS NOT NULL " +
            "GROUP BY i.user.id")
     java.util.List<Object[]> sumByUser();
+
+    /**
+     * Lowest and highest income IDs, used to split full exports into ID-range partitions
+     */
+    @Query("SELECT MIN(i.id) FROM Income i")
+    Long findMinId();
+
+    @Query("SELECT MAX(i.id) FROM Income i")
+    Long findMaxId();
+
+    /**
+     * ID of the income {@code offset} rows after {@code fromId} in ID order, or null past the last one.
+     * Walks only the primary key, so export partitions hold the same number of rows whatever the ID gaps.
+     */
+    @Query(value = "SELECT id FROM incomes WHERE id >= :fromId ORDER BY id LIMIT 1 OFFSET :offset", nativeQuery = true)
+    Long findIdAtOffset(@Param("fromId") Long fromId, @Param("offset") long offset);
+
+    /**
+     * Find incomes in an inclusive ID range with user and category eagerly loaded.
+     * Used by partitioned CSV export so each partition is read with a single query.
+     */
+    @EntityGraph(attributePaths = {"user", "category"})
+    java.util.List<Income> findByIdBetweenOrderByIdAsc(Long fromId, Long toId);
+
+    /**
+     * Next keyset batch of incomes after the given ID (0 for the first batch), with user and category eagerly loaded.
+     * Used by the single-stream CSV export so the table is never loaded at once.
+     */
+    @EntityGraph(attributePaths = {"user", "category"})
+    java.util.List<Income> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
 }
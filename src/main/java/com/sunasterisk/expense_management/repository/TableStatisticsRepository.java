@@ -0,0 +1,36 @@
+package com.sunasterisk.expense_management.repository;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Cheap table statistics from the MySQL data dictionary, used where an exact COUNT(*) is too expensive
+ */
+@Repository
+public class TableStatisticsRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TableStatisticsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Estimated number of rows in a table (InnoDB statistics, typically within a few percent).
+     *
+     * @return the estimate, or null if it is not available
+     */
+    public Long estimateRowCount(String tableName) {
+        try {
+            List<Long> rows = jdbcTemplate.queryForList(
+                    "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                    Long.class, tableName);
+            return rows.isEmpty() ? null : rows.get(0);
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.sunasterisk.expense_management.repository;
+
+import com.sunasterisk.expense_management.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    /**
+     * Find revocations that still cover unexpired tokens (loaded into memory at startup)
+     */
+    List<TokenRevocation> findByExpiresAtAfter(LocalDateTime now);
+
+    /**
+     * Find revocations created, or watermarks moved, since the given instant (synced from other nodes)
+     */
+    @Query("SELECT r FROM TokenRevocation r WHERE r.createdAt >= :since OR r.issuedBefore >= :since")
+    List<TokenRevocation> findWrittenSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Find the "issued before" watermark of a user
+     */
+    Optional<TokenRevocation> findFirstByUserIdAndJtiIsNull(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
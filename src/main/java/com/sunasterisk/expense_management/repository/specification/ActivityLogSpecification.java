@@ -8,6 +8,7 @@ import org.springframework.data.jpa.domain.Specification;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class ActivityLogSpecification {
@@ -16,6 +17,7 @@ public class ActivityLogSpecification {
             Long userId,
             ActionType action,
             String entityType,
+            Long entityId,
             LocalDate startDate,
             LocalDate endDate
     ) {
@@ -34,6 +36,10 @@ public class ActivityLogSpecification {
                 predicates.add(criteriaBuilder.equal(root.get("entityType"), entityType));
             }
 
+            if (entityId != null) {
+                predicates.add(criteriaBuilder.equal(root.get("entityId"), entityId));
+            }
+
             if (startDate != null) {
                 LocalDateTime startDateTime = startDate.atStartOfDay();
                 predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("createdAt"), startDateTime));
@@ -47,4 +53,24 @@ public class ActivityLogSpecification {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Restrict to the given log ids (full-text search matches). The creation time range of the
+     * matches is added too, so only the partitions holding them are read.
+     */
+    public static Specification<ActivityLog> withIds(
+            Collection<Long> ids,
+            LocalDateTime oldest,
+            LocalDateTime newest
+    ) {
+        return (root, query, criteriaBuilder) -> {
+            if (ids.isEmpty()) {
+                return criteriaBuilder.disjunction();
+            }
+            return criteriaBuilder.and(
+                    root.get("id").in(ids),
+                    criteriaBuilder.between(root.get("createdAt"), oldest, newest)
+            );
+        };
+    }
 }
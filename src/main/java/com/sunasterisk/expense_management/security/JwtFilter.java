@@ -1,6 +1,8 @@
 package com.sunasterisk.expense_management.security;
 
+import com.sunasterisk.expense_management.service.TokenRevocationService;
 import com.sunasterisk.expense_management.util.MessageUtil;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -22,25 +24,22 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
     private final MessageUtil messageUtil;
 
-    public JwtFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService, MessageUtil messageUtil) {
+    public JwtFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService, PrincipalCache principalCache,
+                     TokenRevocationService tokenRevocationService, MessageUtil messageUtil) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.tokenRevocationService = tokenRevocationService;
         this.messageUtil = messageUtil;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        // Skip JWT filter for admin paths and static resources
-        String requestPath = request.getRequestURI();
-        if (requestPath.startsWith("/admin") || requestPath.startsWith("/webjars")
-            || requestPath.startsWith("/css") || requestPath.startsWith("/js")
-            || requestPath.startsWith("/fonts") || requestPath.startsWith("/images")) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
+        // Only registered in the /api/** chain - admin pages and static assets never reach this filter
         String header = request.getHeader("Authorization");
         String token = null;
 
@@ -50,13 +49,19 @@ public class JwtFilter extends OncePerRequestFilter {
 
         if (token != null) {
             try {
-                if (jwtUtil.validateToken(token)) {
-                    String username = jwtUtil.getUsernameFromToken(token);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                Claims claims = jwtUtil.parseClaims(token);
+                if (claims != null && tokenRevocationService.isRevoked(claims)) {
+                    log.debug("Revoked JWT token for user: {}", claims.getSubject());
+                    request.setAttribute("jwt_error", messageUtil.getMessage("jwt.revoked"));
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+                UserDetails userDetails = claims != null ? resolvePrincipal(claims) : null;
+                if (userDetails != null && userDetails.isEnabled()) {
                     UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
                     SecurityContextHolder.getContext().setAuthentication(auth);
-                    log.debug("JWT valid for user: {}", username);
+                    log.debug("JWT valid for user: {}", userDetails.getUsername());
                 } else {
                     log.warn("Invalid JWT token");
                     request.setAttribute("jwt_error", messageUtil.getMessage("jwt.invalid"));
@@ -69,4 +74,20 @@ public class JwtFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Resolve the principal from the token's user id claim through the principal cache,
+     * so a typical request needs no user query. Tokens issued before the id claim existed
+     * fall back to a lookup by email.
+     */
+    private UserDetails resolvePrincipal(Claims claims) {
+        if (Boolean.FALSE.equals(claims.get(JwtUtil.CLAIM_ACTIVE, Boolean.class))) {
+            return null;
+        }
+        Long userId = JwtUtil.getUserId(claims);
+        if (userId == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        return principalCache.get(userId);
+    }
 }
@@ -1,17 +1,41 @@
 package com.sunasterisk.expense_management.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sunasterisk.expense_management.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Issues and verifies JWT tokens.
+ * The signing key and parser are built once at startup, and recently verified tokens are kept
+ * in a bounded cache (keyed by a SHA-256 digest of the token) until they expire,
+ * so repeated requests with the same token skip the signature check.
+ */
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ACTIVE = "active";
+
     /**
      * JWT secret key - MUST be set via environment variable or application properties
      * Must be at least 256 bits (32 bytes) for HS256 algorithm
@@ -28,40 +52,153 @@ public class JwtUtil {
     @Value("${app.jwt.expiration-ms:86400000}")
     private long jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    /**
+     * Maximum number of verified tokens kept in memory
+     */
+    @Value("${app.jwt.verification-cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    /**
+     * Upper bound on how long a verified token stays cached, even if it expires later
+     */
+    @Value("${app.jwt.verification-cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    private final MeterRegistry meterRegistry;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, Claims> verifiedTokens;
+    private Counter cacheHits;
+    private Timer validVerifications;
+    private Timer invalidVerifications;
+
+    public JwtUtil(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new ClaimsExpiry(TimeUnit.SECONDS.toNanos(cacheTtlSeconds)))
+                .build();
+
+        cacheHits = Counter.builder("app.jwt.verification.cache.hits")
+                .description("Tokens accepted from the verification cache without a signature check")
+                .register(meterRegistry);
+        validVerifications = verificationTimer("valid");
+        invalidVerifications = verificationTimer("invalid");
+        Gauge.builder("app.jwt.verification.cache.size", verifiedTokens, Cache::estimatedSize)
+                .register(meterRegistry);
     }
 
-    public String generateToken(String username) {
+    /**
+     * Issue a token for the user, carrying a unique token id (for revocation)
+     * and the user's id, role and active status as claims
+     */
+    public String generateToken(User user) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
-                .subject(username)
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_ACTIVE, user.getActive())
                 .issuedAt(now)
                 .expiration(expiry)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
+    /**
+     * Verify a token and return its claims, parsing it at most once while it stays cached
+     *
+     * @return the verified claims, or null if the token is malformed, tampered with or expired
+     */
+    public Claims parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String digest = digest(token);
+        Claims claims = verifiedTokens.getIfPresent(digest);
+        if (claims != null) {
+            cacheHits.increment();
+            return claims;
+        }
 
-    public boolean validateToken(String token) {
+        long start = System.nanoTime();
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
-            return true;
+            claims = parser.parseSignedClaims(token).getPayload();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            invalidVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+        validVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        verifiedTokens.put(digest, claims);
+        return claims;
+    }
+
+    /**
+     * Get the user id claim, or null for tokens issued without one
+     */
+    public static Long getUserId(Claims claims) {
+        Object value = claims.get(CLAIM_USER_ID);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private Timer verificationTimer(String result) {
+        return Timer.builder("app.jwt.verification")
+                .description("JWT signature verification time (cache misses only)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Keeps a cached token no longer than its own expiration or the configured TTL, whichever is sooner
+     */
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+        private final long maxTtlNanos;
+
+        ClaimsExpiry(long maxTtlNanos) {
+            this.maxTtlNanos = maxTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+            long remaining = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+            return Math.max(0, Math.min(remaining, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
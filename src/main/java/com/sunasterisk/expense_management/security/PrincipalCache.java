@@ -0,0 +1,53 @@
+package com.sunasterisk.expense_management.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sunasterisk.expense_management.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of API principals by user id.
+ * Lets the JWT filter authenticate without a user query on every request, while role and
+ * active-status changes still take effect quickly: entries expire after a few seconds and
+ * {@link com.sunasterisk.expense_management.service.UserService} evicts a user as soon as it changes.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, AuthenticatedUser> principals;
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${app.security.principal-cache.ttl-seconds:30}") long ttlSeconds,
+                          @Value("${app.security.principal-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Get the principal of a user, loading it by primary key on a cache miss
+     *
+     * @return the principal (without password), or null if the user no longer exists
+     */
+    public AuthenticatedUser get(Long userId) {
+        return principals.get(userId, id -> userRepository.findById(id)
+                .map(user -> new AuthenticatedUser(user.getId(), user.getEmail(), null, user.getRole(),
+                        Boolean.TRUE.equals(user.getActive())))
+                .orElse(null));
+    }
+
+    /**
+     * Drop a cached principal after the user was updated, deactivated or deleted
+     */
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            principals.invalidate(userId);
+        }
+    }
+}
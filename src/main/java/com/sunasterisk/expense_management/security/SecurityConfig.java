@@ -1,47 +1,72 @@
 package com.sunasterisk.expense_management.security;
 
+import com.sunasterisk.expense_management.config.StaticResources;
 import com.sunasterisk.expense_management.service.CustomUserDetailsService;
+import com.sunasterisk.expense_management.service.TokenRevocationService;
 import com.sunasterisk.expense_management.util.MessageUtil;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    public static final String PASSWORD_EXECUTOR = "passwordVerificationExecutor";
+
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
     private final MessageUtil messageUtil;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
 
     public SecurityConfig(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService,
-                          MessageUtil messageUtil, JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint) {
+                          MessageUtil messageUtil, JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint,
+                          PrincipalCache principalCache, TokenRevocationService tokenRevocationService) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
         this.messageUtil = messageUtil;
         this.jwtAuthenticationEntryPoint = jwtAuthenticationEntryPoint;
+        this.principalCache = principalCache;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     /**
      * Security filter chain for static resources (WebJars, CSS, JS, etc.)
-     * Order 1 - highest priority to bypass security completely
+     * Order 1 - highest priority to bypass security completely.
+     * Assets are public, so the chain does no security context, session, request cache
+     * or authorization work - only the security headers are still written.
      */
     @Bean
     @Order(1)
     public SecurityFilterChain staticResourcesFilterChain(HttpSecurity http) throws Exception {
         http
-            .securityMatcher("/webjars/**", "/css/**", "/js/**", "/fonts/**", "/webfonts/**", "/images/**", "/favicon.ico")
-            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+            .securityMatcher(StaticResources.PATTERNS)
+            .securityContext(AbstractHttpConfigurer::disable)
+            .sessionManagement(AbstractHttpConfigurer::disable)
+            .requestCache(AbstractHttpConfigurer::disable)
+            .anonymous(AbstractHttpConfigurer::disable)
+            .servletApi(AbstractHttpConfigurer::disable)
+            .logout(AbstractHttpConfigurer::disable)
             .csrf(csrf -> csrf.disable());
         return http.build();
     }
@@ -68,11 +93,11 @@ public class SecurityConfig {
     @Bean
     @Order(3)
     public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http, AdminAccessDeniedHandler adminAccessDeniedHandler) throws Exception {
-        JwtFilter jwtFilter = new JwtFilter(jwtUtil, userDetailsService, messageUtil);
+        JwtFilter jwtFilter = new JwtFilter(jwtUtil, userDetailsService, principalCache, tokenRevocationService, messageUtil);
         http
             .securityMatcher("/api/**")
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/auth/**", "/actuator/**").permitAll()
+                .requestMatchers("/api/auth/**").permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session ->
@@ -87,9 +112,72 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Actuator endpoints: health and info are public, metrics are for admins only
+     * (admin session from the admin panel, or an admin JWT for scrapers)
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Order(4)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        JwtFilter jwtFilter = new JwtFilter(jwtUtil, userDetailsService, principalCache, tokenRevocationService, messageUtil);
+        http
+            .securityMatcher("/actuator/**")
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                .anyRequest().hasRole("ADMIN")
+            )
+            .exceptionHandling(exception ->
+                exception.authenticationEntryPoint(jwtAuthenticationEntryPoint)
+            )
+            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+            .csrf(csrf -> csrf.disable());
+
+        return http.build();
+    }
+
+    /**
+     * Password encoder that hashes new passwords with the configured algorithm and cost,
+     * still verifies older hashes (including legacy BCrypt hashes without an {id} prefix),
+     * and runs verification on a bounded pool. Hashes are upgraded on the next successful login.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.password.algorithm:bcrypt}") String algorithm,
+            @Value("${app.security.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${app.security.password.pbkdf2-iterations:310000}") int pbkdf2Iterations,
+            @Value("${app.security.password.verification-timeout-ms:5000}") long verificationTimeoutMs,
+            @Qualifier(PASSWORD_EXECUTOR) ThreadPoolTaskExecutor passwordVerificationExecutor) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Unsupported password algorithm: " + algorithm
+                    + " (supported: " + encoders.keySet() + ")");
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(delegating, passwordVerificationExecutor, verificationTimeoutMs, messageUtil);
+    }
+
+    /**
+     * Dedicated pool for password hash verification, sized well below the number of request threads
+     */
+    @Bean(name = PASSWORD_EXECUTOR)
+    public ThreadPoolTaskExecutor passwordVerificationExecutor(
+            @Value("${app.security.password.verification-pool-size:4}") int poolSize,
+            @Value("${app.security.password.verification-queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-verify-");
+        executor.initialize();
+        return executor;
     }
 
     @Bean
@@ -0,0 +1,114 @@
+package com.sunasterisk.expense_management.security.ratelimit;
+
+import com.sunasterisk.expense_management.security.AuthenticatedUser;
+import com.sunasterisk.expense_management.util.MessageUtil;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quota for the heavy admin endpoints (CSV exports and imports), separate from the API quota.
+ * Admin pages are HTML, so a rejected request is redirected to the module's list page with the
+ * error as a flash message (and a Retry-After header) instead of getting the JSON 429 body.
+ */
+@Component
+public class AdminRateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String KEY_PREFIX = "admin:";
+    private static final String ADMIN_PREFIX = "/admin/";
+
+    private final RateLimitBucketStore bucketStore;
+    private final MessageUtil messageUtil;
+
+    @Value("${app.security.rate-limit.admin.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Heavy admin requests allowed per user per period
+     */
+    @Value("${app.security.rate-limit.admin.capacity:10}")
+    private long capacity;
+
+    @Value("${app.security.rate-limit.admin.period-seconds:60}")
+    private long periodSeconds;
+
+    /**
+     * Limited endpoints, as Ant path patterns optionally prefixed with an HTTP method (e.g. "POST /admin/exports")
+     */
+    @Value("${app.security.rate-limit.admin.paths:/admin/*/export,/admin/*/import,POST /admin/exports}")
+    private List<String> paths;
+
+    public AdminRateLimitInterceptor(RateLimitBucketStore bucketStore, MessageUtil messageUtil) {
+        this.bucketStore = bucketStore;
+        this.messageUtil = messageUtil;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!enabled || !(handler instanceof HandlerMethod) || !RequestPatterns.matches(paths, request)) {
+            return true;
+        }
+
+        ConsumptionProbe probe = bucketStore.resolve(resolveKey(request), this::createConfiguration)
+                .tryConsumeAndReturnRemaining(1);
+        if (probe.isConsumed()) {
+            return true;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()) + 1);
+        String location = request.getContextPath() + moduleIndex(request);
+
+        FlashMap flashMap = RequestContextUtils.getOutputFlashMap(request);
+        flashMap.put("error", messageUtil.getMessage("error.rate.limit.exceeded", retryAfterSeconds));
+        RequestContextUtils.saveOutputFlashMap(location, request, response);
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.sendRedirect(location);
+        return false;
+    }
+
+    /**
+     * List page of the module the request belongs to, e.g. /admin/expenses for /admin/expenses/import
+     */
+    private static String moduleIndex(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(ADMIN_PREFIX)) {
+            return "/admin";
+        }
+        int end = path.indexOf('/', ADMIN_PREFIX.length());
+        return end > 0 ? path.substring(0, end) : path;
+    }
+
+    private String resolveKey(HttpServletRequest request) {
+        AuthenticatedUser principal = AuthenticatedUser.current();
+        if (principal != null) {
+            return KEY_PREFIX + "user:" + principal.getId();
+        }
+        return KEY_PREFIX + "ip:" + request.getRemoteAddr();
+    }
+
+    private BucketConfiguration createConfiguration() {
+        Bandwidth limit = Bandwidth.builder()
+                .capacity(capacity)
+                .refillGreedy(capacity, Duration.ofSeconds(periodSeconds))
+                .build();
+        return BucketConfiguration.builder()
+                .addLimit(limit)
+                .build();
+    }
+}
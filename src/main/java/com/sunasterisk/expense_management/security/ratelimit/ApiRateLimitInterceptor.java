@@ -0,0 +1,103 @@
+package com.sunasterisk.expense_management.security.ratelimit;
+
+import com.sunasterisk.expense_management.exception.RateLimitExceededException;
+import com.sunasterisk.expense_management.security.AuthenticatedUser;
+import com.sunasterisk.expense_management.util.MessageUtil;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user request quota for API endpoints.
+ * Every caller (the authenticated user, or the client IP for anonymous requests) gets a token bucket;
+ * each request consumes tokens according to its cost class, so a few expensive report requests
+ * use up the quota as fast as many cheap CRUD requests. Admin exports and imports have their own
+ * quota ({@link AdminRateLimitInterceptor}).
+ * Rejections surface as {@link RateLimitExceededException}, which the global exception handler
+ * turns into a 429 response with a Retry-After header.
+ */
+@Component
+public class ApiRateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String KEY_PREFIX = "api:";
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimitBucketStore bucketStore;
+    private final MessageUtil messageUtil;
+
+    @Value("${app.security.rate-limit.api.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Tokens available per user per period (one light request costs one token)
+     */
+    @Value("${app.security.rate-limit.api.capacity:300}")
+    private long capacity;
+
+    @Value("${app.security.rate-limit.api.period-seconds:60}")
+    private long periodSeconds;
+
+    @Value("${app.security.rate-limit.api.heavy-cost:20}")
+    private long heavyCost;
+
+    /**
+     * Heavy endpoints, as Ant path patterns optionally prefixed with an HTTP method (e.g. "GET /api/reports/**")
+     */
+    @Value("${app.security.rate-limit.api.heavy-paths:/api/reports/**}")
+    private List<String> heavyPaths;
+
+    public ApiRateLimitInterceptor(RateLimitBucketStore bucketStore, MessageUtil messageUtil) {
+        this.bucketStore = bucketStore;
+        this.messageUtil = messageUtil;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+
+        long cost = RequestPatterns.matches(heavyPaths, request) ? heavyCost : 1;
+        ConsumptionProbe probe = bucketStore.resolve(resolveKey(request), this::createConfiguration)
+                .tryConsumeAndReturnRemaining(cost);
+
+        if (!probe.isConsumed()) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()) + 1);
+            throw new RateLimitExceededException(
+                    messageUtil.getMessage("error.rate.limit.exceeded", retryAfterSeconds), Duration.ofSeconds(retryAfterSeconds));
+        }
+
+        response.setHeader(REMAINING_HEADER, String.valueOf(probe.getRemainingTokens()));
+        return true;
+    }
+
+    private String resolveKey(HttpServletRequest request) {
+        AuthenticatedUser principal = AuthenticatedUser.current();
+        if (principal != null) {
+            return KEY_PREFIX + "user:" + principal.getId();
+        }
+        // The client address as resolved from X-Forwarded-For by trusted proxies only
+        // (server.forward-headers-strategy); the raw header is client-controlled
+        return KEY_PREFIX + "ip:" + request.getRemoteAddr();
+    }
+
+    private BucketConfiguration createConfiguration() {
+        Bandwidth limit = Bandwidth.builder()
+                .capacity(capacity)
+                .refillGreedy(capacity, Duration.ofSeconds(periodSeconds))
+                .build();
+        return BucketConfiguration.builder()
+                .addLimit(limit)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.sunasterisk.expense_management.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Node-local bucket store backed by bounded Caffeine caches (default store).
+ * Login buckets ({@code login:*} keys) and API quota buckets are kept in separate caches,
+ * so a flood of API clients cannot evict a login lockout and reset it early.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitBucketStore implements RateLimitBucketStore {
+
+    private static final String LOGIN_KEY_PREFIX = "login:";
+
+    private final Cache<String, Bucket> loginBuckets;
+    private final Cache<String, Bucket> apiBuckets;
+
+    public InMemoryRateLimitBucketStore(@Value("${app.security.rate-limit.max-keys:10000}") long maxLoginKeys,
+                                        @Value("${app.security.rate-limit.api.max-keys:10000}") long maxApiKeys) {
+        this.loginBuckets = newCache(maxLoginKeys);
+        this.apiBuckets = newCache(maxApiKeys);
+    }
+
+    @Override
+    public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+        return cacheFor(key).get(key, k -> {
+            LocalBucketBuilder builder = Bucket.builder();
+            for (Bandwidth bandwidth : configuration.get().getBandwidths()) {
+                builder.addLimit(bandwidth);
+            }
+            return builder.build();
+        });
+    }
+
+    @Override
+    public void reset(String key) {
+        cacheFor(key).invalidate(key);
+    }
+
+    private Cache<String, Bucket> cacheFor(String key) {
+        return key.startsWith(LOGIN_KEY_PREFIX) ? loginBuckets : apiBuckets;
+    }
+
+    private static Cache<String, Bucket> newCache(long maxKeys) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofHours(1))
+                .maximumSize(maxKeys)
+                .build();
+    }
+}
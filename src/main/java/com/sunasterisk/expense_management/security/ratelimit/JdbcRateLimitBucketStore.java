@@ -0,0 +1,157 @@
+package com.sunasterisk.expense_management.security.ratelimit;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Bucket store shared by all nodes through the {@code rate_limit_buckets} table.
+ * Follows Bucket4j's compare-and-swap proxy-manager model: each consumption reads the serialized
+ * bucket state and writes the new state only if the row still holds the state that was read,
+ * retrying on conflict, so no row locks are held between the read and the write.
+ * That is at least two statements per rate-limited request, which the connection pool must be sized for.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.security.rate-limit.store", havingValue = "jdbc")
+public class JdbcRateLimitBucketStore implements RateLimitBucketStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProxyManager<String> proxyManager;
+
+    @Value("${app.security.rate-limit.jdbc.retention-hours:24}")
+    private long retentionHours;
+
+    public JdbcRateLimitBucketStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.proxyManager = new CompareAndSwapProxyManager(jdbcTemplate);
+    }
+
+    @Override
+    public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+        return proxyManager.builder().build(key, configuration);
+    }
+
+    @Override
+    public void reset(String key) {
+        proxyManager.removeProxy(key);
+    }
+
+    /**
+     * Delete buckets that have not been touched for a while; they would be full again anyway
+     */
+    @Scheduled(fixedDelayString = "${app.security.rate-limit.jdbc.cleanup-interval-ms:3600000}")
+    public void purgeStaleBuckets() {
+        int removed = jdbcTemplate.update(
+                "DELETE FROM rate_limit_buckets WHERE updated_at < NOW() - INTERVAL ? HOUR", retentionHours);
+        if (removed > 0) {
+            log.info("Purged {} stale rate-limit buckets", removed);
+        }
+    }
+
+    private static class CompareAndSwapProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        CompareAndSwapProxyManager(JdbcTemplate jdbcTemplate) {
+            super(ClientSideConfig.getDefault());
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+            return new CompareAndSwapOperation() {
+                @Override
+                public Optional<byte[]> getStateData(Optional<Long> timeoutNanos) {
+                    List<byte[]> states = jdbcTemplate.query(
+                            "SELECT state FROM rate_limit_buckets WHERE bucket_key = ?",
+                            (rs, rowNum) -> rs.getBytes(1), key);
+                    return states.isEmpty() ? Optional.empty() : Optional.ofNullable(states.get(0));
+                }
+
+                @Override
+                public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState,
+                                              Optional<Long> timeoutNanos) {
+                    if (originalData == null) {
+                        // Another node may create the same bucket concurrently; only one insert wins
+                        return jdbcTemplate.update(
+                                "INSERT IGNORE INTO rate_limit_buckets (bucket_key, state) VALUES (?, ?)",
+                                key, newData) == 1;
+                    }
+                    if (Arrays.equals(originalData, newData)) {
+                        // Read-only command (e.g. available tokens) - nothing to write
+                        return true;
+                    }
+                    return jdbcTemplate.update(
+                            "UPDATE rate_limit_buckets SET state = ? WHERE bucket_key = ? AND state = ?",
+                            newData, key, originalData) == 1;
+                }
+            };
+        }
+
+        /**
+         * JDBC has no non-blocking API, so the asynchronous variant runs the same statements on the
+         * calling thread and returns completed futures
+         */
+        @Override
+        protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+            CompareAndSwapOperation operation = beginCompareAndSwapOperation(key);
+            return new AsyncCompareAndSwapOperation() {
+                @Override
+                public CompletableFuture<Optional<byte[]>> getStateData(Optional<Long> timeoutNanos) {
+                    return complete(() -> operation.getStateData(timeoutNanos));
+                }
+
+                @Override
+                public CompletableFuture<Boolean> compareAndSwap(byte[] originalData, byte[] newData,
+                                                                 RemoteBucketState newState,
+                                                                 Optional<Long> timeoutNanos) {
+                    return complete(() -> operation.compareAndSwap(originalData, newData, newState, timeoutNanos));
+                }
+            };
+        }
+
+        @Override
+        public void removeProxy(String key) {
+            jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE bucket_key = ?", key);
+        }
+
+        @Override
+        protected CompletableFuture<Void> removeAsync(String key) {
+            return complete(() -> {
+                removeProxy(key);
+                return null;
+            });
+        }
+
+        @Override
+        public boolean isAsyncModeSupported() {
+            return true;
+        }
+
+        private static <T> CompletableFuture<T> complete(Supplier<T> action) {
+            try {
+                return CompletableFuture.completedFuture(action.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.sunasterisk.expense_management.security.ratelimit;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+import java.util.function.Supplier;
+
+/**
+ * Storage of rate-limit token buckets.
+ * The in-memory store keeps buckets per node; the JDBC store shares them between all nodes
+ * through the database, so limits hold behind a load balancer and survive restarts.
+ * Selected with {@code app.security.rate-limit.store} ({@code memory} or {@code jdbc}).
+ */
+public interface RateLimitBucketStore {
+
+    /**
+     * Get the bucket for a key, creating it with the given configuration if it does not exist yet
+     *
+     * @param key           bucket key, e.g. {@code login:ip:10.0.0.1}
+     * @param configuration configuration used when the bucket is created
+     */
+    Bucket resolve(String key, Supplier<BucketConfiguration> configuration);
+
+    /**
+     * Drop a bucket, restoring the full limit for the key
+     */
+    void reset(String key);
+}
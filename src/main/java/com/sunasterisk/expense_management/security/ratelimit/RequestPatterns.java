@@ -0,0 +1,35 @@
+package com.sunasterisk.expense_management.security.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+/**
+ * Matches requests against Ant path patterns optionally prefixed with an HTTP method (e.g. "POST /admin/exports")
+ */
+final class RequestPatterns {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private RequestPatterns() {
+    }
+
+    static boolean matches(List<String> patterns, HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String entry : patterns) {
+            String pattern = entry.trim();
+            int space = pattern.indexOf(' ');
+            if (space > 0) {
+                if (!pattern.substring(0, space).equalsIgnoreCase(request.getMethod())) {
+                    continue;
+                }
+                pattern = pattern.substring(space + 1).trim();
+            }
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,126 @@
+package com.sunasterisk.expense_management.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Maintains the monthly RANGE partitions of {@code activity_logs}.
+ * Each month lives in partition {@code pYYYYMM} (rows with created_at before the first day of the
+ * next month); {@code pmax} catches anything beyond the last monthly partition. The schema only
+ * creates {@code pmax}: on first startup the current month is split off it (that partition also keeps
+ * any older rows), then upcoming months are split off ahead of time. Retention drops whole partitions
+ * instead of deleting rows.
+ * When the table is not partitioned (schema not migrated yet) every operation is a no-op.
+ */
+@Slf4j
+@Component
+public class ActivityLogPartitionManager {
+
+    private static final String TABLE = "activity_logs";
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.activity-log.partition.months-ahead:2}")
+    private int monthsAhead;
+
+    public ActivityLogPartitionManager(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Partition name and exclusive upper bound (null for MAXVALUE)
+     */
+    private record Partition(String name, LocalDate lessThan) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            ensureFuturePartitions();
+        } catch (DataAccessException e) {
+            log.warn("Could not prepare activity log partitions: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether activity_logs is range-partitioned by created_at
+     */
+    public boolean isPartitioned() {
+        return !listPartitions().isEmpty();
+    }
+
+    /**
+     * Make sure the current month and the next {@code months-ahead} months have their own partition
+     */
+    public void ensureFuturePartitions() {
+        List<Partition> partitions = listPartitions();
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        LocalDate lastBound = partitions.stream()
+                .map(Partition::lessThan)
+                .filter(bound -> bound != null)
+                .max(LocalDate::compareTo)
+                .orElse(null);
+        YearMonth month = lastBound != null ? YearMonth.from(lastBound) : YearMonth.now();
+        YearMonth until = YearMonth.now().plusMonths(monthsAhead);
+
+        for (; !month.isAfter(until); month = month.plusMonths(1)) {
+            String name = month.format(PARTITION_NAME);
+            String bound = month.plusMonths(1).atDay(1).toString();
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                    + "PARTITION " + name + " VALUES LESS THAN ('" + bound + "'), "
+                    + "PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+            log.info("Created activity log partition {} (< {})", name, bound);
+        }
+    }
+
+    /**
+     * Drop every partition that only holds rows created before the cutoff.
+     *
+     * @return number of dropped partitions
+     */
+    public int dropPartitionsBefore(LocalDateTime cutoff) {
+        LocalDate cutoffDate = cutoff.toLocalDate();
+        int dropped = 0;
+        for (Partition partition : listPartitions()) {
+            if (partition.lessThan() != null && !partition.lessThan().isAfter(cutoffDate)) {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partition.name());
+                log.info("Dropped activity log partition {} (< {})", partition.name(), partition.lessThan());
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    private List<Partition> listPartitions() {
+        return jdbcTemplate.query(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION",
+                (rs, rowNum) -> new Partition(rs.getString(1), parseBound(rs.getString(2))),
+                TABLE);
+    }
+
+    private static LocalDate parseBound(String description) {
+        // RANGE COLUMNS bounds look like '2026-11-01 00:00:00' or '2026-11-01'
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) {
+            return null;
+        }
+        return LocalDate.parse(description.replace("'", "").trim().substring(0, 10));
+    }
+}
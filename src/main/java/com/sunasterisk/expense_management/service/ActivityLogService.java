@@ -1,28 +1,35 @@
 package com.sunasterisk.expense_management.service;
 
-import com.sunasterisk.expense_management.dto.PageResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sunasterisk.expense_management.dto.CursorPageResponse;
 import com.sunasterisk.expense_management.dto.activitylog.ActivityLogFilterRequest;
 import com.sunasterisk.expense_management.dto.activitylog.ActivityLogResponse;
-import com.sunasterisk.expense_management.entity.ActivityLog;
 import com.sunasterisk.expense_management.entity.ActivityLog.ActionType;
-import com.sunasterisk.expense_management.exception.ResourceNotFoundException;
+import com.sunasterisk.expense_management.entity.ActivityLog;
 import com.sunasterisk.expense_management.entity.User;
+import com.sunasterisk.expense_management.exception.ResourceNotFoundException;
 import com.sunasterisk.expense_management.mapper.ActivityLogMapper;
 import com.sunasterisk.expense_management.repository.ActivityLogRepository;
+import com.sunasterisk.expense_management.repository.ActivityLogSearchRepository;
+import com.sunasterisk.expense_management.repository.TableStatisticsRepository;
 import com.sunasterisk.expense_management.repository.specification.ActivityLogSpecification;
+import com.sunasterisk.expense_management.util.JsonMergePatch;
+import com.sunasterisk.expense_management.util.KeysetPager;
 import com.sunasterisk.expense_management.util.MessageUtil;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
@@ -35,45 +42,36 @@ import java.util.List;
 public class ActivityLogService {
 
     private final ActivityLogRepository activityLogRepository;
+    private final ActivityLogWriter activityLogWriter;
     private final ActivityLogMapper activityLogMapper;
     private final MessageUtil messageUtil;
+    private final ObjectMapper objectMapper;
+    private final ActivityLogPartitionManager partitionManager;
+    private final TableStatisticsRepository tableStatisticsRepository;
+    private final ActivityLogSearchRepository searchRepository;
+
+    @Value("${app.activity-log.retention-days:0}")
+    private int retentionDays;
+
+    @Value("${app.activity-log.search.max-results:1000}")
+    private int searchMaxResults;
 
     /**
-     * Log an activity asynchronously.
+     * Log an activity. Request metadata is captured on the calling thread and the entry is
+     * queued for the background writer, so the caller never waits for the insert.
+     * Inside a transaction the entry is only queued once it commits, so a rolled back
+     * (or retried) write leaves no audit entry behind.
      */
-    @Async
-    @Transactional
     public void log(ActionType action, User user, String entityType, Long entityId, String description) {
-        try {
-            String ipAddress = getClientIp();
-
-            ActivityLog activityLog = ActivityLog.builder()
-                    .action(action)
-                    .user(user)
-                    .entityType(entityType)
-                    .entityId(entityId)
-                    .description(description)
-                    .ipAddress(ipAddress)
-                    .userAgent(getUserAgent())
-                    .build();
-
-            activityLogRepository.save(activityLog);
-            log.debug("Activity logged: {} - {} - {}", action, entityType, description);
-        } catch (Exception e) {
-            log.error("Failed to log activity: {}", e.getMessage(), e);
-        }
+        logWithValues(action, user, entityType, entityId, description, null, null);
     }
 
     /**
      * Log an activity with old and new values.
      */
-    @Async
-    @Transactional
     public void logWithValues(ActionType action, User user, String entityType, Long entityId,
                               String description, String oldValue, String newValue) {
         try {
-            String ipAddress = getClientIp();
-
             ActivityLog activityLog = ActivityLog.builder()
                     .action(action)
                     .user(user)
@@ -82,39 +80,127 @@ public class ActivityLogService {
                     .description(description)
                     .oldValue(oldValue)
                     .newValue(newValue)
-                    .ipAddress(ipAddress)
+                    .ipAddress(getClientIp())
                     .userAgent(getUserAgent())
+                    .createdAt(LocalDateTime.now())
                     .build();
 
-            activityLogRepository.save(activityLog);
-            log.debug("Activity logged with values: {} - {} - {}", action, entityType, description);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        activityLogWriter.submit(activityLog);
+                    }
+                });
+            } else {
+                activityLogWriter.submit(activityLog);
+            }
+            log.debug("Activity queued: {} - {} - {}", action, entityType, description);
         } catch (Exception e) {
-            log.error("Failed to log activity with values: {}", e.getMessage(), e);
+            log.error("Failed to log activity: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Log a change of an entity from its before/after representations (usually response DTOs).
+     * CREATE stores the new snapshot, DELETE the old one; UPDATE stores only the changed fields,
+     * as a JSON merge patch (new value) and its reverse (old value). An update that changes
+     * nothing is logged without values.
+     *
+     * @param before the entity before the action, or null for CREATE
+     * @param after  the entity after the action, or null for DELETE
+     */
+    public void logChange(ActionType action, User user, String entityType, Long entityId,
+                          String description, Object before, Object after) {
+        String oldValue = null;
+        String newValue = null;
+        try {
+            if (before == null) {
+                newValue = objectMapper.writeValueAsString(after);
+            } else if (after == null) {
+                oldValue = objectMapper.writeValueAsString(before);
+            } else {
+                JsonNode beforeNode = objectMapper.valueToTree(before);
+                JsonNode afterNode = objectMapper.valueToTree(after);
+                ObjectNode patch = JsonMergePatch.diff(beforeNode, afterNode);
+                if (!patch.isEmpty()) {
+                    newValue = objectMapper.writeValueAsString(patch);
+                    oldValue = objectMapper.writeValueAsString(JsonMergePatch.diff(afterNode, beforeNode));
+                }
+            }
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Failed to serialize {} {} for activity log: {}", entityType, entityId, e.getMessage());
         }
+        logWithValues(action, user, entityType, entityId, description, oldValue, newValue);
     }
 
     /**
-     * Get all activity logs with filters.
+     * Keyset-paginated activity logs (newest first). With a date filter only the matching
+     * monthly partitions are read; the approximate total is only provided when no filter is applied.
+     * A keyword search lists at most {@code search.max-results} matches; the response is flagged
+     * as truncated when older matches were left out.
      */
     @Transactional(readOnly = true)
-    public PageResponse<ActivityLogResponse> getAllLogs(ActivityLogFilterRequest filter) {
-        Sort sort = filter.getSortDir().equalsIgnoreCase("asc")
-                ? Sort.by(filter.getSortBy()).ascending()
-                : Sort.by(filter.getSortBy()).descending();
+    public CursorPageResponse<ActivityLogResponse> getLogsByCursor(ActivityLogFilterRequest filter) {
+        List<ActivityLogSearchRepository.Match> matches = hasKeyword(filter) ? search(filter) : null;
+        Specification<ActivityLog> spec = buildSpecification(filter, matches);
+
+        CursorPageResponse<ActivityLogResponse> response = KeysetPager.fetch(activityLogRepository, spec,
+                filter.getCursor(), filter.getSize(), ActivityLog::getCreatedAt, ActivityLog::getId,
+                activityLogMapper::toResponse, "user");
+        if (filter.getUserId() == null && filter.getAction() == null
+                && (filter.getEntityType() == null || filter.getEntityType().isEmpty())
+                && filter.getEntityId() == null && !hasKeyword(filter)
+                && filter.getStartDate() == null && filter.getEndDate() == null) {
+            response.setApproximateTotal(tableStatisticsRepository.estimateRowCount("activity_logs"));
+        }
+        response.setTruncated(matches != null && matches.size() >= searchMaxResults);
+        return response;
+    }
 
-        Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(), sort);
+    /**
+     * Most recent full-text matches of the keyword that also satisfy every filter
+     * (at most {@code search.max-results}; older matches are not listed)
+     */
+    private List<ActivityLogSearchRepository.Match> search(ActivityLogFilterRequest filter) {
+        return searchRepository.search(new ActivityLogSearchRepository.Criteria(
+                filter.getKeyword(),
+                filter.getUserId(),
+                filter.getAction(),
+                filter.getEntityType(),
+                filter.getEntityId(),
+                filter.getStartDate() != null ? filter.getStartDate().atStartOfDay() : null,
+                filter.getEndDate() != null ? filter.getEndDate().atTime(23, 59, 59) : null
+        ), searchMaxResults);
+    }
 
+    /**
+     * Filters plus, when a keyword was searched, restriction to its matches
+     *
+     * @param matches keyword search matches, or null without keyword
+     */
+    private Specification<ActivityLog> buildSpecification(ActivityLogFilterRequest filter,
+                                                          List<ActivityLogSearchRepository.Match> matches) {
         Specification<ActivityLog> spec = ActivityLogSpecification.withFilters(
                 filter.getUserId(),
                 filter.getAction(),
                 filter.getEntityType(),
+                filter.getEntityId(),
                 filter.getStartDate(),
                 filter.getEndDate()
         );
+        if (matches == null) {
+            return spec;
+        }
 
-        Page<ActivityLog> logPage = activityLogRepository.findAll(spec, pageable);
-        Page<ActivityLogResponse> responsePage = logPage.map(activityLogMapper::toResponse);
-        return PageResponse.fromPage(responsePage);
+        List<Long> ids = matches.stream().map(ActivityLogSearchRepository.Match::id).toList();
+        LocalDateTime newest = matches.isEmpty() ? null : matches.get(0).createdAt();
+        LocalDateTime oldest = matches.isEmpty() ? null : matches.get(matches.size() - 1).createdAt();
+        return spec.and(ActivityLogSpecification.withIds(ids, oldest, newest));
+    }
+
+    private static boolean hasKeyword(ActivityLogFilterRequest filter) {
+        return filter.getKeyword() != null && !filter.getKeyword().isBlank();
     }
 
     /**
@@ -136,7 +222,49 @@ public class ActivityLogService {
     public ActivityLogResponse getLogById(Long id) {
         ActivityLog log = activityLogRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException(messageUtil.getMessage("budget.not.found", id)));
-        return activityLogMapper.toResponse(log);
+        ActivityLogResponse response = activityLogMapper.toResponse(log);
+        reconstructStates(log, response);
+        return response;
+    }
+
+    /**
+     * Rebuild the full entity state before and after a log by replaying the entity's history:
+     * the CREATE snapshot followed by every UPDATE patch up to this log.
+     */
+    private void reconstructStates(ActivityLog target, ActivityLogResponse response) {
+        if (target.getEntityId() == null || target.getOldValue() == null && target.getNewValue() == null) {
+            return;
+        }
+
+        try {
+            List<ActivityLog> history = activityLogRepository.findByEntityTypeAndEntityIdAndIdLessThanEqualOrderByIdAsc(
+                    target.getEntityType(), target.getEntityId(), target.getId());
+            JsonNode state = null;
+            JsonNode stateBefore = null;
+            for (ActivityLog entry : history) {
+                stateBefore = state;
+                if (entry.getAction() == ActionType.CREATE && entry.getNewValue() != null) {
+                    state = objectMapper.readTree(entry.getNewValue());
+                } else if (entry.getAction() == ActionType.DELETE) {
+                    state = null;
+                } else if (entry.getNewValue() != null) {
+                    state = JsonMergePatch.apply(state, objectMapper.readTree(entry.getNewValue()));
+                }
+            }
+
+            // Deleted entities (and history without a CREATE snapshot) fall back to the stored old value
+            if (stateBefore == null && target.getOldValue() != null) {
+                stateBefore = objectMapper.readTree(target.getOldValue());
+            }
+            if (stateBefore != null) {
+                response.setStateBefore(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(stateBefore));
+            }
+            if (state != null) {
+                response.setStateAfter(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(state));
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to reconstruct state for activity log {}: {}", target.getId(), e.getMessage());
+        }
     }
 
     /**
@@ -145,33 +273,54 @@ public class ActivityLogService {
     @Transactional
     public void deleteLog(Long id) {
         activityLogRepository.deleteById(id);
+        searchRepository.deleteById(id);
     }
 
     /**
      * Delete old logs (cleanup).
+     * Whole monthly partitions older than the cutoff are dropped; only the rows of the month
+     * containing the cutoff are deleted row by row.
+     * Not transactional: dropping a partition is DDL and commits implicitly in MySQL.
      */
-    @Transactional
     public void deleteOldLogs(int daysToKeep) {
         if (daysToKeep < 0) {
             throw new IllegalArgumentException("daysToKeep must be non-negative, but was: " + daysToKeep);
         }
 
-        long totalBefore = activityLogRepository.count();
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysToKeep);
-        activityLogRepository.deleteByCreatedAtBefore(cutoffDate);
-        long totalAfter = activityLogRepository.count();
-        long deletedCount = Math.max(0L, totalBefore - totalAfter);
+        int droppedPartitions = partitionManager.dropPartitionsBefore(cutoffDate);
+        int deletedCount = activityLogRepository.deleteByCreatedAtBefore(cutoffDate);
+        searchRepository.deleteByCreatedAtBefore(cutoffDate);
 
         log.info(
-                "Deleted {} activity logs older than {} days (cutoff: {}). Total before: {}, total after: {}",
-                deletedCount,
+                "Deleted activity logs older than {} days (cutoff: {}): {} partitions dropped, {} rows deleted",
                 daysToKeep,
                 cutoffDate,
-                totalBefore,
-                totalAfter
+                droppedPartitions,
+                deletedCount
         );
     }
 
+    /**
+     * Detach all logs from a user that is about to be deleted
+     */
+    @Transactional
+    public void detachUser(Long userId) {
+        activityLogRepository.clearUser(userId);
+        searchRepository.clearUser(userId);
+    }
+
+    /**
+     * Daily partition maintenance: create upcoming monthly partitions and apply the retention period
+     */
+    @Scheduled(cron = "${app.activity-log.partition.maintenance-cron:0 30 2 * * *}")
+    public void maintainPartitions() {
+        partitionManager.ensureFuturePartitions();
+        if (retentionDays > 0) {
+            deleteOldLogs(retentionDays);
+        }
+    }
+
     /**
      * Get client IP address from current request.
      */
@@ -0,0 +1,281 @@
+package com.sunasterisk.expense_management.service;
+
+import com.sunasterisk.expense_management.entity.ActivityLog;
+import com.sunasterisk.expense_management.repository.ActivityLogSearchRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Background writer for activity logs.
+ * Callers only offer a fully built (unsaved) {@link ActivityLog} to a bounded queue; a single
+ * writer thread drains it and inserts the entries with one multi-row INSERT per batch, flushing
+ * when the batch is full or the flush interval has elapsed since its first entry.
+ * When the queue is full the configured overflow policy decides whether the new entry is dropped,
+ * the oldest queued entry is dropped, or the caller writes the entry itself.
+ * Written entries are then added to the full-text search table; a failure there only leaves
+ * those entries unsearchable. Queue depth and entry counters are published as metrics.
+ */
+@Slf4j
+@Component
+public class ActivityLogWriter implements MeterBinder {
+
+    public enum OverflowPolicy {
+        DROP_NEWEST,
+        DROP_OLDEST,
+        CALLER_WRITES
+    }
+
+    private static final String INSERT_PREFIX = "INSERT INTO activity_logs "
+            + "(action, entity_type, entity_id, description, old_value, new_value, ip_address, user_agent, user_id, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int COLUMNS = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ActivityLogSearchRepository searchRepository;
+    private final BlockingQueue<ActivityLog> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final OverflowPolicy overflowPolicy;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running = true;
+    private Thread writerThread;
+
+    public ActivityLogWriter(JdbcTemplate jdbcTemplate,
+                             ActivityLogSearchRepository searchRepository,
+                             @Value("${app.activity-log.queue-capacity:10000}") int queueCapacity,
+                             @Value("${app.activity-log.batch-size:200}") int batchSize,
+                             @Value("${app.activity-log.flush-interval-ms:500}") long flushIntervalMs,
+                             @Value("${app.activity-log.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchRepository = searchRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @PostConstruct
+    void start() {
+        writerThread = new Thread(this::run, "activity-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stop accepting work from the queue loop and write whatever is still pending
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<ActivityLog> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            writeBatch(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+    }
+
+    /**
+     * Queue an activity log for writing; never blocks the caller on the database
+     * unless the overflow policy is CALLER_WRITES and the queue is full.
+     */
+    public void submit(ActivityLog activityLog) {
+        if (queue.offer(activityLog)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case DROP_OLDEST -> {
+                if (queue.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+                if (queue.offer(activityLog)) {
+                    enqueued.incrementAndGet();
+                } else {
+                    dropped.incrementAndGet();
+                }
+            }
+            case CALLER_WRITES -> writeBatch(List.of(activityLog));
+            default -> dropped.incrementAndGet();
+        }
+
+        long droppedCount = dropped.get();
+        if (droppedCount > 0 && (droppedCount & 1023) == 1) {
+            log.warn("Activity log queue is full, {} entries dropped so far", droppedCount);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.activity.log.queue.size", this, ActivityLogWriter::getQueueSize)
+                .description("Activity logs waiting to be written")
+                .register(registry);
+        bindCounter(registry, "enqueued", ActivityLogWriter::getEnqueuedCount);
+        bindCounter(registry, "written", ActivityLogWriter::getWrittenCount);
+        bindCounter(registry, "dropped", ActivityLogWriter::getDroppedCount);
+        bindCounter(registry, "failed", ActivityLogWriter::getFailedCount);
+    }
+
+    private void bindCounter(MeterRegistry registry, String state, ToDoubleFunction<ActivityLogWriter> count) {
+        FunctionCounter.builder("app.activity.log.entries", this, count)
+                .tag("state", state)
+                .register(registry);
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    private void run() {
+        List<ActivityLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ActivityLog first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remainingNanos <= 0) {
+                        break;
+                    }
+                    ActivityLog next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // Shutdown - write the current batch, the rest of the queue is flushed by stop()
+                writeBatch(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<ActivityLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + batch.size() * (ROW_PLACEHOLDERS.length() + 2))
+                .append(INSERT_PREFIX);
+        Object[] args = new Object[batch.size() * COLUMNS];
+        int i = 0;
+        for (ActivityLog entry : batch) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            args[i++] = entry.getAction().name();
+            args[i++] = entry.getEntityType();
+            args[i++] = entry.getEntityId();
+            args[i++] = entry.getDescription();
+            args[i++] = entry.getOldValue();
+            args[i++] = entry.getNewValue();
+            args[i++] = entry.getIpAddress();
+            args[i++] = entry.getUserAgent();
+            args[i++] = entry.getUser() != null ? entry.getUser().getId() : null;
+            args[i++] = Timestamp.valueOf(entry.getCreatedAt());
+        }
+
+        try {
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS);
+                new ArgumentPreparedStatementSetter(args).setValues(statement);
+                return statement;
+            }, keys);
+            written.addAndGet(batch.size());
+            log.debug("Wrote {} activity logs", batch.size());
+            index(batch, keys.getKeyList());
+        } catch (Exception e) {
+            if (batch.size() > 1) {
+                // One bad row (e.g. a user deleted meanwhile) must not lose the whole batch
+                log.warn("Batch insert of {} activity logs failed, retrying row by row: {}", batch.size(), e.getMessage());
+                for (ActivityLog entry : batch) {
+                    writeBatch(List.of(entry));
+                }
+                return;
+            }
+            failed.incrementAndGet();
+            log.error("Failed to write activity log: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Add written entries to the search table; the keys of a multi-row INSERT come back in row order
+     */
+    private void index(List<ActivityLog> batch, List<Map<String, Object>> keys) {
+        if (keys.size() != batch.size()) {
+            log.warn("Expected {} generated activity log ids but got {}, entries not indexed for search",
+                    batch.size(), keys.size());
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+        try {
+            searchRepository.index(batch);
+        } catch (DataAccessException e) {
+            log.warn("Failed to index {} activity logs for search: {}", batch.size(), e.getMessage());
+        }
+    }
+}
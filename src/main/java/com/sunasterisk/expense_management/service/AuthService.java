@@ -8,12 +8,15 @@ import com.sunasterisk.expense_management.exception.RateLimitExceededException;
 import com.sunasterisk.expense_management.repository.UserRepository;
 import com.sunasterisk.expense_management.security.JwtUtil;
 import com.sunasterisk.expense_management.util.MessageUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
 public class AuthService {
 
@@ -24,6 +27,7 @@ public class AuthService {
     private final JwtUtil jwtUtil;
     private final LoginRateLimiterService rateLimiterService;
     private final ActivityLogService activityLogService;
+    private final TokenRevocationService tokenRevocationService;
     private final HttpServletRequest request;
     private final MessageUtil messageUtil;
 
@@ -32,6 +36,7 @@ public class AuthService {
                       JwtUtil jwtUtil,
                       LoginRateLimiterService rateLimiterService,
                       ActivityLogService activityLogService,
+                      TokenRevocationService tokenRevocationService,
                       HttpServletRequest request,
                       MessageUtil messageUtil) {
         this.userRepository = userRepository;
@@ -39,6 +44,7 @@ public class AuthService {
         this.jwtUtil = jwtUtil;
         this.rateLimiterService = rateLimiterService;
         this.activityLogService = activityLogService;
+        this.tokenRevocationService = tokenRevocationService;
         this.request = request;
         this.messageUtil = messageUtil;
     }
@@ -47,13 +53,14 @@ public class AuthService {
         String ipAddress = getClientIP();
 
         // Check rate limit before processing login
-        if (!rateLimiterService.allowLogin(ipAddress)) {
+        if (!rateLimiterService.allowLogin(ipAddress, authRequest.getEmail())) {
             long remaining = rateLimiterService.getRemainingAttempts(ipAddress);
-            log.warn("Login rate limit exceeded for IP: {} (remaining: {})", ipAddress, remaining);
+            log.warn("Login rate limit exceeded for IP: {} / account: {} (remaining for IP: {})",
+                    ipAddress, authRequest.getEmail(), remaining);
 
             throw new RateLimitExceededException(
                 messageUtil.getMessage("auth.rate.limit.exceeded", rateLimiterService.getLockoutDurationMinutes()),
-                rateLimiterService.getLockoutDurationMinutes()
+                Duration.ofMinutes(rateLimiterService.getLockoutDurationMinutes())
             );
         }
 
@@ -73,10 +80,17 @@ public class AuthService {
             throw new IllegalArgumentException(messageUtil.getMessage("auth.account.inactive"));
         }
 
-        // Successful login - reset rate limit for this IP
-        rateLimiterService.resetLimit(ipAddress);
+        // Re-hash with the current algorithm and cost while the raw password is at hand
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(authRequest.getPassword()));
+            userRepository.save(user);
+            log.info("Upgraded password hash for: {}", user.getEmail());
+        }
+
+        // Successful login - reset rate limits for this IP and account
+        rateLimiterService.resetLimit(ipAddress, authRequest.getEmail());
 
-        String token = jwtUtil.generateToken(user.getEmail());
+        String token = jwtUtil.generateToken(user);
         log.info("Login successful for: {} from IP: {}", user.getEmail(), ipAddress);
 
         // Log successful login
@@ -86,15 +100,36 @@ public class AuthService {
         return new AuthResponse(token);
     }
 
+    /**
+     * Revoke the bearer token of the current request, so it cannot be used again before it expires
+     */
+    public void logout() {
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return;
+        }
+
+        Claims claims = jwtUtil.parseClaims(header.substring(7));
+        if (claims == null) {
+            return;
+        }
+
+        tokenRevocationService.revokeToken(claims);
+        log.info("Logout for: {} from IP: {}", claims.getSubject(), getClientIP());
+
+        Long userId = JwtUtil.getUserId(claims);
+        if (userId != null) {
+            activityLogService.log(ActionType.LOGOUT, userRepository.getReferenceById(userId), "User", userId,
+                    "User logged out");
+        }
+    }
+
     /**
      * Get client IP address from request
-     * Handles X-Forwarded-For header for proxied requests
+     * X-Forwarded-For is only honoured when set by a trusted proxy (server.forward-headers-strategy),
+     * which has already resolved it into the remote address; the raw header is client-controlled
      */
     private String getClientIP() {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader == null || xfHeader.isEmpty()) {
-            return request.getRemoteAddr();
-        }
-        return xfHeader.split(",")[0].trim();
+        return request.getRemoteAddr();
     }
 }
@@ -12,17 +12,15 @@ import com.sunasterisk.expense_management.exception.ResourceNotFoundException;
 import com.sunasterisk.expense_management.mapper.BudgetMapper;
 import com.sunasterisk.expense_management.repository.BudgetRepository;
 import com.sunasterisk.expense_management.repository.CategoryRepository;
-import com.sunasterisk.expense_management.repository.UserRepository;
 import com.sunasterisk.expense_management.repository.specification.BudgetSpecification;
+import com.sunasterisk.expense_management.service.alert.BudgetAlertEvaluator;
+import com.sunasterisk.expense_management.util.CurrentUserHolder;
 import com.sunasterisk.expense_management.util.MessageUtil;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,33 +29,26 @@ public class BudgetService {
 
     private final BudgetRepository budgetRepository;
     private final CategoryRepository categoryRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserHolder currentUserHolder;
     private final BudgetMapper budgetMapper;
     private final MessageUtil messageUtil;
     private final ActivityLogService activityLogService;
-    private final ObjectMapper objectMapper;
+    private final BudgetAlertEvaluator budgetAlertEvaluator;
 
     public BudgetService(BudgetRepository budgetRepository,
                         CategoryRepository categoryRepository,
-                        UserRepository userRepository,
+                        CurrentUserHolder currentUserHolder,
                         BudgetMapper budgetMapper,
                         MessageUtil messageUtil,
                         ActivityLogService activityLogService,
-                        ObjectMapper objectMapper) {
+                        BudgetAlertEvaluator budgetAlertEvaluator) {
         this.budgetRepository = budgetRepository;
         this.categoryRepository = categoryRepository;
-        this.userRepository = userRepository;
+        this.currentUserHolder = currentUserHolder;
         this.budgetMapper = budgetMapper;
         this.messageUtil = messageUtil;
         this.activityLogService = activityLogService;
-        this.objectMapper = objectMapper;
-    }
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException(messageUtil.getMessage("user.not.found")));
+        this.budgetAlertEvaluator = budgetAlertEvaluator;
     }
 
     /**
@@ -89,7 +80,7 @@ public class BudgetService {
 
     @Transactional(readOnly = true)
     public PageResponse<BudgetResponse> getBudgets(BudgetFilterRequest filter) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         String[] sortFields = filter.getSortBy().split(",");
         Sort sort = filter.getSortDir().equalsIgnoreCase("asc")
@@ -117,7 +108,7 @@ public class BudgetService {
 
     @Transactional(readOnly = true)
     public BudgetResponse getBudgetById(Long id) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         Budget budget = budgetRepository.findByIdAndUser_Id(id, user.getId())
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -128,7 +119,7 @@ public class BudgetService {
 
     @Transactional
     public BudgetResponse createBudget(BudgetRequest request) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         // Check if budget already exists for this category, year, month
         boolean exists;
@@ -171,35 +162,23 @@ public class BudgetService {
 
         // Log activity with new values
         String categoryName = category != null ? category.getName() : "All Categories";
-        try {
-            String newValue = objectMapper.writeValueAsString(budgetMapper.toResponse(budget));
-            activityLogService.logWithValues(
-                ActionType.CREATE,
-                user,
-                "Budget",
-                budget.getId(),
-                String.format("Created budget for %s (%d/%d) with limit %.2f",
-                    categoryName, budget.getMonth(), budget.getYear(), budget.getAmountLimit()),
-                null,
-                newValue
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.CREATE,
-                user,
-                "Budget",
-                budget.getId(),
-                String.format("Created budget for %s (%d/%d) with limit %.2f",
-                    categoryName, budget.getMonth(), budget.getYear(), budget.getAmountLimit())
-            );
-        }
+        activityLogService.logChange(
+            ActionType.CREATE,
+            user,
+            "Budget",
+            budget.getId(),
+            String.format("Created budget for %s (%d/%d) with limit %.2f",
+                categoryName, budget.getMonth(), budget.getYear(), budget.getAmountLimit()),
+            null,
+            budgetMapper.toResponse(budget)
+        );
 
         return budgetMapper.toResponse(budget);
     }
 
     @Transactional
     public BudgetResponse updateBudget(Long id, BudgetRequest request) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         Budget budget = budgetRepository.findByIdAndUser_Id(id, user.getId())
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -210,7 +189,7 @@ public class BudgetService {
 
     @Transactional
     public void deleteBudget(Long id) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         Budget budget = budgetRepository.findByIdAndUser_Id(id, user.getId())
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -296,17 +275,22 @@ public class BudgetService {
         }
 
         // Keep old value for logging
-        String oldValue = null;
-        try {
-            oldValue = objectMapper.writeValueAsString(budgetMapper.toResponse(budget));
-        } catch (Exception e) {
-            // Ignore
-        }
+        BudgetResponse before = budgetMapper.toResponse(budget);
 
         budgetMapper.updateEntity(request, budget);
         budget.setCategory(category);
+        // A raised limit or threshold re-arms the alert; crossing it again queues a new one
+        if (budget.getIsAlertSent() && budget.getAlertThreshold() != null
+                && budget.getUsagePercentage() < budget.getAlertThreshold()) {
+            budget.setIsAlertSent(false);
+        }
 
-        budget = budgetRepository.save(budget);
+        budget = budgetRepository.saveAndFlush(budget);
+        // A lowered limit or threshold that the spent amount already reaches queues the alert now,
+        // as an expense crossing it would
+        if (budgetAlertEvaluator.onBudgetUpdated(budget.getId())) {
+            budget.setIsAlertSent(true);
+        }
 
         // Build description of changes
         String categoryName = category != null ? category.getName() : "All Categories";
@@ -315,26 +299,15 @@ public class BudgetService {
                   .append("/").append(budget.getYear()).append(")");
 
         // Log activity with old and new values
-        try {
-            String newValue = objectMapper.writeValueAsString(budgetMapper.toResponse(budget));
-            activityLogService.logWithValues(
-                ActionType.UPDATE,
-                actionUser,
-                "Budget",
-                budget.getId(),
-                changeDesc.toString(),
-                oldValue,
-                newValue
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.UPDATE,
-                actionUser,
-                "Budget",
-                budget.getId(),
-                changeDesc.toString()
-            );
-        }
+        activityLogService.logChange(
+            ActionType.UPDATE,
+            actionUser,
+            "Budget",
+            budget.getId(),
+            changeDesc.toString(),
+            before,
+            budgetMapper.toResponse(budget)
+        );
 
         return budgetMapper.toResponse(budget);
     }
@@ -357,28 +330,16 @@ public class BudgetService {
     private void deleteBudgetInternal(Budget budget, User actionUser) {
         // Log activity before soft delete with old values
         String categoryName = budget.getCategory() != null ? budget.getCategory().getName() : "All Categories";
-        try {
-            String oldValue = objectMapper.writeValueAsString(budgetMapper.toResponse(budget));
-            activityLogService.logWithValues(
-                ActionType.DELETE,
-                actionUser,
-                "Budget",
-                budget.getId(),
-                String.format("Deleted budget for %s (%d/%d)",
-                    categoryName, budget.getMonth(), budget.getYear()),
-                oldValue,
-                null
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.DELETE,
-                actionUser,
-                "Budget",
-                budget.getId(),
-                String.format("Deleted budget for %s (%d/%d)",
-                    categoryName, budget.getMonth(), budget.getYear())
-            );
-        }
+        activityLogService.logChange(
+            ActionType.DELETE,
+            actionUser,
+            "Budget",
+            budget.getId(),
+            String.format("Deleted budget for %s (%d/%d)",
+                categoryName, budget.getMonth(), budget.getYear()),
+            budgetMapper.toResponse(budget),
+            null
+        );
 
         // Soft delete
         budget.setActive(false);
@@ -0,0 +1,98 @@
+package com.sunasterisk.expense_management.service;
+
+import com.sunasterisk.expense_management.entity.Budget;
+import com.sunasterisk.expense_management.repository.BudgetRepository;
+import com.sunasterisk.expense_management.repository.ExpenseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Corrects drift in budget spent amounts. Expense writes only apply deltas to the budget
+ * (see ExpenseService), so expenses that bypass the service (CSV imports, direct SQL) or were
+ * created before the budget are picked up here by re-summing recent months once a day.
+ */
+@Slf4j
+@Service
+public class BudgetSpentReconciler {
+
+    private final BudgetRepository budgetRepository;
+    private final ExpenseRepository expenseRepository;
+
+    /**
+     * Number of months reconciled, counting back from the current one
+     */
+    @Value("${app.budget.reconciliation.months:2}")
+    private int months;
+
+    public BudgetSpentReconciler(BudgetRepository budgetRepository, ExpenseRepository expenseRepository) {
+        this.budgetRepository = budgetRepository;
+        this.expenseRepository = expenseRepository;
+    }
+
+    @Scheduled(cron = "${app.budget.reconciliation.cron:0 15 3 * * *}")
+    @Transactional
+    public void reconcileRecentMonths() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i < months; i++) {
+            reconcile(current.minusMonths(i));
+        }
+    }
+
+    /**
+     * Re-sum the expenses of one month and fix every budget whose spent amount differs:
+     * category budgets against their category's total, overall budgets against the user's total.
+     * Budgets are read before the sums, and a fix only applies if the spent amount still has the value
+     * that was read, so a delta applied concurrently by an expense write is never overwritten with a stale sum.
+     *
+     * @return number of budgets corrected
+     */
+    @Transactional
+    public int reconcile(YearMonth yearMonth) {
+        List<Budget> budgets = budgetRepository.findByYearAndMonth(
+                yearMonth.getYear(), yearMonth.getMonthValue());
+        if (budgets.isEmpty()) {
+            return 0;
+        }
+
+        LocalDate from = yearMonth.atDay(1);
+        Map<String, BigDecimal> sums = new HashMap<>();
+        for (Object[] row : expenseRepository.sumByUserAndCategoryBetween(from, from.plusMonths(1))) {
+            Long userId = (Long) row[0];
+            BigDecimal sum = (BigDecimal) row[2];
+            sums.put(key(userId, (Long) row[1]), sum);
+            sums.merge(key(userId, null), sum, BigDecimal::add);
+        }
+
+        int corrected = 0;
+        for (Budget budget : budgets) {
+            Long categoryId = budget.getCategory() != null ? budget.getCategory().getId() : null;
+            BigDecimal actual = sums.getOrDefault(key(budget.getUser().getId(), categoryId), BigDecimal.ZERO);
+            if (budget.getSpentAmount().compareTo(actual) != 0) {
+                corrected += budgetRepository.updateSpentAmountIfUnchanged(
+                        budget.getId(), budget.getSpentAmount(), actual);
+            }
+        }
+
+        if (corrected > 0) {
+            log.info("Reconciled spent amount of {} budget(s) for {}", corrected, yearMonth);
+        }
+        return corrected;
+    }
+
+    /**
+     * Key of a user's category total, or of the user's overall total when categoryId is null
+     */
+    private static String key(Long userId, Long categoryId) {
+        return categoryId != null ? userId + ":" + categoryId : userId + ":*";
+    }
+}
@@ -0,0 +1,271 @@
+package com.sunasterisk.expense_management.service;
+
+import com.sunasterisk.expense_management.config.ExportConfig;
+import com.sunasterisk.expense_management.dto.budgettemplate.BudgetTemplateRolloutJobResponse;
+import com.sunasterisk.expense_management.dto.budgettemplate.BudgetTemplateRolloutJobResponse.Status;
+import com.sunasterisk.expense_management.dto.budgettemplate.BudgetTemplateRolloutRequest;
+import com.sunasterisk.expense_management.entity.ActivityLog.ActionType;
+import com.sunasterisk.expense_management.entity.BudgetTemplate;
+import com.sunasterisk.expense_management.entity.User;
+import com.sunasterisk.expense_management.entity.User.Role;
+import com.sunasterisk.expense_management.exception.ResourceNotFoundException;
+import com.sunasterisk.expense_management.repository.BudgetRolloutRepository;
+import com.sunasterisk.expense_management.repository.BudgetTemplateRepository;
+import com.sunasterisk.expense_management.util.CurrentUserHolder;
+import com.sunasterisk.expense_management.util.MessageUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates budgets from a budget template for all (or all active users of one role) in a target month.
+ * A rollout runs as a background job on the export executor, so the admin UI polls its progress instead
+ * of holding a request thread. Users are processed in id ranges, each range with one INSERT ... SELECT
+ * in its own transaction, so a rollout over many users never holds one huge transaction; users that
+ * already have a budget for a template category are skipped, which also makes a rollout safe to re-run.
+ * Budgets created at or above their alert threshold get their alert queued in the same transaction.
+ */
+@Slf4j
+@Service
+public class BudgetTemplateRolloutService {
+
+    private final BudgetTemplateRepository budgetTemplateRepository;
+    private final BudgetRolloutRepository budgetRolloutRepository;
+    private final ActivityLogService activityLogService;
+    private final CurrentUserHolder currentUserHolder;
+    private final MessageUtil messageUtil;
+    private final TransactionTemplate transaction;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Map<String, RolloutJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Width of the user-id range handled by one INSERT ... SELECT
+     */
+    @Value("${app.budget.template.rollout.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.budget.template.rollout.job-ttl-minutes:60}")
+    private long jobTtlMinutes;
+
+    public BudgetTemplateRolloutService(BudgetTemplateRepository budgetTemplateRepository,
+                                        BudgetRolloutRepository budgetRolloutRepository,
+                                        ActivityLogService activityLogService,
+                                        CurrentUserHolder currentUserHolder,
+                                        MessageUtil messageUtil,
+                                        PlatformTransactionManager transactionManager,
+                                        @Qualifier(ExportConfig.EXPORT_EXECUTOR) ThreadPoolTaskExecutor executor) {
+        this.budgetTemplateRepository = budgetTemplateRepository;
+        this.budgetRolloutRepository = budgetRolloutRepository;
+        this.activityLogService = activityLogService;
+        this.currentUserHolder = currentUserHolder;
+        this.messageUtil = messageUtil;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+
+    /**
+     * Start a background rollout. If a rollout of the same template and month is already queued or
+     * running, that job is returned instead of starting a second one.
+     */
+    public BudgetTemplateRolloutJobResponse submit(Long templateId, BudgetTemplateRolloutRequest request) {
+        BudgetTemplate template = budgetTemplateRepository.findById(templateId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        messageUtil.getMessage("admin.budget.template.not.found", templateId)));
+        if (!template.getActive()) {
+            throw new IllegalArgumentException(messageUtil.getMessage("admin.budget.template.rollout.inactive"));
+        }
+
+        YearMonth month = YearMonth.of(request.getYear(), request.getMonth());
+        int alertThreshold = request.getAlertThreshold() != null ? request.getAlertThreshold() : 80;
+        User user = currentUserHolder.getCurrentUser();
+        RolloutJob job;
+        // The duplicate check and the registration must be atomic, or two concurrent submits both start a job
+        synchronized (jobs) {
+            for (RolloutJob existing : jobs.values()) {
+                if (existing.templateId.equals(templateId) && existing.month.equals(month) && !existing.isFinished()) {
+                    return existing.toResponse();
+                }
+            }
+
+            job = new RolloutJob(UUID.randomUUID().toString(), templateId, template.getName(), month,
+                    request.getRole(), alertThreshold, user, getCurrentUsername());
+            jobs.put(job.id, job);
+
+            try {
+                executor.execute(() -> run(job));
+            } catch (TaskRejectedException e) {
+                jobs.remove(job.id);
+                throw new IllegalStateException(messageUtil.getMessage("admin.budget.template.rollout.queue.full"), e);
+            }
+        }
+
+        log.info("Queued rollout job {} of budget template {} for {}", job.id, templateId, month);
+        return job.toResponse();
+    }
+
+    /**
+     * Get the current state of a rollout job
+     */
+    public BudgetTemplateRolloutJobResponse getJob(String id) {
+        RolloutJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException(messageUtil.getMessage("admin.budget.template.rollout.not.found", id));
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * Get the known rollout jobs of a template, newest first
+     */
+    public List<BudgetTemplateRolloutJobResponse> getJobs(Long templateId) {
+        return jobs.values().stream()
+                .filter(job -> job.templateId.equals(templateId))
+                .sorted(Comparator.comparing((RolloutJob job) -> job.createdAt).reversed())
+                .map(RolloutJob::toResponse)
+                .toList();
+    }
+
+    /**
+     * Forget finished jobs older than the job TTL
+     */
+    @Scheduled(fixedDelayString = "${app.export.cleanup-interval-ms:300000}")
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobTtlMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.completedAt.isBefore(cutoff));
+    }
+
+    private void run(RolloutJob job) {
+        job.status = Status.RUNNING;
+        long started = System.nanoTime();
+        try {
+            Long[] bounds = budgetRolloutRepository.findUserIdBounds(job.role);
+            if (bounds[0] != null) {
+                job.chunksTotal = (int) ((bounds[1] - bounds[0]) / chunkSize + 1);
+                for (long from = bounds[0]; from <= bounds[1]; from += chunkSize) {
+                    long fromUserId = from;
+                    long toUserId = Math.min(from + chunkSize - 1, bounds[1]);
+                    ChunkResult result = transaction.execute(status -> {
+                        long lastBudgetId = budgetRolloutRepository.findMaxBudgetId();
+                        int created = budgetRolloutRepository.insertFromTemplate(job.templateId, job.month,
+                                job.role, job.alertThreshold, fromUserId, toUserId);
+                        return new ChunkResult(created, created > 0
+                                ? budgetRolloutRepository.queueAlertsForCreated(job.templateId, job.month, job.role,
+                                        fromUserId, toUserId, lastBudgetId)
+                                : 0);
+                    });
+                    if (result != null) {
+                        job.budgetsCreated += result.created();
+                        job.alertsQueued += result.alertsQueued();
+                    }
+                    job.chunksDone++;
+                }
+            }
+            finish(job, Status.COMPLETED);
+            log.info("Rolled out budget template {} for {}: {} budget(s) created, {} alert(s) queued in {} ms",
+                    job.templateId, job.month, job.budgetsCreated, job.alertsQueued,
+                    (System.nanoTime() - started) / 1_000_000);
+            activityLogService.log(
+                ActionType.CREATE,
+                job.user,
+                "BudgetTemplate",
+                job.templateId,
+                String.format("Rolled out budget template %s for %d/%d%s: %d budgets created",
+                    job.templateName, job.month.getMonthValue(), job.month.getYear(),
+                    job.role != null ? " (" + job.role + " users)" : "", job.budgetsCreated)
+            );
+        } catch (Exception e) {
+            job.errorMessage = e.getMessage();
+            finish(job, Status.FAILED);
+            log.error("Rollout job {} of budget template {} failed after {} of {} chunk(s): {}",
+                    job.id, job.templateId, job.chunksDone, job.chunksTotal, e.getMessage(), e);
+        }
+    }
+
+    private void finish(RolloutJob job, Status status) {
+        job.completedAt = LocalDateTime.now();
+        job.status = status;
+    }
+
+    private String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private record ChunkResult(int created, int alertsQueued) {
+    }
+
+    /**
+     * Mutable job state, written by the rollout thread and read by request threads
+     */
+    private static class RolloutJob {
+        private final String id;
+        private final Long templateId;
+        private final String templateName;
+        private final YearMonth month;
+        private final Role role;
+        private final int alertThreshold;
+        private final User user;
+        private final String requestedBy;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private volatile Status status = Status.PENDING;
+        private volatile int chunksDone;
+        private volatile int chunksTotal;
+        private volatile int budgetsCreated;
+        private volatile int alertsQueued;
+        private volatile String errorMessage;
+        private volatile LocalDateTime completedAt;
+
+        RolloutJob(String id, Long templateId, String templateName, YearMonth month, Role role,
+                   int alertThreshold, User user, String requestedBy) {
+            this.id = id;
+            this.templateId = templateId;
+            this.templateName = templateName;
+            this.month = month;
+            this.role = role;
+            this.alertThreshold = alertThreshold;
+            this.user = user;
+            this.requestedBy = requestedBy;
+        }
+
+        boolean isFinished() {
+            return status == Status.COMPLETED || status == Status.FAILED;
+        }
+
+        BudgetTemplateRolloutJobResponse toResponse() {
+            return BudgetTemplateRolloutJobResponse.builder()
+                    .id(id)
+                    .templateId(templateId)
+                    .year(month.getYear())
+                    .month(month.getMonthValue())
+                    .role(role)
+                    .status(status)
+                    .chunksDone(chunksDone)
+                    .chunksTotal(chunksTotal)
+                    .budgetsCreated(budgetsCreated)
+                    .alertsQueued(alertsQueued)
+                    .errorMessage(errorMessage)
+                    .requestedBy(requestedBy)
+                    .createdAt(createdAt)
+                    .completedAt(completedAt)
+                    .build();
+        }
+    }
+}
@@ -10,18 +10,15 @@ import com.sunasterisk.expense_management.entity.User;
 import com.sunasterisk.expense_management.exception.ResourceNotFoundException;
 import com.sunasterisk.expense_management.mapper.CategoryMapper;
 import com.sunasterisk.expense_management.repository.CategoryRepository;
-import com.sunasterisk.expense_management.repository.UserRepository;
 import com.sunasterisk.expense_management.repository.specification.CategorySpecification;
+import com.sunasterisk.expense_management.util.CurrentUserHolder;
 import com.sunasterisk.expense_management.util.MessageUtil;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,36 +28,26 @@ import java.util.List;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserHolder currentUserHolder;
     private final CategoryMapper categoryMapper;
     private final MessageUtil messageUtil;
     private final ActivityLogService activityLogService;
-    private final ObjectMapper objectMapper;
 
     public CategoryService(CategoryRepository categoryRepository,
-                          UserRepository userRepository,
+                          CurrentUserHolder currentUserHolder,
                           CategoryMapper categoryMapper,
                           MessageUtil messageUtil,
-                          ActivityLogService activityLogService,
-                          ObjectMapper objectMapper) {
+                          ActivityLogService activityLogService) {
         this.categoryRepository = categoryRepository;
-        this.userRepository = userRepository;
+        this.currentUserHolder = currentUserHolder;
         this.categoryMapper = categoryMapper;
         this.messageUtil = messageUtil;
         this.activityLogService = activityLogService;
-        this.objectMapper = objectMapper;
-    }
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException(messageUtil.getMessage("user.not.found")));
     }
 
     @Transactional(readOnly = true)
     public PageResponse<CategoryResponse> getCategories(CategoryFilterRequest filter) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         Sort sort = filter.getSortDir().equalsIgnoreCase("asc")
                 ? Sort.by(filter.getSortBy()).ascending()
@@ -84,7 +71,7 @@ public class CategoryService {
 
     @Transactional(readOnly = true)
     public CategoryResponse getCategoryById(Long id) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         // User can access their own categories + default categories
         Category category = categoryRepository.findById(id)
@@ -97,11 +84,11 @@ public class CategoryService {
 
     @Transactional
     public CategoryResponse createCategory(CategoryRequest request) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         Category category = categoryMapper.toEntity(request);
         // If user is not admin, set the user and isDefault fields accordingly
-        if (User.Role.ADMIN.equals(user.getRole())) {
+        if (currentUserHolder.isAdmin()) {
             category.setUser(null); // Admin-created categories are global
             category.setIsDefault(true);
         } else {
@@ -112,36 +99,25 @@ public class CategoryService {
         category = categoryRepository.save(category);
 
         // Log activity with new values
-        try {
-            String newValue = objectMapper.writeValueAsString(categoryMapper.toResponse(category));
-            activityLogService.logWithValues(
-                ActionType.CREATE,
-                user,
-                "Category",
-                category.getId(),
-                String.format("Created category '%s' (%s)", category.getName(), category.getType()),
-                null,
-                newValue
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.CREATE,
-                user,
-                "Category",
-                category.getId(),
-                String.format("Created category '%s' (%s)", category.getName(), category.getType())
-            );
-        }
+        activityLogService.logChange(
+            ActionType.CREATE,
+            user,
+            "Category",
+            category.getId(),
+            String.format("Created category '%s' (%s)", category.getName(), category.getType()),
+            null,
+            categoryMapper.toResponse(category)
+        );
 
         return categoryMapper.toResponse(category);
     }
 
     @Transactional
     public CategoryResponse updateCategory(Long id, CategoryRequest request) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
         Category category;
         // Admins can update any category
-        if (User.Role.ADMIN.equals(user.getRole())) {
+        if (currentUserHolder.isAdmin()) {
             category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
                     messageUtil.getMessage("category.not.found", id)));
@@ -153,12 +129,7 @@ public class CategoryService {
         }
 
         // Keep old value for logging
-        String oldValue = null;
-        try {
-            oldValue = objectMapper.writeValueAsString(categoryMapper.toResponse(category));
-        } catch (Exception e) {
-            // Ignore
-        }
+        CategoryResponse before = categoryMapper.toResponse(category);
 
         categoryMapper.updateEntity(request, category);
 
@@ -169,35 +140,24 @@ public class CategoryService {
         changeDesc.append(category.getName()).append(" (").append(category.getType()).append(")");
 
         // Log activity with old and new values
-        try {
-            String newValue = objectMapper.writeValueAsString(categoryMapper.toResponse(category));
-            activityLogService.logWithValues(
-                ActionType.UPDATE,
-                user,
-                "Category",
-                category.getId(),
-                changeDesc.toString(),
-                oldValue,
-                newValue
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.UPDATE,
-                user,
-                "Category",
-                category.getId(),
-                changeDesc.toString()
-            );
-        }
+        activityLogService.logChange(
+            ActionType.UPDATE,
+            user,
+            "Category",
+            category.getId(),
+            changeDesc.toString(),
+            before,
+            categoryMapper.toResponse(category)
+        );
 
         return categoryMapper.toResponse(category);
     }
 
     @Transactional
     public void deleteCategory(Long id) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
         Category category;
-        if (User.Role.ADMIN.equals(user.getRole())) {
+        if (currentUserHolder.isAdmin()) {
             category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
                     messageUtil.getMessage("category.not.found", id)));
@@ -208,26 +168,15 @@ public class CategoryService {
         }
 
         // Log activity before soft delete with old values
-        try {
-            String oldValue = objectMapper.writeValueAsString(categoryMapper.toResponse(category));
-            activityLogService.logWithValues(
-                ActionType.DELETE,
-                user,
-                "Category",
-                category.getId(),
-                String.format("Deleted category '%s' (%s)", category.getName(), category.getType()),
-                oldValue,
-                null
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.DELETE,
-                user,
-                "Category",
-                category.getId(),
-                String.format("Deleted category '%s' (%s)", category.getName(), category.getType())
-            );
-        }
+        activityLogService.logChange(
+            ActionType.DELETE,
+            user,
+            "Category",
+            category.getId(),
+            String.format("Deleted category '%s' (%s)", category.getName(), category.getType()),
+            categoryMapper.toResponse(category),
+            null
+        );
 
         // Soft delete by setting active = false
         category.setActive(false);
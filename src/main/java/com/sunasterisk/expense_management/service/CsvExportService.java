@@ -2,19 +2,28 @@ package com.sunasterisk.expense_management.service;
 
 import com.sunasterisk.expense_management.entity.*;
 import com.sunasterisk.expense_management.repository.*;
+import com.sunasterisk.expense_management.util.CsvWriter;
 import com.sunasterisk.expense_management.util.MessageUtil;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.math.BigDecimal;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for exporting data to CSV format
@@ -31,14 +40,141 @@ public class CsvExportService {
     private final BudgetRepository budgetRepository;
     private final BudgetTemplateRepository budgetTemplateRepository;
     private final MessageUtil messageUtil;
+    private final CsvMetrics csvMetrics;
+    private final EntityManager entityManager;
 
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    /**
+     * Rows read per keyset batch by expense and income exports
+     */
+    @Value("${app.export.batch-size:1000}")
+    private int batchSize;
+
+    // Rendered header rows per locale and export type, resolved once per locale
+    private final Map<String, String> headerRowCache = new ConcurrentHashMap<>();
+
+    /**
+     * Exportable data sets with their download file name and localized header keys
+     */
+    public enum ExportType {
+        USERS("users.csv",
+                "csv.user.id", "csv.user.name", "csv.user.email", "csv.user.phone", "csv.user.role",
+                "csv.user.active", "csv.user.total.expenses", "csv.user.total.incomes", "csv.user.balance",
+                "csv.user.created.at"),
+        EXPENSES("expenses.csv",
+                "csv.expense.id", "csv.expense.name", "csv.expense.amount", "csv.expense.date",
+                "csv.expense.category", "csv.expense.note", "csv.expense.user", "csv.expense.created.at"),
+        INCOMES("incomes.csv",
+                "csv.income.id", "csv.income.name", "csv.income.amount", "csv.income.date",
+                "csv.income.category", "csv.income.note", "csv.income.user", "csv.income.created.at"),
+        CATEGORIES("categories.csv",
+                "csv.category.id", "csv.category.name", "csv.category.description", "csv.category.type",
+                "csv.category.icon", "csv.category.created.at"),
+        BUDGETS("budgets.csv",
+                "csv.budget.id", "csv.budget.name", "csv.budget.amount", "csv.budget.spent", "csv.budget.remaining",
+                "csv.budget.month", "csv.budget.category", "csv.budget.user", "csv.budget.created.at"),
+        BUDGET_TEMPLATES("budget-templates.csv",
+                "csv.budget.template.id", "csv.budget.template.name", "csv.budget.template.description",
+                "csv.budget.template.items.count", "csv.budget.template.active", "csv.budget.template.created.at");
+
+        private final String fileName;
+        private final String[] headerKeys;
+
+        ExportType(String fileName, String... headerKeys) {
+            this.fileName = fileName;
+            this.headerKeys = headerKeys;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+    }
 
     /**
      * Export all users to CSV
      */
+    @Transactional(readOnly = true)
     public void exportUsers(HttpServletResponse response) throws IOException {
+        exportToResponse(ExportType.USERS, response);
+    }
+
+    /**
+     * Export all expenses to CSV
+     */
+    @Transactional(readOnly = true)
+    public void exportExpenses(HttpServletResponse response) throws IOException {
+        exportToResponse(ExportType.EXPENSES, response);
+    }
+
+    /**
+     * Export all incomes to CSV
+     */
+    @Transactional(readOnly = true)
+    public void exportIncomes(HttpServletResponse response) throws IOException {
+        exportToResponse(ExportType.INCOMES, response);
+    }
+
+    /**
+     * Export all categories to CSV
+     */
+    @Transactional(readOnly = true)
+    public void exportCategories(HttpServletResponse response) throws IOException {
+        exportToResponse(ExportType.CATEGORIES, response);
+    }
+
+    /**
+     * Export all budgets to CSV
+     */
+    @Transactional(readOnly = true)
+    public void exportBudgets(HttpServletResponse response) throws IOException {
+        exportToResponse(ExportType.BUDGETS, response);
+    }
+
+    /**
+     * Export all budget templates to CSV
+     */
+    @Transactional(readOnly = true)
+    public void exportBudgetTemplates(HttpServletResponse response) throws IOException {
+        exportToResponse(ExportType.BUDGET_TEMPLATES, response);
+    }
+
+    /**
+     * Write a full export (BOM, localized header row and data rows) to the given stream.
+     * Runs in a read-only transaction, so it can also be used outside a request thread; the exportXxx
+     * methods call it on this instance and therefore open the transaction themselves.
+     *
+     * @param type the data set to export
+     * @param out  destination stream, closed when the export completes
+     * @return number of data rows written
+     */
+    @Transactional(readOnly = true)
+    public int export(ExportType type, OutputStream out) throws IOException {
+        Timer.Sample sample = csvMetrics.start();
+        int rows;
+        try (CsvWriter writer = new CsvWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writeHeader(writer, type);
+
+            rows = switch (type) {
+                case USERS -> writeUsers(writer);
+                case EXPENSES -> writeExpenses(writer);
+                case INCOMES -> writeIncomes(writer);
+                case CATEGORIES -> writeCategories(writer);
+                case BUDGETS -> writeBudgets(writer);
+                case BUDGET_TEMPLATES -> writeBudgetTemplates(writer);
+            };
+        }
+
+        log.info("Exported {} rows of {} to CSV", rows, type);
+        csvMetrics.recordExport(sample, type, "direct", rows);
+        return rows;
+    }
+
+    private void exportToResponse(ExportType type, HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv; charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + type.getFileName() + "\"");
+        export(type, response.getOutputStream());
+    }
+
+    private int writeUsers(CsvWriter writer) throws IOException {
         List<User> users = userRepository.findAll();
 
         // Use SQL GROUP BY to sum expenses and incomes by user - much faster than filtering in Java
@@ -58,272 +194,163 @@ public class CsvExportService {
             incomesByUser.put(userId, total);
         }
 
-        response.setContentType("text/csv; charset=UTF-8");
-        response.setHeader("Content-Disposition", "attachment; filename=\"users.csv\"");
-
-        try (PrintWriter writer = response.getWriter()) {
-            // Write BOM for UTF-8
-            writer.write('\ufeff');
-
-            // Header
-            writer.println(String.join(",",
-                    escapeCSV(messageUtil.getMessage("csv.user.id")),
-                    escapeCSV(messageUtil.getMessage("csv.user.name")),
-                    escapeCSV(messageUtil.getMessage("csv.user.email")),
-                    escapeCSV(messageUtil.getMessage("csv.user.phone")),
-                    escapeCSV(messageUtil.getMessage("csv.user.role")),
-                    escapeCSV(messageUtil.getMessage("csv.user.active")),
-                    escapeCSV(messageUtil.getMessage("csv.user.total.expenses")),
-                    escapeCSV(messageUtil.getMessage("csv.user.total.incomes")),
-                    escapeCSV(messageUtil.getMessage("csv.user.balance")),
-                    escapeCSV(messageUtil.getMessage("csv.user.created.at"))
-            ));
-
-            // Data
-            for (User user : users) {
-                BigDecimal totalExpenses = expensesByUser.getOrDefault(user.getId(), BigDecimal.ZERO);
-                BigDecimal totalIncomes = incomesByUser.getOrDefault(user.getId(), BigDecimal.ZERO);
-                BigDecimal balance = totalIncomes.subtract(totalExpenses);
-
-                writer.println(String.join(",",
-                        escapeCSV(user.getId().toString()),
-                        escapeCSV(user.getName()),
-                        escapeCSV(user.getEmail()),
-                        escapeCSV(user.getPhone() != null ? user.getPhone() : ""),
-                        escapeCSV(user.getRole().name()),
-                        escapeCSV(user.getActive().toString()),
-                        escapeCSV(totalExpenses.toString()),
-                        escapeCSV(totalIncomes.toString()),
-                        escapeCSV(balance.toString()),
-                        escapeCSV(user.getCreatedAt() != null ? user.getCreatedAt().format(DATETIME_FORMATTER) : "")
-                ));
-            }
+        for (User user : users) {
+            BigDecimal totalExpenses = expensesByUser.getOrDefault(user.getId(), BigDecimal.ZERO);
+            BigDecimal totalIncomes = incomesByUser.getOrDefault(user.getId(), BigDecimal.ZERO);
+            BigDecimal balance = totalIncomes.subtract(totalExpenses);
+
+            writer.field(user.getId())
+                    .field(user.getName())
+                    .field(user.getEmail())
+                    .field(user.getPhone())
+                    .field(user.getRole())
+                    .field(user.getActive())
+                    .field(totalExpenses)
+                    .field(totalIncomes)
+                    .field(balance)
+                    .field(user.getCreatedAt())
+                    .endRow();
         }
-
-        log.info("Exported {} users to CSV", users.size());
+        return users.size();
     }
 
-    /**
-     * Export all expenses to CSV
-     */
-    public void exportExpenses(HttpServletResponse response) throws IOException {
-        List<Expense> expenses = expenseRepository.findAll();
-
-        response.setContentType("text/csv; charset=UTF-8");
-        response.setHeader("Content-Disposition", "attachment; filename=\"expenses.csv\"");
-
-        try (PrintWriter writer = response.getWriter()) {
-            writer.write('\ufeff');
-
-            // Header
-            writer.println(String.join(",",
-                    escapeCSV(messageUtil.getMessage("csv.expense.id")),
-                    escapeCSV(messageUtil.getMessage("csv.expense.name")),
-                    escapeCSV(messageUtil.getMessage("csv.expense.amount")),
-                    escapeCSV(messageUtil.getMessage("csv.expense.date")),
-                    escapeCSV(messageUtil.getMessage("csv.expense.category")),
-                    escapeCSV(messageUtil.getMessage("csv.expense.note")),
-                    escapeCSV(messageUtil.getMessage("csv.expense.user")),
-                    escapeCSV(messageUtil.getMessage("csv.expense.created.at"))
-            ));
-
-            // Data
-            for (Expense expense : expenses) {
-                writer.println(String.join(",",
-                        escapeCSV(expense.getId().toString()),
-                        escapeCSV(expense.getName()),
-                        escapeCSV(expense.getAmount().toString()),
-                        escapeCSV(expense.getExpenseDate().format(DATE_FORMATTER)),
-                        escapeCSV(expense.getCategory() != null ? expense.getCategory().getName() : ""),
-                        escapeCSV(expense.getNote() != null ? expense.getNote() : ""),
-                        escapeCSV(expense.getUser() != null ? expense.getUser().getName() : ""),
-                        escapeCSV(expense.getCreatedAt() != null ? expense.getCreatedAt().format(DATETIME_FORMATTER) : "")
-                ));
+    private int writeExpenses(CsvWriter writer) throws IOException {
+        int rows = 0;
+        long afterId = 0;
+        List<Expense> batch;
+        do {
+            batch = expenseRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(batchSize));
+            writeExpenseRows(writer, batch);
+            rows += batch.size();
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
             }
-        }
+            // Written rows are not needed anymore: keep at most one batch in the persistence context
+            entityManager.clear();
+        } while (batch.size() == batchSize);
+        return rows;
+    }
 
-        log.info("Exported {} expenses to CSV", expenses.size());
+    private int writeIncomes(CsvWriter writer) throws IOException {
+        int rows = 0;
+        long afterId = 0;
+        List<Income> batch;
+        do {
+            batch = incomeRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(batchSize));
+            writeIncomeRows(writer, batch);
+            rows += batch.size();
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+            entityManager.clear();
+        } while (batch.size() == batchSize);
+        return rows;
     }
 
     /**
-     * Export all incomes to CSV
+     * Write the BOM and the localized header row of an export
      */
-    public void exportIncomes(HttpServletResponse response) throws IOException {
-        List<Income> incomes = incomeRepository.findAll();
+    void writeHeader(CsvWriter writer, ExportType type) throws IOException {
+        writer.writeBom();
+        writer.writeRawLine(getHeaderRow(type));
+    }
 
-        response.setContentType("text/csv; charset=UTF-8");
-        response.setHeader("Content-Disposition", "attachment; filename=\"incomes.csv\"");
-
-        try (PrintWriter writer = response.getWriter()) {
-            writer.write('\ufeff');
-
-            // Header
-            writer.println(String.join(",",
-                    escapeCSV(messageUtil.getMessage("csv.income.id")),
-                    escapeCSV(messageUtil.getMessage("csv.income.name")),
-                    escapeCSV(messageUtil.getMessage("csv.income.amount")),
-                    escapeCSV(messageUtil.getMessage("csv.income.date")),
-                    escapeCSV(messageUtil.getMessage("csv.income.category")),
-                    escapeCSV(messageUtil.getMessage("csv.income.note")),
-                    escapeCSV(messageUtil.getMessage("csv.income.user")),
-                    escapeCSV(messageUtil.getMessage("csv.income.created.at"))
-            ));
-
-            // Data
-            for (Income income : incomes) {
-                writer.println(String.join(",",
-                        escapeCSV(income.getId().toString()),
-                        escapeCSV(income.getName()),
-                        escapeCSV(income.getAmount().toString()),
-                        escapeCSV(income.getIncomeDate().format(DATE_FORMATTER)),
-                        escapeCSV(income.getCategory() != null ? income.getCategory().getName() : ""),
-                        escapeCSV(income.getNote() != null ? income.getNote() : ""),
-                        escapeCSV(income.getUser() != null ? income.getUser().getName() : ""),
-                        escapeCSV(income.getCreatedAt() != null ? income.getCreatedAt().format(DATETIME_FORMATTER) : "")
-                ));
-            }
+    /**
+     * Write expense data rows; user and category must already be loaded or loadable
+     */
+    void writeExpenseRows(CsvWriter writer, List<Expense> expenses) throws IOException {
+        for (Expense expense : expenses) {
+            writer.field(expense.getId())
+                    .field(expense.getName())
+                    .field(expense.getAmount())
+                    .field(expense.getExpenseDate())
+                    .field(expense.getCategory() != null ? expense.getCategory().getName() : null)
+                    .field(expense.getNote())
+                    .field(expense.getUser() != null ? expense.getUser().getName() : null)
+                    .field(expense.getCreatedAt())
+                    .endRow();
         }
-
-        log.info("Exported {} incomes to CSV", incomes.size());
     }
 
     /**
-     * Export all categories to CSV
+     * Write income data rows; user and category must already be loaded or loadable
      */
-    public void exportCategories(HttpServletResponse response) throws IOException {
+    void writeIncomeRows(CsvWriter writer, List<Income> incomes) throws IOException {
+        for (Income income : incomes) {
+            writer.field(income.getId())
+                    .field(income.getName())
+                    .field(income.getAmount())
+                    .field(income.getIncomeDate())
+                    .field(income.getCategory() != null ? income.getCategory().getName() : null)
+                    .field(income.getNote())
+                    .field(income.getUser() != null ? income.getUser().getName() : null)
+                    .field(income.getCreatedAt())
+                    .endRow();
+        }
+    }
+
+    private int writeCategories(CsvWriter writer) throws IOException {
         List<Category> categories = categoryRepository.findAll();
 
-        response.setContentType("text/csv; charset=UTF-8");
-        response.setHeader("Content-Disposition", "attachment; filename=\"categories.csv\"");
-
-        try (PrintWriter writer = response.getWriter()) {
-            writer.write('\ufeff');
-
-            // Header
-            writer.println(String.join(",",
-                    escapeCSV(messageUtil.getMessage("csv.category.id")),
-                    escapeCSV(messageUtil.getMessage("csv.category.name")),
-                    escapeCSV(messageUtil.getMessage("csv.category.description")),
-                    escapeCSV(messageUtil.getMessage("csv.category.type")),
-                    escapeCSV(messageUtil.getMessage("csv.category.icon")),
-                    escapeCSV(messageUtil.getMessage("csv.category.created.at"))
-            ));
-
-            // Data
-            for (Category category : categories) {
-                writer.println(String.join(",",
-                        escapeCSV(category.getId().toString()),
-                        escapeCSV(category.getName()),
-                        escapeCSV(category.getDescription() != null ? category.getDescription() : ""),
-                        escapeCSV(category.getType() != null ? category.getType().name() : ""),
-                        escapeCSV(category.getIcon() != null ? category.getIcon() : ""),
-                        escapeCSV(category.getCreatedAt() != null ? category.getCreatedAt().format(DATETIME_FORMATTER) : "")
-                ));
-            }
+        for (Category category : categories) {
+            writer.field(category.getId())
+                    .field(category.getName())
+                    .field(category.getDescription())
+                    .field(category.getType())
+                    .field(category.getIcon())
+                    .field(category.getCreatedAt())
+                    .endRow();
         }
-
-        log.info("Exported {} categories to CSV", categories.size());
+        return categories.size();
     }
 
-    /**
-     * Export all budgets to CSV
-     */
-    public void exportBudgets(HttpServletResponse response) throws IOException {
+    private int writeBudgets(CsvWriter writer) throws IOException {
         List<Budget> budgets = budgetRepository.findAll();
 
-        response.setContentType("text/csv; charset=UTF-8");
-        response.setHeader("Content-Disposition", "attachment; filename=\"budgets.csv\"");
-
-        try (PrintWriter writer = response.getWriter()) {
-            writer.write('\ufeff');
-
-            // Header
-            writer.println(String.join(",",
-                    escapeCSV(messageUtil.getMessage("csv.budget.id")),
-                    escapeCSV(messageUtil.getMessage("csv.budget.name")),
-                    escapeCSV(messageUtil.getMessage("csv.budget.amount")),
-                    escapeCSV(messageUtil.getMessage("csv.budget.spent")),
-                    escapeCSV(messageUtil.getMessage("csv.budget.remaining")),
-                    escapeCSV(messageUtil.getMessage("csv.budget.month")),
-                    escapeCSV(messageUtil.getMessage("csv.budget.category")),
-                    escapeCSV(messageUtil.getMessage("csv.budget.user")),
-                    escapeCSV(messageUtil.getMessage("csv.budget.created.at"))
-            ));
-
-            // Data
-            for (Budget budget : budgets) {
-                BigDecimal spent = budget.getSpentAmount() != null ? budget.getSpentAmount() : BigDecimal.ZERO;
-                BigDecimal remaining = budget.getAmountLimit().subtract(spent);
-                String monthStr = String.format("%04d-%02d", budget.getYear(), budget.getMonth());
-
-                writer.println(String.join(",",
-                        escapeCSV(budget.getId().toString()),
-                        escapeCSV(budget.getName()),
-                        escapeCSV(budget.getAmountLimit().toString()),
-                        escapeCSV(spent.toString()),
-                        escapeCSV(remaining.toString()),
-                        escapeCSV(monthStr),
-                        escapeCSV(budget.getCategory() != null ? budget.getCategory().getName() : ""),
-                        escapeCSV(budget.getUser() != null ? budget.getUser().getName() : ""),
-                        escapeCSV(budget.getCreatedAt() != null ? budget.getCreatedAt().format(DATETIME_FORMATTER) : "")
-                ));
-            }
+        for (Budget budget : budgets) {
+            BigDecimal spent = budget.getSpentAmount() != null ? budget.getSpentAmount() : BigDecimal.ZERO;
+            BigDecimal remaining = budget.getAmountLimit().subtract(spent);
+
+            writer.field(budget.getId())
+                    .field(budget.getName())
+                    .field(budget.getAmountLimit())
+                    .field(spent)
+                    .field(remaining)
+                    .yearMonthField(budget.getYear(), budget.getMonth())
+                    .field(budget.getCategory() != null ? budget.getCategory().getName() : null)
+                    .field(budget.getUser() != null ? budget.getUser().getName() : null)
+                    .field(budget.getCreatedAt())
+                    .endRow();
         }
-
-        log.info("Exported {} budgets to CSV", budgets.size());
+        return budgets.size();
     }
 
-    /**
-     * Export all budget templates to CSV
-     */
-    public void exportBudgetTemplates(HttpServletResponse response) throws IOException {
+    private int writeBudgetTemplates(CsvWriter writer) throws IOException {
         List<BudgetTemplate> templates = budgetTemplateRepository.findAll();
 
-        response.setContentType("text/csv; charset=UTF-8");
-        response.setHeader("Content-Disposition", "attachment; filename=\"budget-templates.csv\"");
-
-        try (PrintWriter writer = response.getWriter()) {
-            writer.write('\ufeff');
-
-            // Header
-            writer.println(String.join(",",
-                    escapeCSV(messageUtil.getMessage("csv.budget.template.id")),
-                    escapeCSV(messageUtil.getMessage("csv.budget.template.name")),
-                    escapeCSV(messageUtil.getMessage("csv.budget.template.description")),
-                    escapeCSV(messageUtil.getMessage("csv.budget.template.items.count")),
-                    escapeCSV(messageUtil.getMessage("csv.budget.template.active")),
-                    escapeCSV(messageUtil.getMessage("csv.budget.template.created.at"))
-            ));
-
-            // Data
-            for (BudgetTemplate template : templates) {
-                writer.println(String.join(",",
-                        escapeCSV(template.getId().toString()),
-                        escapeCSV(template.getName()),
-                        escapeCSV(template.getDescription() != null ? template.getDescription() : ""),
-                        escapeCSV(String.valueOf(template.getItems() != null ? template.getItems().size() : 0)),
-                        escapeCSV(template.getActive().toString()),
-                        escapeCSV(template.getCreatedAt() != null ? template.getCreatedAt().format(DATETIME_FORMATTER) : "")
-                ));
-            }
+        for (BudgetTemplate template : templates) {
+            writer.field(template.getId())
+                    .field(template.getName())
+                    .field(template.getDescription())
+                    .field(template.getItems() != null ? template.getItems().size() : 0)
+                    .field(template.getActive())
+                    .field(template.getCreatedAt())
+                    .endRow();
         }
-
-        log.info("Exported {} budget templates to CSV", templates.size());
+        return templates.size();
     }
 
     /**
-     * Escape CSV values to handle commas, quotes, and newlines
+     * Get the escaped header row for the current locale, resolving the messages only once per locale
      */
-    private String escapeCSV(String value) {
-        if (value == null) {
-            return "";
-        }
-
-        // If value contains comma, quote, or newline, wrap in quotes and escape existing quotes
-        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-
-        return value;
+    private String getHeaderRow(ExportType type) {
+        String cacheKey = LocaleContextHolder.getLocale().toLanguageTag() + "|" + type.name();
+        return headerRowCache.computeIfAbsent(cacheKey, key -> {
+            String[] labels = new String[type.headerKeys.length];
+            for (int i = 0; i < type.headerKeys.length; i++) {
+                labels[i] = messageUtil.getMessage(type.headerKeys[i]);
+            }
+            return CsvWriter.formatRow(labels);
+        });
     }
 }
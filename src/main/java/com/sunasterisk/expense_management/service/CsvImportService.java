@@ -4,7 +4,9 @@ import com.sunasterisk.expense_management.dto.csv.CsvImportResult;
 import com.sunasterisk.expense_management.entity.*;
 import com.sunasterisk.expense_management.entity.Category.CategoryType;
 import com.sunasterisk.expense_management.repository.*;
+import com.sunasterisk.expense_management.security.PrincipalCache;
 import com.sunasterisk.expense_management.util.MessageUtil;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -36,7 +38,10 @@ public class CsvImportService {
     private final CategoryRepository categoryRepository;
     private final BudgetRepository budgetRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
     private final MessageUtil messageUtil;
+    private final CsvMetrics csvMetrics;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final String DEFAULT_PASSWORD = "Password123!"; // Default password for imported users
@@ -47,6 +52,7 @@ public class CsvImportService {
      * Logic: If ID exists -> update, otherwise -> create new
      */
     public CsvImportResult importUsers(MultipartFile file) throws Exception {
+        Timer.Sample sample = csvMetrics.start();
         validateFile(file);
 
         List<String> lines = readCsvFile(file);
@@ -91,8 +97,13 @@ public class CsvImportService {
                             } catch (IllegalArgumentException e) {
                                 user.setRole(User.Role.USER);
                             }
+                            boolean wasActive = Boolean.TRUE.equals(user.getActive());
                             user.setActive(Boolean.parseBoolean(activeStr));
                             userRepository.save(user);
+                            principalCache.invalidate(user.getId());
+                            if (wasActive && !user.getActive()) {
+                                tokenRevocationService.revokeAllForUser(user.getId());
+                            }
                             result.setSuccessCount(result.getSuccessCount() + 1);
                             continue;
                         }
@@ -133,6 +144,7 @@ public class CsvImportService {
 
         log.info("Imported {} users from CSV ({} success, {} errors)",
                 lines.size() - 1, result.getSuccessCount(), result.getErrorCount());
+        csvMetrics.recordImport(sample, "users", result);
         return result;
     }
 
@@ -142,6 +154,7 @@ public class CsvImportService {
      * Logic: If ID exists -> update, otherwise -> create new
      */
     public CsvImportResult importExpenses(MultipartFile file) throws Exception {
+        Timer.Sample sample = csvMetrics.start();
         validateFile(file);
 
         List<String> lines = readCsvFile(file);
@@ -232,6 +245,7 @@ public class CsvImportService {
 
         log.info("Imported {} expenses from CSV ({} success, {} errors)",
                 lines.size() - 1, result.getSuccessCount(), result.getErrorCount());
+        csvMetrics.recordImport(sample, "expenses", result);
         return result;
     }
 
@@ -241,6 +255,7 @@ public class CsvImportService {
      * Logic: If ID exists -> update, otherwise -> create new
      */
     public CsvImportResult importIncomes(MultipartFile file) throws Exception {
+        Timer.Sample sample = csvMetrics.start();
         validateFile(file);
 
         List<String> lines = readCsvFile(file);
@@ -329,6 +344,7 @@ public class CsvImportService {
 
         log.info("Imported {} incomes from CSV ({} success, {} errors)",
                 lines.size() - 1, result.getSuccessCount(), result.getErrorCount());
+        csvMetrics.recordImport(sample, "incomes", result);
         return result;
     }
 
@@ -338,6 +354,7 @@ public class CsvImportService {
      * Logic: If ID exists -> update, otherwise -> create new
      */
     public CsvImportResult importCategories(MultipartFile file) {
+        Timer.Sample sample = csvMetrics.start();
         CsvImportResult result = CsvImportResult.builder()
                 .totalRows(0)
                 .build();
@@ -435,6 +452,7 @@ public class CsvImportService {
 
             log.info("Imported {} categories from CSV ({} success, {} errors)",
                     lines.size() - 1, result.getSuccessCount(), result.getErrorCount());
+            csvMetrics.recordImport(sample, "categories", result);
             return result;
 
         } catch (Throwable e) {
@@ -450,6 +468,7 @@ public class CsvImportService {
      * Logic: If ID exists -> update, otherwise -> create new
      */
     public CsvImportResult importBudgets(MultipartFile file) throws Exception {
+        Timer.Sample sample = csvMetrics.start();
         validateFile(file);
 
         List<String> lines = readCsvFile(file);
@@ -541,6 +560,7 @@ public class CsvImportService {
 
         log.info("Imported {} budgets from CSV ({} success, {} errors)",
                 lines.size() - 1, result.getSuccessCount(), result.getErrorCount());
+        csvMetrics.recordImport(sample, "budgets", result);
         return result;
     }
 
@@ -0,0 +1,67 @@
+package com.sunasterisk.expense_management.service;
+
+import com.sunasterisk.expense_management.dto.csv.CsvImportResult;
+import com.sunasterisk.expense_management.service.CsvExportService.ExportType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Duration and row metrics for CSV imports and exports.
+ * Throughput (rows/sec) is the rate of the row counters; the timers give the per-run duration.
+ */
+@Component
+public class CsvMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public CsvMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Record a finished import of the given entity (users, expenses, ...)
+     */
+    public void recordImport(Timer.Sample sample, String entity, CsvImportResult result) {
+        sample.stop(Timer.builder("app.csv.import")
+                .description("CSV import duration")
+                .tag("entity", entity)
+                .register(meterRegistry));
+        importedRows(entity, "success").increment(result.getSuccessCount());
+        importedRows(entity, "error").increment(result.getErrorCount());
+    }
+
+    /**
+     * Record a finished export
+     *
+     * @param mode direct (single query) or partitioned (parallel ID ranges)
+     */
+    public void recordExport(Timer.Sample sample, ExportType type, String mode, int rows) {
+        String typeTag = type.name().toLowerCase(Locale.ROOT);
+        sample.stop(Timer.builder("app.csv.export")
+                .description("CSV export duration")
+                .tag("type", typeTag)
+                .tag("mode", mode)
+                .register(meterRegistry));
+        Counter.builder("app.csv.export.rows")
+                .baseUnit("rows")
+                .tag("type", typeTag)
+                .register(meterRegistry)
+                .increment(rows);
+    }
+
+    private Counter importedRows(String entity, String result) {
+        return Counter.builder("app.csv.import.rows")
+                .baseUnit("rows")
+                .tag("entity", entity)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -1,12 +1,14 @@
 package com.sunasterisk.expense_management.service;
 
+import com.sunasterisk.expense_management.config.RetryOnConflict;
+import com.sunasterisk.expense_management.dto.CursorPageResponse;
 import com.sunasterisk.expense_management.dto.PageResponse;
 import com.sunasterisk.expense_management.dto.expense.ExpenseFilterRequest;
 import com.sunasterisk.expense_management.dto.expense.ExpenseRequest;
 import com.sunasterisk.expense_management.dto.expense.ExpenseResponse;
 import com.sunasterisk.expense_management.entity.ActivityLog.ActionType;
-import com.sunasterisk.expense_management.entity.Category;
 import com.sunasterisk.expense_management.entity.Category.CategoryType;
+import com.sunasterisk.expense_management.entity.Category;
 import com.sunasterisk.expense_management.entity.Expense;
 import com.sunasterisk.expense_management.entity.User;
 import com.sunasterisk.expense_management.exception.ResourceNotFoundException;
@@ -14,17 +16,18 @@ import com.sunasterisk.expense_management.mapper.ExpenseMapper;
 import com.sunasterisk.expense_management.repository.BudgetRepository;
 import com.sunasterisk.expense_management.repository.CategoryRepository;
 import com.sunasterisk.expense_management.repository.ExpenseRepository;
-import com.sunasterisk.expense_management.repository.UserRepository;
 import com.sunasterisk.expense_management.repository.specification.ExpenseSpecification;
+import com.sunasterisk.expense_management.service.alert.BudgetAlertEvaluator;
+import com.sunasterisk.expense_management.util.CurrentUserHolder;
+import com.sunasterisk.expense_management.util.KeysetPager;
 import com.sunasterisk.expense_management.util.MessageUtil;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,41 +36,39 @@ public class ExpenseService {
 
     private final ExpenseRepository expenseRepository;
     private final CategoryRepository categoryRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserHolder currentUserHolder;
     private final BudgetRepository budgetRepository;
     private final ExpenseMapper expenseMapper;
     private final MessageUtil messageUtil;
     private final ActivityLogService activityLogService;
-    private final ObjectMapper objectMapper;
+    private final BudgetAlertEvaluator budgetAlertEvaluator;
+    private final Timer budgetRecalculationTimer;
 
     public ExpenseService(ExpenseRepository expenseRepository,
                           CategoryRepository categoryRepository,
-                          UserRepository userRepository,
+                          CurrentUserHolder currentUserHolder,
                           BudgetRepository budgetRepository,
                           ExpenseMapper expenseMapper,
                           MessageUtil messageUtil,
                           ActivityLogService activityLogService,
-                          ObjectMapper objectMapper) {
+                          BudgetAlertEvaluator budgetAlertEvaluator,
+                          MeterRegistry meterRegistry) {
         this.expenseRepository = expenseRepository;
         this.categoryRepository = categoryRepository;
-        this.userRepository = userRepository;
+        this.currentUserHolder = currentUserHolder;
         this.budgetRepository = budgetRepository;
         this.expenseMapper = expenseMapper;
         this.messageUtil = messageUtil;
         this.activityLogService = activityLogService;
-        this.objectMapper = objectMapper;
-    }
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException(messageUtil.getMessage("user.not.found")));
+        this.budgetAlertEvaluator = budgetAlertEvaluator;
+        this.budgetRecalculationTimer = Timer.builder("app.budget.recalculation")
+                .description("Time to apply an expense change to a budget's spent amount")
+                .register(meterRegistry);
     }
 
     @Transactional(readOnly = true)
     public PageResponse<ExpenseResponse> getExpenses(ExpenseFilterRequest filter) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         Sort sort = filter.getSortDir().equalsIgnoreCase("asc")
                 ? Sort.by(filter.getSortBy()).ascending()
@@ -92,9 +93,30 @@ public class ExpenseService {
         return PageResponse.fromPage(responsePage);
     }
 
+    /**
+     * Keyset-paginated expenses of the current user (newest first); sortBy/sortDir are not used
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ExpenseResponse> getExpensesByCursor(ExpenseFilterRequest filter) {
+        User user = currentUserHolder.getCurrentUserOrThrow();
+
+        Specification<Expense> spec = ExpenseSpecification.withFilters(
+                user,
+                filter.getName(),
+                filter.getCategoryId(),
+                filter.getStartDate(),
+                filter.getEndDate(),
+                filter.getMinAmount(),
+                filter.getMaxAmount()
+        );
+
+        return KeysetPager.fetch(expenseRepository, spec, filter.getCursor(), filter.getSize(),
+                Expense::getCreatedAt, Expense::getId, expenseMapper::toResponse, "category");
+    }
+
     @Transactional(readOnly = true)
     public ExpenseResponse getExpenseById(Long id) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
         Expense expense = expenseRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         messageUtil.getMessage("expense.not.found", id)));
@@ -102,8 +124,9 @@ public class ExpenseService {
     }
 
     @Transactional
+    @RetryOnConflict
     public ExpenseResponse createExpense(ExpenseRequest request) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         Category category = categoryRepository.findByIdAndActiveTrue(request.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -120,37 +143,26 @@ public class ExpenseService {
         expense = expenseRepository.save(expense);
 
         // Log activity with new values
-        try {
-            String newValue = objectMapper.writeValueAsString(expenseMapper.toResponse(expense));
-            activityLogService.logWithValues(
-                ActionType.CREATE,
-                user,
-                "Expense",
-                expense.getId(),
-                String.format("Created expense '%s' with amount %.2f", expense.getName(), expense.getAmount()),
-                null,
-                newValue
-            );
-        } catch (Exception e) {
-            // Fallback to simple log if JSON serialization fails
-            activityLogService.log(
-                ActionType.CREATE,
-                user,
-                "Expense",
-                expense.getId(),
-                String.format("Created expense '%s' with amount %.2f", expense.getName(), expense.getAmount())
-            );
-        }
+        activityLogService.logChange(
+            ActionType.CREATE,
+            user,
+            "Expense",
+            expense.getId(),
+            String.format("Created expense '%s' with amount %.2f", expense.getName(), expense.getAmount()),
+            null,
+            expenseMapper.toResponse(expense)
+        );
 
-        // Update budget's spentAmount
-        updateBudgetSpentAmount(user.getId(), category.getId(), expense.getExpenseDate());
+        // Add the amount to the budget's spentAmount
+        applyBudgetSpentDelta(user.getId(), category.getId(), expense.getExpenseDate(), expense.getAmount());
 
         return expenseMapper.toResponse(expense);
     }
 
     @Transactional
+    @RetryOnConflict
     public ExpenseResponse updateExpense(Long id, ExpenseRequest request) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         Expense expense = expenseRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -167,12 +179,8 @@ public class ExpenseService {
         // Keep track of old values for budget update and logging
         Long oldCategoryId = expense.getCategory().getId();
         java.time.LocalDate oldDate = expense.getExpenseDate();
-        String oldValue = null;
-        try {
-            oldValue = objectMapper.writeValueAsString(expenseMapper.toResponse(expense));
-        } catch (Exception e) {
-            // Ignore serialization errors
-        }
+        java.math.BigDecimal oldAmount = expense.getAmount();
+        ExpenseResponse before = expenseMapper.toResponse(expense);
 
         expenseMapper.updateEntity(request, expense);
         expense.setCategory(category);
@@ -184,34 +192,18 @@ public class ExpenseService {
         changeDesc.append(expense.getName());
 
         // Log activity with old and new values
-        try {
-            String newValue = objectMapper.writeValueAsString(expenseMapper.toResponse(expense));
-            activityLogService.logWithValues(
-                ActionType.UPDATE,
-                user,
-                "Expense",
-                expense.getId(),
-                changeDesc.toString(),
-                oldValue,
-                newValue
-            );
-        } catch (Exception e) {
-            // Fallback to simple log if JSON serialization fails
-            activityLogService.log(
-                ActionType.UPDATE,
-                user,
-                "Expense",
-                expense.getId(),
-                changeDesc.toString()
-            );
-        }
+        activityLogService.logChange(
+            ActionType.UPDATE,
+            user,
+            "Expense",
+            expense.getId(),
+            changeDesc.toString(),
+            before,
+            expenseMapper.toResponse(expense)
+        );
 
-        // Update budget's spentAmount for both old and new category/date
-        updateBudgetSpentAmount(user.getId(), oldCategoryId, oldDate);
-        if (!oldCategoryId.equals(category.getId()) ||
-            !java.time.YearMonth.from(oldDate).equals(java.time.YearMonth.from(expense.getExpenseDate()))) {
-            updateBudgetSpentAmount(user.getId(), category.getId(), expense.getExpenseDate());
-        }
+        // Move the amount between budgets (or apply the difference to the same budget)
+        applyBudgetSpentChange(user.getId(), oldCategoryId, oldDate, oldAmount, expense);
 
         return expenseMapper.toResponse(expense);
     }
@@ -220,6 +212,7 @@ public class ExpenseService {
      * Internal method to update expense - can be called by admin service
      */
     @Transactional
+    @RetryOnConflict
     public ExpenseResponse updateExpenseInternal(Long id, ExpenseRequest request, User actingUser) {
         Expense expense = expenseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -233,13 +226,11 @@ public class ExpenseService {
             throw new IllegalArgumentException(messageUtil.getMessage("category.invalid.type.expense"));
         }
 
-        // Keep old values for logging
-        String oldValue = null;
-        try {
-            oldValue = objectMapper.writeValueAsString(expenseMapper.toResponse(expense));
-        } catch (Exception e) {
-            // Ignore
-        }
+        // Keep old values for budget update and logging
+        Long oldCategoryId = expense.getCategory().getId();
+        java.time.LocalDate oldDate = expense.getExpenseDate();
+        java.math.BigDecimal oldAmount = expense.getAmount();
+        ExpenseResponse before = expenseMapper.toResponse(expense);
 
         expenseMapper.updateEntity(request, expense);
         expense.setCategory(category);
@@ -247,33 +238,25 @@ public class ExpenseService {
         expense = expenseRepository.save(expense);
 
         // Log activity
-        try {
-            String newValue = objectMapper.writeValueAsString(expenseMapper.toResponse(expense));
-            activityLogService.logWithValues(
-                ActionType.UPDATE,
-                actingUser,
-                "Expense",
-                expense.getId(),
-                "Updated expense: " + expense.getName(),
-                oldValue,
-                newValue
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.UPDATE,
-                actingUser,
-                "Expense",
-                expense.getId(),
-                "Updated expense: " + expense.getName()
-            );
-        }
+        activityLogService.logChange(
+            ActionType.UPDATE,
+            actingUser,
+            "Expense",
+            expense.getId(),
+            "Updated expense: " + expense.getName(),
+            before,
+            expenseMapper.toResponse(expense)
+        );
+
+        applyBudgetSpentChange(expense.getUser().getId(), oldCategoryId, oldDate, oldAmount, expense);
 
         return expenseMapper.toResponse(expense);
     }
 
     @Transactional
+    @RetryOnConflict
     public void deleteExpense(Long id) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         Expense expense = expenseRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -281,113 +264,133 @@ public class ExpenseService {
 
         Long categoryId = expense.getCategory().getId();
         java.time.LocalDate expenseDate = expense.getExpenseDate();
+        java.math.BigDecimal amount = expense.getAmount();
 
         // Log activity before deletion with old values
-        try {
-            String oldValue = objectMapper.writeValueAsString(expenseMapper.toResponse(expense));
-            activityLogService.logWithValues(
-                ActionType.DELETE,
-                user,
-                "Expense",
-                expense.getId(),
-                String.format("Deleted expense '%s' with amount %.2f", expense.getName(), expense.getAmount()),
-                oldValue,
-                null
-            );
-        } catch (Exception e) {
-            // Fallback to simple log if JSON serialization fails
-            activityLogService.log(
-                ActionType.DELETE,
-                user,
-                "Expense",
-                expense.getId(),
-                String.format("Deleted expense '%s' with amount %.2f", expense.getName(), expense.getAmount())
-            );
-        }
+        activityLogService.logChange(
+            ActionType.DELETE,
+            user,
+            "Expense",
+            expense.getId(),
+            String.format("Deleted expense '%s' with amount %.2f", expense.getName(), expense.getAmount()),
+            expenseMapper.toResponse(expense),
+            null
+        );
 
         expenseRepository.delete(expense);
 
-        // Update budget's spentAmount after deletion
-        updateBudgetSpentAmount(user.getId(), categoryId, expenseDate);
+        // Subtract the amount from the budget's spentAmount
+        applyBudgetSpentDelta(user.getId(), categoryId, expenseDate, amount.negate());
     }
 
     /**
      * Internal method to delete expense - can be called by admin service
      */
     @Transactional
+    @RetryOnConflict
     public void deleteExpenseInternal(Long id, User actingUser) {
         Expense expense = expenseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         messageUtil.getMessage("expense.not.found", id)));
 
         // Log activity before deletion
-        try {
-            String oldValue = objectMapper.writeValueAsString(expenseMapper.toResponse(expense));
-            activityLogService.logWithValues(
-                ActionType.DELETE,
-                actingUser,
-                "Expense",
-                expense.getId(),
-                "Deleted expense: " + expense.getName(),
-                oldValue,
-                null
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.DELETE,
-                actingUser,
-                "Expense",
-                expense.getId(),
-                "Deleted expense: " + expense.getName()
-            );
-        }
+        activityLogService.logChange(
+            ActionType.DELETE,
+            actingUser,
+            "Expense",
+            expense.getId(),
+            "Deleted expense: " + expense.getName(),
+            expenseMapper.toResponse(expense),
+            null
+        );
 
         expenseRepository.delete(expense);
+        applyBudgetSpentDelta(expense.getUser().getId(), expense.getCategory().getId(),
+                expense.getExpenseDate(), expense.getAmount().negate());
+    }
+
+    /**
+     * Apply an expense update to budgets: the difference to the same budget when category and month
+     * are unchanged, otherwise remove the old amount from the old budget and add the new one to the new budget
+     */
+    private void applyBudgetSpentChange(Long userId, Long oldCategoryId, java.time.LocalDate oldDate,
+                                        java.math.BigDecimal oldAmount, Expense updated) {
+        java.time.YearMonth oldMonth = java.time.YearMonth.from(oldDate);
+        java.time.YearMonth newMonth = java.time.YearMonth.from(updated.getExpenseDate());
+        Long newCategoryId = updated.getCategory().getId();
+        if (oldCategoryId.equals(newCategoryId) && oldMonth.equals(newMonth)) {
+            applyBudgetSpentDeltas(userId, java.util.List.of(
+                    new SpentDelta(oldCategoryId, oldMonth, updated.getAmount().subtract(oldAmount))));
+        } else {
+            applyBudgetSpentDeltas(userId, java.util.List.of(
+                    new SpentDelta(oldCategoryId, oldMonth, oldAmount.negate()),
+                    new SpentDelta(newCategoryId, newMonth, updated.getAmount())));
+        }
     }
 
     /**
-     * Update budget's spentAmount for given category and time period
+     * Add a signed delta to the spentAmount of the category budget and the overall budget for given time period
      * This is called automatically when expense is created/updated/deleted
      *
-     * Transaction & Concurrency Handling:
-     * - This method runs within a @Transactional context from calling methods
-     * - If any exception occurs (including OptimisticLockException), the entire transaction rolls back
-     * - When updating expense affects 2 budgets (old and new), both updates are atomic:
-     *   * If new budget update fails, old budget update is also rolled back
-     *   * This prevents partial state where only one budget is updated
-     *
-     * Optimistic Locking:
-     * - Budget entity uses @Version for optimistic locking
-     * - If concurrent updates occur, one will fail with OptimisticLockException
-     * - The failed transaction will rollback completely, ensuring data consistency
-     * - Client should retry the operation in case of OptimisticLockException
-     *
      * @param userId The user ID
      * @param categoryId The category ID
      * @param date The expense date (used to determine year/month)
-     * @throws jakarta.persistence.OptimisticLockException if concurrent update detected
+     * @param delta Signed amount to add (negative to subtract)
+     */
+    private void applyBudgetSpentDelta(Long userId, Long categoryId, java.time.LocalDate date, java.math.BigDecimal delta) {
+        applyBudgetSpentDeltas(userId, java.util.List.of(new SpentDelta(categoryId, java.time.YearMonth.from(date), delta)));
+    }
+
+    /**
+     * Apply spent-amount deltas of one expense write to the category budgets and the overall budgets
+     *
+     * Transaction & Concurrency Handling:
+     * - Atomic UPDATEs (spent_amount = spent_amount + delta): no read of the budget and no
+     *   re-sum of the month's expenses, so the cost does not grow with the number of expenses
+     * - Runs within the calling @Transactional method, so the deltas commit or roll back with the expense
+     * - Concurrent expense writes on the same budget serialize on the row lock instead of failing;
+     *   the version is not touched, so they never conflict with an edit of the budget either
+     * - Rows are always locked in the same order, so two writes cannot deadlock on each other: category
+     *   budgets first, by category and month, then the overall budgets by month, each with the net delta
+     *   of its month (a move between categories in the same month leaves the overall budget untouched)
+     * - Deadlocks or lock wait timeouts that still occur are retried by @RetryOnConflict
+     * - Alert thresholds are evaluated after all increments, in the same transaction (BudgetAlertEvaluator)
+     * - Any drift (e.g. expenses imported or changed outside this service) is corrected by
+     *   BudgetSpentReconciler
+     */
+    private void applyBudgetSpentDeltas(Long userId, java.util.List<SpentDelta> deltas) {
+        Timer.Sample sample = Timer.start();
+        java.util.List<SpentDelta> changes = deltas.stream()
+                .filter(change -> change.delta().signum() != 0)
+                .sorted(java.util.Comparator.comparing(SpentDelta::categoryId).thenComparing(SpentDelta::month))
+                .toList();
+
+        java.util.Map<java.time.YearMonth, java.math.BigDecimal> overallDeltas = new java.util.TreeMap<>();
+        int updated = 0;
+        for (SpentDelta change : changes) {
+            updated += budgetRepository.addToCategorySpentAmount(userId, change.categoryId(),
+                    change.month().getYear(), change.month().getMonthValue(), change.delta());
+            overallDeltas.merge(change.month(), change.delta(), java.math.BigDecimal::add);
+        }
+        for (java.util.Map.Entry<java.time.YearMonth, java.math.BigDecimal> overall : overallDeltas.entrySet()) {
+            if (overall.getValue().signum() != 0) {
+                updated += budgetRepository.addToOverallSpentAmount(userId,
+                        overall.getKey().getYear(), overall.getKey().getMonthValue(), overall.getValue());
+            }
+        }
+
+        if (updated > 0) {
+            for (SpentDelta change : changes) {
+                budgetAlertEvaluator.onSpentAmountChanged(userId, change.categoryId(),
+                        change.month().getYear(), change.month().getMonthValue(), change.delta());
+            }
+        }
+        sample.stop(budgetRecalculationTimer);
+    }
+
+    /**
+     * Signed change of the amount spent in a category and month
      */
-    private void updateBudgetSpentAmount(Long userId, Long categoryId, java.time.LocalDate date) {
-        java.time.YearMonth yearMonth = java.time.YearMonth.from(date);
-
-        budgetRepository.findByUser_IdAndCategory_IdAndYearAndMonth(
-                userId,
-                categoryId,
-                yearMonth.getYear(),
-                yearMonth.getMonthValue()
-        ).ifPresent(budget -> {
-            // Calculate total spent for this budget period
-            java.math.BigDecimal totalSpent = expenseRepository.sumByUserAndCategoryAndYearMonth(
-                    userId,
-                    categoryId,
-                    yearMonth.getYear(),
-                    yearMonth.getMonthValue()
-            );
-
-            budget.setSpentAmount(totalSpent != null ? totalSpent : java.math.BigDecimal.ZERO);
-            budgetRepository.save(budget);
-            // @Version field is automatically incremented on save
-            // If another transaction modified this budget, OptimisticLockException is thrown
-        });
+    private record SpentDelta(Long categoryId, java.time.YearMonth month, java.math.BigDecimal delta) {
     }
 }
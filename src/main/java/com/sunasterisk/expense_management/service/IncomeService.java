@@ -1,29 +1,28 @@
 package com.sunasterisk.expense_management.service;
 
+import com.sunasterisk.expense_management.dto.CursorPageResponse;
 import com.sunasterisk.expense_management.dto.PageResponse;
 import com.sunasterisk.expense_management.dto.income.IncomeFilterRequest;
 import com.sunasterisk.expense_management.dto.income.IncomeRequest;
 import com.sunasterisk.expense_management.dto.income.IncomeResponse;
 import com.sunasterisk.expense_management.entity.ActivityLog.ActionType;
-import com.sunasterisk.expense_management.entity.Category;
 import com.sunasterisk.expense_management.entity.Category.CategoryType;
+import com.sunasterisk.expense_management.entity.Category;
 import com.sunasterisk.expense_management.entity.Income;
 import com.sunasterisk.expense_management.entity.User;
 import com.sunasterisk.expense_management.exception.ResourceNotFoundException;
 import com.sunasterisk.expense_management.mapper.IncomeMapper;
 import com.sunasterisk.expense_management.repository.CategoryRepository;
 import com.sunasterisk.expense_management.repository.IncomeRepository;
-import com.sunasterisk.expense_management.repository.UserRepository;
 import com.sunasterisk.expense_management.repository.specification.IncomeSpecification;
+import com.sunasterisk.expense_management.util.CurrentUserHolder;
+import com.sunasterisk.expense_management.util.KeysetPager;
 import com.sunasterisk.expense_management.util.MessageUtil;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,38 +31,28 @@ public class IncomeService {
 
     private final IncomeRepository incomeRepository;
     private final CategoryRepository categoryRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserHolder currentUserHolder;
     private final MessageUtil messageUtil;
     private final IncomeMapper incomeMapper;
     private final ActivityLogService activityLogService;
-    private final ObjectMapper objectMapper;
 
     public IncomeService(IncomeRepository incomeRepository,
                          CategoryRepository categoryRepository,
-                         UserRepository userRepository,
+                         CurrentUserHolder currentUserHolder,
                          MessageUtil messageUtil,
                          IncomeMapper incomeMapper,
-                         ActivityLogService activityLogService,
-                         ObjectMapper objectMapper) {
+                         ActivityLogService activityLogService) {
         this.incomeRepository = incomeRepository;
         this.categoryRepository = categoryRepository;
-        this.userRepository = userRepository;
+        this.currentUserHolder = currentUserHolder;
         this.messageUtil = messageUtil;
         this.incomeMapper = incomeMapper;
         this.activityLogService = activityLogService;
-        this.objectMapper = objectMapper;
-    }
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException(messageUtil.getMessage("user.not.found")));
     }
 
     @Transactional(readOnly = true)
     public PageResponse<IncomeResponse> getIncomes(IncomeFilterRequest filter) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         Sort sort = filter.getSortDir().equalsIgnoreCase("asc")
                 ? Sort.by(filter.getSortBy()).ascending()
@@ -88,9 +77,30 @@ public class IncomeService {
         return PageResponse.fromPage(responsePage);
     }
 
+    /**
+     * Keyset-paginated incomes of the current user (newest first); sortBy/sortDir are not used
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<IncomeResponse> getIncomesByCursor(IncomeFilterRequest filter) {
+        User user = currentUserHolder.getCurrentUserOrThrow();
+
+        Specification<Income> spec = IncomeSpecification.withFilters(
+                user,
+                filter.getName(),
+                filter.getCategoryId(),
+                filter.getStartDate(),
+                filter.getEndDate(),
+                filter.getMinAmount(),
+                filter.getMaxAmount()
+        );
+
+        return KeysetPager.fetch(incomeRepository, spec, filter.getCursor(), filter.getSize(),
+                Income::getCreatedAt, Income::getId, incomeMapper::toResponse, "category");
+    }
+
     @Transactional(readOnly = true)
     public IncomeResponse getIncomeById(Long id) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
         Income income = incomeRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         messageUtil.getMessage("income.not.found", id)));
@@ -99,7 +109,7 @@ public class IncomeService {
 
     @Transactional
     public IncomeResponse createIncome(IncomeRequest request) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         Category category = categoryRepository.findByIdAndActiveTrue(request.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -116,33 +126,22 @@ public class IncomeService {
         income = incomeRepository.save(income);
 
         // Log activity with new values
-        try {
-            String newValue = objectMapper.writeValueAsString(incomeMapper.toResponse(income));
-            activityLogService.logWithValues(
-                ActionType.CREATE,
-                user,
-                "Income",
-                income.getId(),
-                String.format("Created income '%s' with amount %.2f", income.getName(), income.getAmount()),
-                null,
-                newValue
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.CREATE,
-                user,
-                "Income",
-                income.getId(),
-                String.format("Created income '%s' with amount %.2f", income.getName(), income.getAmount())
-            );
-        }
+        activityLogService.logChange(
+            ActionType.CREATE,
+            user,
+            "Income",
+            income.getId(),
+            String.format("Created income '%s' with amount %.2f", income.getName(), income.getAmount()),
+            null,
+            incomeMapper.toResponse(income)
+        );
 
         return incomeMapper.toResponse(income);
     }
 
     @Transactional
     public IncomeResponse updateIncome(Long id, IncomeRequest request) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         Income income = incomeRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -156,12 +155,7 @@ public class IncomeService {
         }
 
         // Keep old value for logging
-        String oldValue = null;
-        try {
-            oldValue = objectMapper.writeValueAsString(incomeMapper.toResponse(income));
-        } catch (Exception e) {
-            // Ignore
-        }
+        IncomeResponse before = incomeMapper.toResponse(income);
 
         incomeMapper.updateEntity(request, income);
         income.setCategory(category);
@@ -173,26 +167,15 @@ public class IncomeService {
         changeDesc.append(income.getName());
 
         // Log activity with old and new values
-        try {
-            String newValue = objectMapper.writeValueAsString(incomeMapper.toResponse(income));
-            activityLogService.logWithValues(
-                ActionType.UPDATE,
-                user,
-                "Income",
-                income.getId(),
-                changeDesc.toString(),
-                oldValue,
-                newValue
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.UPDATE,
-                user,
-                "Income",
-                income.getId(),
-                changeDesc.toString()
-            );
-        }
+        activityLogService.logChange(
+            ActionType.UPDATE,
+            user,
+            "Income",
+            income.getId(),
+            changeDesc.toString(),
+            before,
+            incomeMapper.toResponse(income)
+        );
 
         return incomeMapper.toResponse(income);
     }
@@ -215,12 +198,7 @@ public class IncomeService {
         }
 
         // Keep old value for logging
-        String oldValue = null;
-        try {
-            oldValue = objectMapper.writeValueAsString(incomeMapper.toResponse(income));
-        } catch (Exception e) {
-            // Ignore
-        }
+        IncomeResponse before = incomeMapper.toResponse(income);
 
         incomeMapper.updateEntity(request, income);
         income.setCategory(category);
@@ -228,59 +206,37 @@ public class IncomeService {
         income = incomeRepository.save(income);
 
         // Log activity
-        try {
-            String newValue = objectMapper.writeValueAsString(incomeMapper.toResponse(income));
-            activityLogService.logWithValues(
-                ActionType.UPDATE,
-                actingUser,
-                "Income",
-                income.getId(),
-                "Updated income: " + income.getName(),
-                oldValue,
-                newValue
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.UPDATE,
-                actingUser,
-                "Income",
-                income.getId(),
-                "Updated income: " + income.getName()
-            );
-        }
+        activityLogService.logChange(
+            ActionType.UPDATE,
+            actingUser,
+            "Income",
+            income.getId(),
+            "Updated income: " + income.getName(),
+            before,
+            incomeMapper.toResponse(income)
+        );
 
         return incomeMapper.toResponse(income);
     }
 
     @Transactional
     public void deleteIncome(Long id) {
-        User user = getCurrentUser();
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         Income income = incomeRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         messageUtil.getMessage("income.not.found", id)));
 
         // Log activity before deletion with old values
-        try {
-            String oldValue = objectMapper.writeValueAsString(incomeMapper.toResponse(income));
-            activityLogService.logWithValues(
-                ActionType.DELETE,
-                user,
-                "Income",
-                income.getId(),
-                String.format("Deleted income '%s' with amount %.2f", income.getName(), income.getAmount()),
-                oldValue,
-                null
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.DELETE,
-                user,
-                "Income",
-                income.getId(),
-                String.format("Deleted income '%s' with amount %.2f", income.getName(), income.getAmount())
-            );
-        }
+        activityLogService.logChange(
+            ActionType.DELETE,
+            user,
+            "Income",
+            income.getId(),
+            String.format("Deleted income '%s' with amount %.2f", income.getName(), income.getAmount()),
+            incomeMapper.toResponse(income),
+            null
+        );
 
         incomeRepository.delete(income);
     }
@@ -295,26 +251,15 @@ public class IncomeService {
                         messageUtil.getMessage("income.not.found", id)));
 
         // Log activity before deletion
-        try {
-            String oldValue = objectMapper.writeValueAsString(incomeMapper.toResponse(income));
-            activityLogService.logWithValues(
-                ActionType.DELETE,
-                actingUser,
-                "Income",
-                income.getId(),
-                "Deleted income: " + income.getName(),
-                oldValue,
-                null
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.DELETE,
-                actingUser,
-                "Income",
-                income.getId(),
-                "Deleted income: " + income.getName()
-            );
-        }
+        activityLogService.logChange(
+            ActionType.DELETE,
+            actingUser,
+            "Income",
+            income.getId(),
+            "Deleted income: " + income.getName(),
+            incomeMapper.toResponse(income),
+            null
+        );
 
         incomeRepository.delete(income);
     }
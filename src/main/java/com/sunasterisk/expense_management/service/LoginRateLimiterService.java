@@ -1,33 +1,48 @@
 package com.sunasterisk.expense_management.service;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sunasterisk.expense_management.security.ratelimit.RateLimitBucketStore;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import java.util.Locale;
 
 /**
  * Service to handle rate limiting for login attempts
- * Uses Bucket4j token bucket algorithm with Caffeine cache
+ * Uses Bucket4j token bucket algorithm, with buckets kept in a pluggable {@link RateLimitBucketStore}
+ * (node-local by default, or shared through the database).
+ * Attempts are limited per client IP and, independently, per account (email),
+ * so distributing attempts over many IPs does not bypass the limit on one account.
  */
 @Service
 public class LoginRateLimiterService {
 
+    private static final String IP_KEY_PREFIX = "login:ip:";
+    private static final String ACCOUNT_KEY_PREFIX = "login:account:";
+
+    private final RateLimitBucketStore bucketStore;
+    private final Counter ipRejections;
+    private final Counter accountRejections;
+
     @Value("${app.security.login.max-attempts:5}")
     private int maxAttempts;
 
+    @Value("${app.security.login.account.max-attempts:10}")
+    private int maxAccountAttempts;
+
     @Value("${app.security.login.lockout-duration-minutes:15}")
     private int lockoutDurationMinutes;
 
-    // Cache to store buckets per IP address
-    private final Cache<String, Bucket> cache = Caffeine.newBuilder()
-            .expireAfterWrite(1, TimeUnit.HOURS)
-            .maximumSize(10000)
-            .build();
+    public LoginRateLimiterService(RateLimitBucketStore bucketStore, MeterRegistry meterRegistry) {
+        this.bucketStore = bucketStore;
+        this.ipRejections = rejectionCounter(meterRegistry, "ip");
+        this.accountRejections = rejectionCounter(meterRegistry, "account");
+    }
 
     /**
      * Check if the IP address can attempt login
@@ -35,8 +50,47 @@ public class LoginRateLimiterService {
      * @return true if allowed, false if rate limit exceeded
      */
     public boolean allowLogin(String ipAddress) {
-        Bucket bucket = resolveBucket(ipAddress);
-        return bucket.tryConsume(1);
+        if (resolveIpBucket(ipAddress).tryConsume(1)) {
+            return true;
+        }
+        ipRejections.increment();
+        return false;
+    }
+
+    /**
+     * Check if a login attempt from the IP address for the given account is allowed.
+     * Both buckets are checked before either is charged, so an attempt rejected for the account
+     * does not also use up an attempt of the IP (and vice versa).
+     * @param ipAddress Client IP address
+     * @param email Account email from the login request
+     * @return true if allowed, false if either limit is exceeded
+     */
+    public boolean allowLogin(String ipAddress, String email) {
+        if (email == null) {
+            return allowLogin(ipAddress);
+        }
+        Bucket ipBucket = resolveIpBucket(ipAddress);
+        Bucket accountBucket = resolveAccountBucket(email);
+
+        if (!ipBucket.estimateAbilityToConsume(1).canBeConsumed()) {
+            ipRejections.increment();
+            return false;
+        }
+        if (!accountBucket.estimateAbilityToConsume(1).canBeConsumed()) {
+            accountRejections.increment();
+            return false;
+        }
+        if (!ipBucket.tryConsume(1)) {
+            ipRejections.increment();
+            return false;
+        }
+        if (!accountBucket.tryConsume(1)) {
+            // Lost a race for the last account attempt: give the IP attempt back
+            ipBucket.addTokens(1);
+            accountRejections.increment();
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -45,8 +99,7 @@ public class LoginRateLimiterService {
      * @return Number of remaining login attempts
      */
     public long getRemainingAttempts(String ipAddress) {
-        Bucket bucket = resolveBucket(ipAddress);
-        return bucket.getAvailableTokens();
+        return resolveIpBucket(ipAddress).getAvailableTokens();
     }
 
     /**
@@ -54,28 +107,53 @@ public class LoginRateLimiterService {
      * @param ipAddress Client IP address
      */
     public void resetLimit(String ipAddress) {
-        cache.invalidate(ipAddress);
+        bucketStore.reset(IP_KEY_PREFIX + ipAddress);
     }
 
     /**
-     * Get or create a bucket for the given IP address
+     * Reset rate limits for an IP address and account after a successful login
+     * @param ipAddress Client IP address
+     * @param email Account email
      */
-    private Bucket resolveBucket(String ipAddress) {
-        return cache.get(ipAddress, key -> createNewBucket());
+    public void resetLimit(String ipAddress, String email) {
+        resetLimit(ipAddress);
+        if (email != null) {
+            bucketStore.reset(ACCOUNT_KEY_PREFIX + normalize(email));
+        }
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("app.auth.login.rejections")
+                .description("Login attempts rejected by the rate limiter")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    private Bucket resolveIpBucket(String ipAddress) {
+        return bucketStore.resolve(IP_KEY_PREFIX + ipAddress, () -> createConfiguration(maxAttempts));
+    }
+
+    private Bucket resolveAccountBucket(String email) {
+        return bucketStore.resolve(ACCOUNT_KEY_PREFIX + normalize(email),
+                () -> createConfiguration(maxAccountAttempts));
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
     }
 
     /**
-     * Create a new bucket with configured limits
+     * Create a bucket configuration with the given limit
      * Uses token bucket algorithm:
-     * - Initial capacity: maxAttempts tokens
-     * - Refill: maxAttempts tokens every lockoutDuration
+     * - Initial capacity: attempts tokens
+     * - Refill: attempts tokens every lockoutDuration
      */
-    private Bucket createNewBucket() {
+    private BucketConfiguration createConfiguration(int attempts) {
         Bandwidth limit = Bandwidth.builder()
-                .capacity(maxAttempts)
-                .refillIntervally(maxAttempts, Duration.ofMinutes(lockoutDurationMinutes))
+                .capacity(attempts)
+                .refillIntervally(attempts, Duration.ofMinutes(lockoutDurationMinutes))
                 .build();
-        return Bucket.builder()
+        return BucketConfiguration.builder()
                 .addLimit(limit)
                 .build();
     }
@@ -0,0 +1,199 @@
+package com.sunasterisk.expense_management.service;
+
+import com.sunasterisk.expense_management.config.ExportConfig;
+import com.sunasterisk.expense_management.entity.Expense;
+import com.sunasterisk.expense_management.entity.Income;
+import com.sunasterisk.expense_management.repository.ExpenseRepository;
+import com.sunasterisk.expense_management.repository.IncomeRepository;
+import com.sunasterisk.expense_management.service.CsvExportService.ExportType;
+import com.sunasterisk.expense_management.util.CsvWriter;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Exports large tables by splitting them into ID ranges that are read and rendered in parallel.
+ * Range boundaries are taken from the primary key so every partition holds the same number of rows,
+ * and partitions are planned lazily, at most one per partition worker ahead of the one being copied.
+ * Each partition runs in its own read-only transaction (and connection) and writes its rows to a
+ * temporary file; the partitions are then concatenated in ID order behind a single header,
+ * so the result is identical to a sequential export.
+ */
+@Slf4j
+@Service
+public class PartitionedExportService {
+
+    private final CsvExportService csvExportService;
+    private final ExpenseRepository expenseRepository;
+    private final IncomeRepository incomeRepository;
+    private final ThreadPoolTaskExecutor partitionExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CsvMetrics csvMetrics;
+
+    @Value("${app.export.partition.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.export.partition.size:50000}")
+    private long partitionSize;
+
+    public PartitionedExportService(CsvExportService csvExportService,
+                                    ExpenseRepository expenseRepository,
+                                    IncomeRepository incomeRepository,
+                                    @Qualifier(ExportConfig.PARTITION_EXECUTOR) ThreadPoolTaskExecutor partitionExecutor,
+                                    PlatformTransactionManager transactionManager,
+                                    CsvMetrics csvMetrics) {
+        this.csvExportService = csvExportService;
+        this.expenseRepository = expenseRepository;
+        this.incomeRepository = incomeRepository;
+        this.partitionExecutor = partitionExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.csvMetrics = csvMetrics;
+    }
+
+    /**
+     * Whether the given export type can be partitioned by ID range
+     */
+    public boolean supports(ExportType type) {
+        return enabled && (type == ExportType.EXPENSES || type == ExportType.INCOMES);
+    }
+
+    /**
+     * Write a full export (BOM, localized header row and data rows) to the given stream.
+     *
+     * @param type    EXPENSES or INCOMES
+     * @param out     destination stream, closed when the export completes
+     * @param workDir directory for temporary partition files
+     * @return number of data rows written
+     */
+    public int export(ExportType type, OutputStream out, Path workDir) throws IOException {
+        if (!supports(type)) {
+            throw new IllegalArgumentException("Partitioned export is not supported for " + type);
+        }
+        Timer.Sample sample = csvMetrics.start();
+
+        Long minId = type == ExportType.EXPENSES ? expenseRepository.findMinId() : incomeRepository.findMinId();
+        Long maxId = type == ExportType.EXPENSES ? expenseRepository.findMaxId() : incomeRepository.findMaxId();
+
+        // Partitions are planned and submitted only a few ahead of the one being copied,
+        // so temporary files and queued tasks stay bounded however large the table is
+        int maxPending = Math.max(1, partitionExecutor.getMaxPoolSize());
+        Deque<Partition> pending = new ArrayDeque<>();
+        try {
+            int rows = 0;
+            int partitionCount = 0;
+            Long nextFrom = minId;
+            try (CsvWriter writer = new CsvWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+                csvExportService.writeHeader(writer, type);
+                writer.flush();
+                while (nextFrom != null || !pending.isEmpty()) {
+                    while (nextFrom != null && pending.size() < maxPending) {
+                        long from = nextFrom;
+                        nextFrom = findIdAtOffset(type, from, partitionSize);
+                        if (nextFrom != null && nextFrom > maxId) {
+                            nextFrom = null;
+                        }
+                        long to = nextFrom != null ? nextFrom - 1 : maxId;
+                        pending.add(submitPartition(type, from, to, workDir));
+                        partitionCount++;
+                    }
+
+                    Partition partition = pending.peek();
+                    rows += awaitPartition(partition);
+                    Files.copy(partition.file, out);
+                    Files.delete(partition.file);
+                    pending.poll();
+                }
+            }
+
+            log.info("Exported {} rows of {} to CSV in {} partitions", rows, type, partitionCount);
+            csvMetrics.recordExport(sample, type, "partitioned", rows);
+            return rows;
+        } finally {
+            for (Partition partition : pending) {
+                partition.future.cancel(true);
+                Files.deleteIfExists(partition.file);
+            }
+        }
+    }
+
+    private Partition submitPartition(ExportType type, long fromId, long toId, Path workDir) throws IOException {
+        Path file = Files.createTempFile(workDir, type.name().toLowerCase() + "-", ".part");
+        try {
+            return new Partition(file, partitionExecutor.submit(() -> writePartition(type, fromId, toId, file)));
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private Long findIdAtOffset(ExportType type, long fromId, long offset) {
+        return type == ExportType.EXPENSES
+                ? expenseRepository.findIdAtOffset(fromId, offset)
+                : incomeRepository.findIdAtOffset(fromId, offset);
+    }
+
+    private int writePartition(ExportType type, long fromId, long toId, Path file) {
+        Integer rows = readOnlyTransaction.execute(status -> {
+            try (CsvWriter writer = new CsvWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+                if (type == ExportType.EXPENSES) {
+                    List<Expense> expenses = expenseRepository.findByIdBetweenOrderByIdAsc(fromId, toId);
+                    csvExportService.writeExpenseRows(writer, expenses);
+                    return expenses.size();
+                }
+                List<Income> incomes = incomeRepository.findByIdBetweenOrderByIdAsc(fromId, toId);
+                csvExportService.writeIncomeRows(writer, incomes);
+                return incomes.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return rows != null ? rows : 0;
+    }
+
+    private int awaitPartition(Partition partition) throws IOException {
+        try {
+            return partition.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for export partition", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static class Partition {
+        private final Path file;
+        private final Future<Integer> future;
+
+        Partition(Path file, Future<Integer> future) {
+            this.file = file;
+            this.future = future;
+        }
+    }
+}
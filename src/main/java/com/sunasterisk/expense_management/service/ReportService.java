@@ -2,13 +2,12 @@ package com.sunasterisk.expense_management.service;
 
 import com.sunasterisk.expense_management.dto.report.*;
 import com.sunasterisk.expense_management.entity.User;
-import com.sunasterisk.expense_management.exception.ResourceNotFoundException;
 import com.sunasterisk.expense_management.repository.ExpenseRepository;
 import com.sunasterisk.expense_management.repository.IncomeRepository;
-import com.sunasterisk.expense_management.repository.UserRepository;
+import com.sunasterisk.expense_management.util.CurrentUserHolder;
 import com.sunasterisk.expense_management.util.MessageUtil;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,24 +23,20 @@ public class ReportService {
 
     private final ExpenseRepository expenseRepository;
     private final IncomeRepository incomeRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserHolder currentUserHolder;
     private final MessageUtil messageUtil;
+    private final MeterRegistry meterRegistry;
 
     public ReportService(ExpenseRepository expenseRepository,
                         IncomeRepository incomeRepository,
-                        UserRepository userRepository,
-                        MessageUtil messageUtil) {
+                        CurrentUserHolder currentUserHolder,
+                        MessageUtil messageUtil,
+                        MeterRegistry meterRegistry) {
         this.expenseRepository = expenseRepository;
         this.incomeRepository = incomeRepository;
-        this.userRepository = userRepository;
+        this.currentUserHolder = currentUserHolder;
         this.messageUtil = messageUtil;
-    }
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException(messageUtil.getMessage("user.not.found")));
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -49,21 +44,24 @@ public class ReportService {
      */
     @Transactional(readOnly = true)
     public ReportByTimeResponse getReportByTime(TimeRangeRequest request) {
-        User user = getCurrentUser();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         LocalDate startDate = request.getStartDate();
         LocalDate endDate = request.getEndDate();
+        // Repository queries take half-open ranges [startDate, endExclusive)
+        LocalDate endExclusive = endDate.plusDays(1);
 
         // Calculate totals
         BigDecimal totalExpense = expenseRepository.sumByUserAndDateBetween(
-                user.getId(), startDate, endDate);
+                user.getId(), startDate, endExclusive);
         BigDecimal totalIncome = incomeRepository.sumByUserAndDateBetween(
-                user.getId(), startDate, endDate);
+                user.getId(), startDate, endExclusive);
 
         Long expenseCount = expenseRepository.countByUserAndDateBetween(
-                user.getId(), startDate, endDate);
+                user.getId(), startDate, endExclusive);
         Long incomeCount = incomeRepository.countByUserAndDateBetween(
-                user.getId(), startDate, endDate);
+                user.getId(), startDate, endExclusive);
 
         // Calculate averages
         BigDecimal averageExpense = expenseCount > 0
@@ -76,7 +74,7 @@ public class ReportService {
         // Determine period type
         String period = determinePeriodType(startDate, endDate);
 
-        return ReportByTimeResponse.builder()
+        ReportByTimeResponse response = ReportByTimeResponse.builder()
                 .startDate(startDate)
                 .endDate(endDate)
                 .totalExpense(totalExpense)
@@ -88,6 +86,9 @@ public class ReportService {
                 .averageIncome(averageIncome)
                 .period(period)
                 .build();
+
+        sample.stop(reportTimer("by_time"));
+        return response;
     }
 
     /**
@@ -95,16 +96,19 @@ public class ReportService {
      */
     @Transactional(readOnly = true)
     public CategoryDistributionResponse getCategoryDistribution(TimeRangeRequest request) {
-        User user = getCurrentUser();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         LocalDate startDate = request.getStartDate();
         LocalDate endDate = request.getEndDate();
+        // Repository queries take half-open ranges [startDate, endExclusive)
+        LocalDate endExclusive = endDate.plusDays(1);
 
         BigDecimal totalExpense = expenseRepository.sumByUserAndDateBetween(
-                user.getId(), startDate, endDate);
+                user.getId(), startDate, endExclusive);
 
         List<Object[]> categoryData = expenseRepository.groupByCategoryAndDateBetween(
-                user.getId(), startDate, endDate);
+                user.getId(), startDate, endExclusive);
 
         List<CategoryDistributionResponse.CategoryItem> categories = new ArrayList<>();
 
@@ -133,12 +137,15 @@ public class ReportService {
                     .build());
         }
 
-        return CategoryDistributionResponse.builder()
+        CategoryDistributionResponse response = CategoryDistributionResponse.builder()
                 .startDate(startDate)
                 .endDate(endDate)
                 .totalExpense(totalExpense)
                 .categories(categories)
                 .build();
+
+        sample.stop(reportTimer("category_distribution"));
+        return response;
     }
 
     /**
@@ -146,25 +153,28 @@ public class ReportService {
      */
     @Transactional(readOnly = true)
     public IncomeVsExpenseResponse getIncomeVsExpense(TimeRangeRequest request) {
-        User user = getCurrentUser();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         LocalDate startDate = request.getStartDate();
         LocalDate endDate = request.getEndDate();
+        // Repository queries take half-open ranges [startDate, endExclusive)
+        LocalDate endExclusive = endDate.plusDays(1);
 
         // Income data
         BigDecimal totalIncome = incomeRepository.sumByUserAndDateBetween(
-                user.getId(), startDate, endDate);
+                user.getId(), startDate, endExclusive);
         Long incomeCount = incomeRepository.countByUserAndDateBetween(
-                user.getId(), startDate, endDate);
+                user.getId(), startDate, endExclusive);
         BigDecimal averageIncome = incomeCount > 0
                 ? totalIncome.divide(BigDecimal.valueOf(incomeCount), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
 
         // Expense data
         BigDecimal totalExpense = expenseRepository.sumByUserAndDateBetween(
-                user.getId(), startDate, endDate);
+                user.getId(), startDate, endExclusive);
         Long expenseCount = expenseRepository.countByUserAndDateBetween(
-                user.getId(), startDate, endDate);
+                user.getId(), startDate, endExclusive);
         BigDecimal averageExpense = expenseCount > 0
                 ? totalExpense.divide(BigDecimal.valueOf(expenseCount), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
@@ -178,7 +188,7 @@ public class ReportService {
 
         String financialHealth = determineFinancialHealth(balance, totalIncome);
 
-        return IncomeVsExpenseResponse.builder()
+        IncomeVsExpenseResponse response = IncomeVsExpenseResponse.builder()
                 .startDate(startDate)
                 .endDate(endDate)
                 .totalIncome(totalIncome)
@@ -191,6 +201,9 @@ public class ReportService {
                 .savingsRate(savingsRate)
                 .financialHealth(financialHealth)
                 .build();
+
+        sample.stop(reportTimer("income_vs_expense"));
+        return response;
     }
 
     /**
@@ -201,23 +214,26 @@ public class ReportService {
      */
     @Transactional(readOnly = true)
     public TrendAnalysisResponse getTrendAnalysis(String period, TimeRangeRequest request) {
-        User user = getCurrentUser();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        User user = currentUserHolder.getCurrentUserOrThrow();
 
         LocalDate startDate = request.getStartDate();
         LocalDate endDate = request.getEndDate();
+        // Repository queries take half-open ranges [startDate, endExclusive)
+        LocalDate endExclusive = endDate.plusDays(1);
 
         List<TrendAnalysisResponse.TrendItem> trends;
 
         // Period is already validated at controller layer, safe to use switch
         switch (period.toUpperCase()) {
             case "MONTHLY":
-                trends = getMonthlyTrends(user.getId(), startDate, endDate);
+                trends = getMonthlyTrends(user.getId(), startDate, endExclusive);
                 break;
             case "QUARTERLY":
-                trends = getQuarterlyTrends(user.getId(), startDate, endDate);
+                trends = getQuarterlyTrends(user.getId(), startDate, endExclusive);
                 break;
             case "YEARLY":
-                trends = getYearlyTrends(user.getId(), startDate, endDate);
+                trends = getYearlyTrends(user.getId(), startDate, endExclusive);
                 break;
             default:
                 // Should never reach here due to controller validation
@@ -230,7 +246,7 @@ public class ReportService {
         BigDecimal minExpense = calculateMinExpense(trends);
         String trendDirection = determineTrendDirection(trends);
 
-        return TrendAnalysisResponse.builder()
+        TrendAnalysisResponse response = TrendAnalysisResponse.builder()
                 .period(period.toUpperCase())
                 .trends(trends)
                 .averageExpense(averageExpense)
@@ -238,37 +254,40 @@ public class ReportService {
                 .minExpense(minExpense)
                 .trendDirection(trendDirection)
                 .build();
+
+        sample.stop(reportTimer("trend"));
+        return response;
     }
 
     private List<TrendAnalysisResponse.TrendItem> getMonthlyTrends(
-            Long userId, LocalDate startDate, LocalDate endDate) {
+            Long userId, LocalDate startDate, LocalDate endExclusive) {
 
         List<Object[]> expenseData = expenseRepository.groupByMonthAndDateBetween(
-                userId, startDate, endDate);
+                userId, startDate, endExclusive);
         List<Object[]> incomeData = incomeRepository.groupByMonthAndDateBetween(
-                userId, startDate, endDate);
+                userId, startDate, endExclusive);
 
         return mergeTrendData(expenseData, incomeData, "MONTHLY");
     }
 
     private List<TrendAnalysisResponse.TrendItem> getQuarterlyTrends(
-            Long userId, LocalDate startDate, LocalDate endDate) {
+            Long userId, LocalDate startDate, LocalDate endExclusive) {
 
         List<Object[]> expenseData = expenseRepository.groupByQuarterAndDateBetween(
-                userId, startDate, endDate);
+                userId, startDate, endExclusive);
         List<Object[]> incomeData = incomeRepository.groupByQuarterAndDateBetween(
-                userId, startDate, endDate);
+                userId, startDate, endExclusive);
 
         return mergeTrendData(expenseData, incomeData, "QUARTERLY");
     }
 
     private List<TrendAnalysisResponse.TrendItem> getYearlyTrends(
-            Long userId, LocalDate startDate, LocalDate endDate) {
+            Long userId, LocalDate startDate, LocalDate endExclusive) {
 
         List<Object[]> expenseData = expenseRepository.groupByYearAndDateBetween(
-                userId, startDate, endDate);
+                userId, startDate, endExclusive);
         List<Object[]> incomeData = incomeRepository.groupByYearAndDateBetween(
-                userId, startDate, endDate);
+                userId, startDate, endExclusive);
 
         return mergeTrendData(expenseData, incomeData, "YEARLY");
     }
@@ -344,6 +363,13 @@ public class ReportService {
         return trends;
     }
 
+    private Timer reportTimer(String type) {
+        return Timer.builder("app.report.generation")
+                .description("Report generation time")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
     private String createPeriodKey(Object[] row, String periodType) {
         Integer year = (Integer) row[0];
         if (periodType.equals("YEARLY")) {
@@ -0,0 +1,178 @@
+package com.sunasterisk.expense_management.service;
+
+import com.sunasterisk.expense_management.entity.TokenRevocation;
+import com.sunasterisk.expense_management.repository.TokenRevocationRepository;
+import com.sunasterisk.expense_management.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation (denylist) of issued JWT tokens.
+ * A token is revoked either individually by its id (jti, e.g. on logout) or together with all
+ * other tokens of a user issued before a watermark (e.g. when the user is deactivated).
+ * Checks are served from two in-memory hash maps, so the authentication path never queries the database.
+ * The table backs them up: it is read at startup, and rows written since the last read are loaded
+ * periodically so revocations made on other nodes take effect within the sync interval.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    // jti -> token expiration (epoch millis)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // user id -> tokens issued before this instant (epoch millis, whole seconds like the iat claim) are revoked
+    private final Map<Long, Long> issuedBeforeByUser = new ConcurrentHashMap<>();
+
+    // Rows written since this instant are read by the next sync
+    private volatile LocalDateTime syncedUntil;
+
+    @Value("${app.jwt.expiration-ms:86400000}")
+    private long jwtExpirationMs;
+
+    @Value("${app.jwt.revocation.sync-overlap-ms:60000}")
+    private long syncOverlapMs;
+
+    /**
+     * Load the revocations that still cover unexpired tokens
+     */
+    @PostConstruct
+    void loadRevocations() {
+        LocalDateTime now = LocalDateTime.now();
+        tokenRevocationRepository.findByExpiresAtAfter(now).forEach(this::apply);
+        syncedUntil = now;
+        log.info("Loaded {} revoked tokens and {} user watermarks", revokedTokens.size(), issuedBeforeByUser.size());
+    }
+
+    /**
+     * Load revocations written (by any node) since the previous sync. The window reaches back by
+     * {@code sync-overlap-ms} to cover commit delays and clock skew between nodes; applying a row twice is harmless.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-interval-ms:30000}")
+    public void syncRevocations() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenRevocation> changed = tokenRevocationRepository.findWrittenSince(
+                syncedUntil.minus(Duration.ofMillis(syncOverlapMs)));
+        changed.forEach(this::apply);
+        syncedUntil = now;
+        log.debug("Synced {} token revocations", changed.size());
+    }
+
+    /**
+     * Check whether verified token claims have been revoked
+     */
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && revokedTokens.containsKey(jti)) {
+            return true;
+        }
+
+        Long userId = JwtUtil.getUserId(claims);
+        Date issuedAt = claims.getIssuedAt();
+        if (userId != null && issuedAt != null) {
+            Long watermark = issuedBeforeByUser.get(userId);
+            // iat only has second precision: a token issued in the same second as the watermark is kept,
+            // otherwise a token issued right after the revocation (e.g. the next login) would be rejected
+            return watermark != null && issuedAt.getTime() < watermark;
+        }
+        return false;
+    }
+
+    /**
+     * Revoke a single token (logout)
+     */
+    @Transactional
+    public void revokeToken(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null || revokedTokens.containsKey(jti)) {
+            return;
+        }
+
+        Date expiration = claims.getExpiration();
+        long expiresAt = expiration != null ? expiration.getTime() : System.currentTimeMillis() + jwtExpirationMs;
+
+        tokenRevocationRepository.save(TokenRevocation.builder()
+                .jti(jti)
+                .userId(JwtUtil.getUserId(claims))
+                .expiresAt(toLocalDateTime(expiresAt))
+                .build());
+        revokedTokens.put(jti, expiresAt);
+        log.debug("Revoked token {}", jti);
+    }
+
+    /**
+     * Revoke every token issued to the user until now
+     * (deactivation, role or password change, deletion)
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+
+        long now = truncateToSeconds(System.currentTimeMillis());
+        TokenRevocation watermark = tokenRevocationRepository.findFirstByUserIdAndJtiIsNull(userId)
+                .orElseGet(() -> TokenRevocation.builder().userId(userId).build());
+        watermark.setIssuedBefore(toLocalDateTime(now));
+        watermark.setExpiresAt(toLocalDateTime(now + jwtExpirationMs));
+        tokenRevocationRepository.save(watermark);
+
+        issuedBeforeByUser.merge(userId, now, Math::max);
+        log.info("Revoked all tokens of user {}", userId);
+    }
+
+    /**
+     * Forget revocations whose tokens have expired anyway
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        issuedBeforeByUser.values().removeIf(issuedBefore -> issuedBefore + jwtExpirationMs < now);
+
+        int removed = tokenRevocationRepository.deleteExpired(toLocalDateTime(now));
+        if (removed > 0) {
+            log.info("Purged {} expired token revocations", removed);
+        }
+    }
+
+    private void apply(TokenRevocation revocation) {
+        if (revocation.getJti() != null) {
+            revokedTokens.put(revocation.getJti(), toEpochMillis(revocation.getExpiresAt()));
+        } else if (revocation.getUserId() != null && revocation.getIssuedBefore() != null) {
+            issuedBeforeByUser.merge(revocation.getUserId(),
+                    truncateToSeconds(toEpochMillis(revocation.getIssuedBefore())), Math::max);
+        }
+    }
+
+    private static long truncateToSeconds(long epochMillis) {
+        return epochMillis - Math.floorMod(epochMillis, 1000L);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -9,7 +9,8 @@ import com.sunasterisk.expense_management.exception.DuplicateResourceException;
 import com.sunasterisk.expense_management.exception.ResourceNotFoundException;
 import com.sunasterisk.expense_management.repository.UserRepository;
 import com.sunasterisk.expense_management.repository.specification.UserSpecification;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sunasterisk.expense_management.security.PrincipalCache;
+import com.sunasterisk.expense_management.util.CurrentUserHolder;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
@@ -17,8 +18,6 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,19 +37,12 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final MessageSource messageSource;
     private final ActivityLogService activityLogService;
-    private final ObjectMapper objectMapper;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final CurrentUserHolder currentUserHolder;
 
 
 
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
-            return null;
-        }
-        String email = authentication.getName();
-        return userRepository.findByEmail(email).orElse(null);
-    }
-
     /**
      * Get all users
      */
@@ -127,29 +119,18 @@ public class UserService {
         User saved = userRepository.save(user);
 
         // Log activity with new values
-        User currentUser = getCurrentUser();
-        try {
-            UserDto savedDto = UserDto.fromEntity(saved);
-            savedDto.setPassword(null); // Don't log password
-            String newValue = objectMapper.writeValueAsString(savedDto);
-            activityLogService.logWithValues(
-                ActionType.CREATE,
-                currentUser,
-                "User",
-                saved.getId(),
-                String.format("Created user '%s' (%s) with role %s", saved.getName(), saved.getEmail(), saved.getRole()),
-                null,
-                newValue
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.CREATE,
-                currentUser,
-                "User",
-                saved.getId(),
-                String.format("Created user '%s' (%s) with role %s", saved.getName(), saved.getEmail(), saved.getRole())
-            );
-        }
+        User currentUser = currentUserHolder.getCurrentUser();
+        UserDto savedDto = UserDto.fromEntity(saved);
+        savedDto.setPassword(null); // Don't log password
+        activityLogService.logChange(
+            ActionType.CREATE,
+            currentUser,
+            "User",
+            saved.getId(),
+            String.format("Created user '%s' (%s) with role %s", saved.getName(), saved.getEmail(), saved.getRole()),
+            null,
+            savedDto
+        );
 
         return UserDto.fromEntity(saved);
     }
@@ -174,14 +155,14 @@ public class UserService {
         }
 
         // Keep old value for logging
-        String oldValue = null;
-        try {
-            UserDto oldDto = UserDto.fromEntity(user);
-            oldDto.setPassword(null); // Don't log password
-            oldValue = objectMapper.writeValueAsString(oldDto);
-        } catch (Exception e) {
-            // Ignore
-        }
+        UserDto oldDto = UserDto.fromEntity(user);
+        oldDto.setPassword(null); // Don't log password
+
+        // Existing tokens must stop working when access is reduced or credentials change
+        boolean passwordChanged = dto.getPassword() != null && !dto.getPassword().trim().isEmpty();
+        boolean revokeTokens = passwordChanged
+                || user.getRole() != dto.getRole()
+                || (Boolean.TRUE.equals(user.getActive()) && !Boolean.TRUE.equals(dto.getActive()));
 
         user.setName(dto.getName());
         user.setEmail(dto.getEmail());
@@ -190,40 +171,34 @@ public class UserService {
         user.setActive(dto.getActive());
 
         // Update password only if provided
-        if (dto.getPassword() != null && !dto.getPassword().trim().isEmpty()) {
+        if (passwordChanged) {
             user.setPassword(passwordEncoder.encode(dto.getPassword()));
         }
 
         User updated = userRepository.save(user);
+        // Role or active status may have changed - drop the cached API principal
+        principalCache.invalidate(updated.getId());
+        if (revokeTokens) {
+            tokenRevocationService.revokeAllForUser(updated.getId());
+        }
 
         // Build description of changes
         StringBuilder changeDesc = new StringBuilder("Updated user: ");
         changeDesc.append(updated.getName()).append(" (").append(updated.getEmail()).append(")");
 
         // Log activity with old and new values
-        User currentUser = getCurrentUser();
-        try {
-            UserDto updatedDto = UserDto.fromEntity(updated);
-            updatedDto.setPassword(null); // Don't log password
-            String newValue = objectMapper.writeValueAsString(updatedDto);
-            activityLogService.logWithValues(
-                ActionType.UPDATE,
-                currentUser,
-                "User",
-                updated.getId(),
-                changeDesc.toString(),
-                oldValue,
-                newValue
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.UPDATE,
-                currentUser,
-                "User",
-                updated.getId(),
-                changeDesc.toString()
-            );
-        }
+        User currentUser = currentUserHolder.getCurrentUser();
+        UserDto updatedDto = UserDto.fromEntity(updated);
+        updatedDto.setPassword(null); // Don't log password
+        activityLogService.logChange(
+            ActionType.UPDATE,
+            currentUser,
+            "User",
+            updated.getId(),
+            changeDesc.toString(),
+            oldDto,
+            updatedDto
+        );
 
         return UserDto.fromEntity(updated);
     }
@@ -239,31 +214,23 @@ public class UserService {
                 ));
 
         // Log activity before deletion with old values
-        User currentUser = getCurrentUser();
-        try {
-            UserDto userDto = UserDto.fromEntity(user);
-            userDto.setPassword(null); // Don't log password
-            String oldValue = objectMapper.writeValueAsString(userDto);
-            activityLogService.logWithValues(
-                ActionType.DELETE,
-                currentUser,
-                "User",
-                user.getId(),
-                String.format("Deleted user '%s' (%s)", user.getName(), user.getEmail()),
-                oldValue,
-                null
-            );
-        } catch (Exception e) {
-            activityLogService.log(
-                ActionType.DELETE,
-                currentUser,
-                "User",
-                user.getId(),
-                String.format("Deleted user '%s' (%s)", user.getName(), user.getEmail())
-            );
-        }
+        User currentUser = currentUserHolder.getCurrentUser();
+        UserDto userDto = UserDto.fromEntity(user);
+        userDto.setPassword(null); // Don't log password
+        activityLogService.logChange(
+            ActionType.DELETE,
+            currentUser,
+            "User",
+            user.getId(),
+            String.format("Deleted user '%s' (%s)", user.getName(), user.getEmail()),
+            userDto,
+            null
+        );
 
+        activityLogService.detachUser(id);
         userRepository.delete(user);
+        principalCache.invalidate(id);
+        tokenRevocationService.revokeAllForUser(id);
     }
 
     /**
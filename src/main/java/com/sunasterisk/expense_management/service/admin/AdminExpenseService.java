@@ -1,6 +1,6 @@
 package com.sunasterisk.expense_management.service.admin;
 
-import com.sunasterisk.expense_management.dto.PageResponse;
+import com.sunasterisk.expense_management.dto.CursorPageResponse;
 import com.sunasterisk.expense_management.dto.expense.AdminExpenseFilterRequest;
 import com.sunasterisk.expense_management.dto.expense.ExpenseRequest;
 import com.sunasterisk.expense_management.dto.expense.ExpenseResponse;
@@ -9,17 +9,13 @@ import com.sunasterisk.expense_management.entity.User;
 import com.sunasterisk.expense_management.exception.ResourceNotFoundException;
 import com.sunasterisk.expense_management.mapper.ExpenseMapper;
 import com.sunasterisk.expense_management.repository.ExpenseRepository;
-import com.sunasterisk.expense_management.repository.UserRepository;
+import com.sunasterisk.expense_management.repository.TableStatisticsRepository;
 import com.sunasterisk.expense_management.repository.specification.ExpenseSpecification;
 import com.sunasterisk.expense_management.service.ExpenseService;
+import com.sunasterisk.expense_management.util.CurrentUserHolder;
+import com.sunasterisk.expense_management.util.KeysetPager;
 import com.sunasterisk.expense_management.util.MessageUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,23 +28,15 @@ public class AdminExpenseService {
     private final ExpenseMapper expenseMapper;
     private final MessageUtil messageUtil;
     private final ExpenseService expenseService;
-    private final UserRepository userRepository;
-
-    private User getCurrentAdminUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException(messageUtil.getMessage("user.not.found")));
-    }
+    private final CurrentUserHolder currentUserHolder;
+    private final TableStatisticsRepository tableStatisticsRepository;
 
+    /**
+     * Keyset-paginated expense list (newest first), for deep browsing without COUNT/OFFSET.
+     * The approximate total is only provided when no filter is applied.
+     */
     @Transactional(readOnly = true)
-    public PageResponse<ExpenseResponse> getAllExpenses(AdminExpenseFilterRequest filter) {
-        Sort sort = filter.getSortDir().equalsIgnoreCase("asc")
-                ? Sort.by(filter.getSortBy()).ascending()
-                : Sort.by(filter.getSortBy()).descending();
-
-        Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(), sort);
-
+    public CursorPageResponse<ExpenseResponse> getExpensesByCursor(AdminExpenseFilterRequest filter) {
         Specification<Expense> spec = ExpenseSpecification.withAdminFilters(
                 filter.getUserId(),
                 filter.getName(),
@@ -59,9 +47,19 @@ public class AdminExpenseService {
                 filter.getMaxAmount()
         );
 
-        Page<Expense> expensePage = expenseRepository.findAll(spec, pageable);
-        Page<ExpenseResponse> responsePage = expensePage.map(expenseMapper::toResponse);
-        return PageResponse.fromPage(responsePage);
+        CursorPageResponse<ExpenseResponse> response = KeysetPager.fetch(expenseRepository, spec,
+                filter.getCursor(), filter.getSize(), Expense::getCreatedAt, Expense::getId,
+                expenseMapper::toResponse, "user", "category");
+        if (isUnfiltered(filter)) {
+            response.setApproximateTotal(tableStatisticsRepository.estimateRowCount("expenses"));
+        }
+        return response;
+    }
+
+    private boolean isUnfiltered(AdminExpenseFilterRequest filter) {
+        return filter.getUserId() == null && (filter.getName() == null || filter.getName().isBlank())
+                && filter.getCategoryId() == null && filter.getStartDate() == null && filter.getEndDate() == null
+                && filter.getMinAmount() == null && filter.getMaxAmount() == null;
     }
 
     @Transactional(readOnly = true)
@@ -74,13 +72,13 @@ public class AdminExpenseService {
 
     @Transactional
     public ExpenseResponse updateExpense(Long id, ExpenseRequest request) {
-        User adminUser = getCurrentAdminUser();
+        User adminUser = currentUserHolder.getCurrentUserOrThrow();
         return expenseService.updateExpenseInternal(id, request, adminUser);
     }
 
     @Transactional
     public void deleteExpense(Long id) {
-        User adminUser = getCurrentAdminUser();
+        User adminUser = currentUserHolder.getCurrentUserOrThrow();
         expenseService.deleteExpenseInternal(id, adminUser);
     }
 }
@@ -0,0 +1,278 @@
+package com.sunasterisk.expense_management.service.admin;
+
+import com.sunasterisk.expense_management.config.ExportConfig;
+import com.sunasterisk.expense_management.dto.export.ExportJobResponse;
+import com.sunasterisk.expense_management.dto.export.ExportJobResponse.Status;
+import com.sunasterisk.expense_management.exception.ResourceNotFoundException;
+import com.sunasterisk.expense_management.service.CsvExportService;
+import com.sunasterisk.expense_management.service.CsvExportService.ExportType;
+import com.sunasterisk.expense_management.service.PartitionedExportService;
+import com.sunasterisk.expense_management.util.MessageUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs CSV exports in the background and keeps the resulting files in a local store,
+ * so the admin UI can poll for completion and download (or resume downloading)
+ * the artifact without re-running the export queries.
+ */
+@Slf4j
+@Service
+public class AdminExportService {
+
+    private static final String ARTIFACT_SUFFIX = ".csv";
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private final CsvExportService csvExportService;
+    private final PartitionedExportService partitionedExportService;
+    private final ThreadPoolTaskExecutor exportExecutor;
+    private final MessageUtil messageUtil;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${app.export.storage-dir:${java.io.tmpdir}/expense-exports}")
+    private String storageDir;
+
+    @Value("${app.export.artifact-ttl-minutes:60}")
+    private long artifactTtlMinutes;
+
+    public AdminExportService(CsvExportService csvExportService,
+                              PartitionedExportService partitionedExportService,
+                              @Qualifier(ExportConfig.EXPORT_EXECUTOR) ThreadPoolTaskExecutor exportExecutor,
+                              MessageUtil messageUtil) {
+        this.csvExportService = csvExportService;
+        this.partitionedExportService = partitionedExportService;
+        this.exportExecutor = exportExecutor;
+        this.messageUtil = messageUtil;
+    }
+
+    /**
+     * Start a background export. If an export of the same type is already queued or running,
+     * that job is returned instead of starting a second one.
+     * Synchronized so that two concurrent submits cannot both miss the running job and start a duplicate;
+     * the section only scans the job map and hands the job to the executor, which does not block.
+     */
+    public synchronized ExportJobResponse submit(ExportType type) {
+        for (ExportJob existing : jobs.values()) {
+            if (existing.type == type && !existing.isFinished()) {
+                return existing.toResponse();
+            }
+        }
+
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), type, getCurrentUsername(),
+                LocaleContextHolder.getLocale());
+        jobs.put(job.id, job);
+
+        try {
+            exportExecutor.execute(() -> runExport(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            throw new IllegalStateException(messageUtil.getMessage("admin.export.queue.full"), e);
+        }
+
+        log.info("Queued {} export job {} for {}", type, job.id, job.requestedBy);
+        return job.toResponse();
+    }
+
+    /**
+     * Get the current state of an export job
+     */
+    public ExportJobResponse getJob(String id) {
+        return findJob(id).toResponse();
+    }
+
+    /**
+     * Get all known export jobs, newest first
+     */
+    public List<ExportJobResponse> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((ExportJob job) -> job.createdAt).reversed())
+                .map(ExportJob::toResponse)
+                .toList();
+    }
+
+    /**
+     * Get the stored artifact of a completed export job
+     *
+     * @throws ResourceNotFoundException if the job is unknown, not finished or already expired
+     */
+    public Resource getArtifact(String id) {
+        ExportJob job = findJob(id);
+        if (job.status != Status.COMPLETED || job.artifact == null || !Files.exists(job.artifact)) {
+            throw new ResourceNotFoundException(messageUtil.getMessage("admin.export.not.ready", id));
+        }
+        return new FileSystemResource(job.artifact);
+    }
+
+    /**
+     * Delete expired artifacts and forget their jobs.
+     * Also removes stray files left in the store by a previous run.
+     */
+    @Scheduled(fixedDelayString = "${app.export.cleanup-interval-ms:300000}")
+    public void purgeExpiredArtifacts() {
+        LocalDateTime now = LocalDateTime.now();
+        int removed = 0;
+
+        for (ExportJob job : jobs.values()) {
+            if (job.isFinished() && job.expiresAt != null && job.expiresAt.isBefore(now)) {
+                jobs.remove(job.id);
+                deleteQuietly(job.artifact);
+                removed++;
+            }
+        }
+
+        Path dir = Paths.get(storageDir);
+        if (Files.isDirectory(dir)) {
+            Instant cutoff = Instant.now().minus(Duration.ofMinutes(artifactTtlMinutes));
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path file : files) {
+                    String jobId = file.getFileName().toString().replace(PARTIAL_SUFFIX, "").replace(ARTIFACT_SUFFIX, "");
+                    if (!jobs.containsKey(jobId) && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                        deleteQuietly(file);
+                        removed++;
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Failed to scan export store {}: {}", dir, e.getMessage());
+            }
+        }
+
+        if (removed > 0) {
+            log.info("Purged {} expired export artifacts", removed);
+        }
+    }
+
+    private void runExport(ExportJob job) {
+        job.status = Status.RUNNING;
+        LocaleContextHolder.setLocale(job.locale);
+
+        Path dir = Paths.get(storageDir);
+        Path partial = dir.resolve(job.id + ARTIFACT_SUFFIX + PARTIAL_SUFFIX);
+        Path artifact = dir.resolve(job.id + ARTIFACT_SUFFIX);
+
+        try {
+            Files.createDirectories(dir);
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                job.rowCount = partitionedExportService.supports(job.type)
+                        ? partitionedExportService.export(job.type, out, dir)
+                        : csvExportService.export(job.type, out);
+            }
+            Files.move(partial, artifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            job.artifact = artifact;
+            job.sizeBytes = Files.size(artifact);
+            finish(job, Status.COMPLETED);
+            log.info("Export job {} completed: {} rows, {} bytes", job.id, job.rowCount, job.sizeBytes);
+        } catch (Exception e) {
+            deleteQuietly(partial);
+            job.errorMessage = e.getMessage();
+            finish(job, Status.FAILED);
+            log.error("Export job {} ({}) failed: {}", job.id, job.type, e.getMessage(), e);
+        } finally {
+            LocaleContextHolder.resetLocaleContext();
+        }
+    }
+
+    private void finish(ExportJob job, Status status) {
+        job.completedAt = LocalDateTime.now();
+        job.expiresAt = job.completedAt.plusMinutes(artifactTtlMinutes);
+        job.status = status;
+    }
+
+    private ExportJob findJob(String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException(messageUtil.getMessage("admin.export.not.found", id));
+        }
+        return job;
+    }
+
+    private String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Mutable job state, written by the export thread and read by request threads
+     */
+    private static class ExportJob {
+        private final String id;
+        private final ExportType type;
+        private final String requestedBy;
+        private final Locale locale;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private volatile Status status = Status.PENDING;
+        private volatile Path artifact;
+        private volatile Integer rowCount;
+        private volatile Long sizeBytes;
+        private volatile String errorMessage;
+        private volatile LocalDateTime completedAt;
+        private volatile LocalDateTime expiresAt;
+
+        ExportJob(String id, ExportType type, String requestedBy, Locale locale) {
+            this.id = id;
+            this.type = type;
+            this.requestedBy = requestedBy;
+            this.locale = locale;
+        }
+
+        boolean isFinished() {
+            return status == Status.COMPLETED || status == Status.FAILED;
+        }
+
+        ExportJobResponse toResponse() {
+            return ExportJobResponse.builder()
+                    .id(id)
+                    .type(type)
+                    .status(status)
+                    .fileName(type.getFileName())
+                    .rowCount(rowCount)
+                    .sizeBytes(sizeBytes)
+                    .errorMessage(errorMessage)
+                    .requestedBy(requestedBy)
+                    .createdAt(createdAt)
+                    .completedAt(completedAt)
+                    .expiresAt(expiresAt)
+                    .build();
+        }
+    }
+}
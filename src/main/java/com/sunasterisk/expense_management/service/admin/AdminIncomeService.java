@@ -1,6 +1,6 @@
 package com.sunasterisk.expense_management.service.admin;
 
-import com.sunasterisk.expense_management.dto.PageResponse;
+import com.sunasterisk.expense_management.dto.CursorPageResponse;
 import com.sunasterisk.expense_management.dto.income.AdminIncomeFilterRequest;
 import com.sunasterisk.expense_management.dto.income.IncomeRequest;
 import com.sunasterisk.expense_management.dto.income.IncomeResponse;
@@ -9,15 +9,13 @@ import com.sunasterisk.expense_management.entity.User;
 import com.sunasterisk.expense_management.exception.ResourceNotFoundException;
 import com.sunasterisk.expense_management.mapper.IncomeMapper;
 import com.sunasterisk.expense_management.repository.IncomeRepository;
+import com.sunasterisk.expense_management.repository.TableStatisticsRepository;
 import com.sunasterisk.expense_management.repository.specification.IncomeSpecification;
 import com.sunasterisk.expense_management.service.IncomeService;
 import com.sunasterisk.expense_management.util.CurrentUserHolder;
+import com.sunasterisk.expense_management.util.KeysetPager;
 import com.sunasterisk.expense_management.util.MessageUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,15 +29,14 @@ public class AdminIncomeService {
     private final MessageUtil messageUtil;
     private final IncomeService incomeService;
     private final CurrentUserHolder currentUserHolder;
+    private final TableStatisticsRepository tableStatisticsRepository;
 
+    /**
+     * Keyset-paginated income list (newest first), for deep browsing without COUNT/OFFSET.
+     * The approximate total is only provided when no filter is applied.
+     */
     @Transactional(readOnly = true)
-    public PageResponse<IncomeResponse> getAllIncomes(AdminIncomeFilterRequest filter) {
-        Sort sort = filter.getSortDir().equalsIgnoreCase("asc")
-                ? Sort.by(filter.getSortBy()).ascending()
-                : Sort.by(filter.getSortBy()).descending();
-
-        Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(), sort);
-
+    public CursorPageResponse<IncomeResponse> getIncomesByCursor(AdminIncomeFilterRequest filter) {
         Specification<Income> spec = IncomeSpecification.withAdminFilters(
                 filter.getUserId(),
                 filter.getName(),
@@ -50,9 +47,19 @@ public class AdminIncomeService {
                 filter.getMaxAmount()
         );
 
-        Page<Income> incomePage = incomeRepository.findAll(spec, pageable);
-        Page<IncomeResponse> responsePage = incomePage.map(incomeMapper::toResponse);
-        return PageResponse.fromPage(responsePage);
+        CursorPageResponse<IncomeResponse> response = KeysetPager.fetch(incomeRepository, spec,
+                filter.getCursor(), filter.getSize(), Income::getCreatedAt, Income::getId,
+                incomeMapper::toResponse, "user", "category");
+        if (isUnfiltered(filter)) {
+            response.setApproximateTotal(tableStatisticsRepository.estimateRowCount("incomes"));
+        }
+        return response;
+    }
+
+    private boolean isUnfiltered(AdminIncomeFilterRequest filter) {
+        return filter.getUserId() == null && (filter.getName() == null || filter.getName().isBlank())
+                && filter.getCategoryId() == null && filter.getStartDate() == null && filter.getEndDate() == null
+                && filter.getMinAmount() == null && filter.getMaxAmount() == null;
     }
 
     @Transactional(readOnly = true)
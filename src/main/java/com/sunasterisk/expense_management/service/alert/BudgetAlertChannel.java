@@ -0,0 +1,26 @@
+package com.sunasterisk.expense_management.service.alert;
+
+import com.sunasterisk.expense_management.entity.BudgetAlert;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A way of delivering budget alerts. Every enabled channel bean receives the alerts of each dispatched
+ * batch it has not delivered yet; delivery state is kept per alert and channel, so a retry only
+ * goes to the channels (and alerts) that failed. Deliveries are at-least-once.
+ */
+public interface BudgetAlertChannel {
+
+    /**
+     * Channel name used in logs and metrics tags
+     */
+    String name();
+
+    boolean isEnabled();
+
+    /**
+     * @return ids of the alerts that were delivered; throwing means none of them was
+     */
+    Set<Long> deliver(List<BudgetAlert> alerts) throws Exception;
+}
@@ -0,0 +1,174 @@
+package com.sunasterisk.expense_management.service.alert;
+
+import com.sunasterisk.expense_management.entity.BudgetAlert;
+import com.sunasterisk.expense_management.entity.BudgetAlert.Status;
+import com.sunasterisk.expense_management.repository.BudgetAlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Delivers queued budget alerts from the outbox through every enabled {@link BudgetAlertChannel}.
+ * A batch is claimed in a short transaction (SELECT ... FOR UPDATE SKIP LOCKED, then marked IN_PROGRESS),
+ * so several nodes can dispatch concurrently, and delivered outside any transaction so slow channels
+ * hold neither row locks nor a connection. The outcome is recorded per alert and channel in a second
+ * transaction: an alert is SENT once every enabled channel delivered it, otherwise it goes back to
+ * PENDING and the next run retries only the channels that failed, until the attempt limit (FAILED).
+ * A claim older than the claim timeout (the node died mid-delivery) is taken over by the next run.
+ */
+@Slf4j
+@Service
+public class BudgetAlertDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    // Upper bound of batches per run, so one run cannot monopolize the scheduler thread
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final BudgetAlertRepository budgetAlertRepository;
+    private final List<BudgetAlertChannel> channels;
+    private final TransactionTemplate transaction;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.budget.alert.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.budget.alert.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.budget.alert.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${app.budget.alert.claim-timeout-ms:300000}")
+    private long claimTimeoutMs;
+
+    public BudgetAlertDispatcher(BudgetAlertRepository budgetAlertRepository,
+                                 List<BudgetAlertChannel> channels,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.budgetAlertRepository = budgetAlertRepository;
+        this.channels = channels;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${app.budget.alert.dispatch-interval-ms:5000}")
+    public void dispatchPending() {
+        List<BudgetAlertChannel> enabled = channels.stream().filter(BudgetAlertChannel::isEnabled).toList();
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            List<BudgetAlert> batch = transaction.execute(status -> claimBatch());
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+            Map<Long, String> errors = deliver(batch, enabled);
+            transaction.executeWithoutResult(status -> recordResults(batch, errors));
+            // Stop on short batches and on failures; failed channels are retried on the next run
+            if (batch.size() < batchSize || !errors.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove sent and failed alerts older than the retention period
+     */
+    @Scheduled(cron = "${app.budget.alert.cleanup-cron:0 45 3 * * *}")
+    public void deleteProcessed() {
+        Integer deleted = transaction.execute(status ->
+                budgetAlertRepository.deleteProcessedBefore(LocalDateTime.now().minusDays(retentionDays)));
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} processed budget alert(s)", deleted);
+        }
+    }
+
+    private List<BudgetAlert> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BudgetAlert> batch = budgetAlertRepository.lockClaimableBatch(
+                batchSize, now.minus(Duration.ofMillis(claimTimeoutMs)));
+        for (BudgetAlert alert : batch) {
+            alert.setStatus(Status.IN_PROGRESS);
+            alert.setClaimedAt(now);
+        }
+        return batch;
+    }
+
+    /**
+     * Deliver each alert through the enabled channels that have not delivered it yet
+     *
+     * @return error per alert id for the alerts at least one channel failed to deliver
+     */
+    private Map<Long, String> deliver(List<BudgetAlert> batch, List<BudgetAlertChannel> enabled) {
+        Map<Long, String> errors = new HashMap<>();
+        for (BudgetAlertChannel channel : enabled) {
+            List<BudgetAlert> pending = batch.stream().filter(alert -> !alert.isDeliveredTo(channel.name())).toList();
+            if (pending.isEmpty()) {
+                continue;
+            }
+
+            Set<Long> delivered;
+            String error;
+            try {
+                delivered = channel.deliver(pending);
+                error = channel.name() + ": not accepted";
+            } catch (Exception e) {
+                delivered = Set.of();
+                error = channel.name() + ": " + e.getMessage();
+            }
+
+            int failed = 0;
+            for (BudgetAlert alert : pending) {
+                if (delivered.contains(alert.getId())) {
+                    alert.markDeliveredTo(channel.name());
+                } else {
+                    failed++;
+                    errors.merge(alert.getId(), error, (first, next) -> first + "; " + next);
+                }
+            }
+            deliveries(channel, "success").increment(pending.size() - failed);
+            if (failed > 0) {
+                deliveries(channel, "error").increment(failed);
+                log.warn("Delivering {} of {} budget alert(s) through {} failed: {}",
+                        failed, pending.size(), channel.name(), error);
+            }
+        }
+        return errors;
+    }
+
+    private void recordResults(List<BudgetAlert> batch, Map<Long, String> errors) {
+        LocalDateTime now = LocalDateTime.now();
+        for (BudgetAlert alert : batch) {
+            alert.setAttempts(alert.getAttempts() + 1);
+            alert.setClaimedAt(null);
+            String error = errors.get(alert.getId());
+            if (error == null) {
+                alert.setStatus(Status.SENT);
+                alert.setDispatchedAt(now);
+                alert.setLastError(null);
+            } else {
+                alert.setLastError(error.length() <= MAX_ERROR_LENGTH
+                        ? error : error.substring(0, MAX_ERROR_LENGTH));
+                alert.setStatus(alert.getAttempts() >= maxAttempts ? Status.FAILED : Status.PENDING);
+            }
+        }
+        budgetAlertRepository.saveAll(batch);
+    }
+
+    private Counter deliveries(BudgetAlertChannel channel, String result) {
+        return Counter.builder("app.budget.alert.deliveries")
+                .description("Budget alerts delivered per channel")
+                .tag("channel", channel.name())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
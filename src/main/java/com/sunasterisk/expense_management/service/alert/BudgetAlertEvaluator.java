@@ -0,0 +1,46 @@
+package com.sunasterisk.expense_management.service.alert;
+
+import com.sunasterisk.expense_management.repository.BudgetAlertRepository;
+import com.sunasterisk.expense_management.repository.BudgetRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Evaluates alert thresholds inline, right after an expense write changed a budget's spent amount.
+ * Runs in the expense transaction on budget rows that are already locked, so an alert is queued in
+ * the outbox exactly when the write that crossed the threshold commits. The common case (no threshold
+ * crossed) costs a single INSERT ... SELECT that matches no row.
+ */
+@Component
+public class BudgetAlertEvaluator {
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetAlertRepository budgetAlertRepository;
+
+    public BudgetAlertEvaluator(BudgetRepository budgetRepository, BudgetAlertRepository budgetAlertRepository) {
+        this.budgetRepository = budgetRepository;
+        this.budgetAlertRepository = budgetAlertRepository;
+    }
+
+    /**
+     * @param delta the change just applied to the spent amount of the category and overall budgets
+     */
+    public void onSpentAmountChanged(Long userId, Long categoryId, int year, int month, BigDecimal delta) {
+        if (delta.signum() > 0) {
+            if (budgetAlertRepository.queueThresholdAlerts(userId, categoryId, year, month) > 0) {
+                budgetRepository.markThresholdAlertsSent(userId, categoryId, year, month);
+            }
+        } else {
+            budgetRepository.rearmAlertsBelowThreshold(userId, categoryId, year, month);
+        }
+    }
+
+    /**
+     * Queue the alert of a budget whose limit or threshold was just edited and flushed, if the spent amount
+     * already reaches the new threshold. The caller flags the budget as alerted when this returns true.
+     */
+    public boolean onBudgetUpdated(Long budgetId) {
+        return budgetAlertRepository.queueThresholdAlert(budgetId) > 0;
+    }
+}
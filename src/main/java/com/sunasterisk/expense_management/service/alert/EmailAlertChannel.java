@@ -0,0 +1,98 @@
+package com.sunasterisk.expense_management.service.alert;
+
+import com.sunasterisk.expense_management.entity.BudgetAlert;
+import com.sunasterisk.expense_management.entity.User;
+import com.sunasterisk.expense_management.repository.UserRepository;
+import com.sunasterisk.expense_management.util.MessageUtil;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Emails each alert to the budget owner. Needs spring.mail.host (e.g. a local SMTP stand-in such as
+ * MailHog during development); all messages of a batch are sent over one SMTP connection, and only
+ * the messages the server rejected are reported as undelivered.
+ */
+@Component
+public class EmailAlertChannel implements BudgetAlertChannel {
+
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final UserRepository userRepository;
+    private final MessageUtil messageUtil;
+
+    @Value("${app.budget.alert.channels.email.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.budget.alert.channels.email.from:no-reply@expense-management.local}")
+    private String from;
+
+    public EmailAlertChannel(ObjectProvider<JavaMailSender> mailSender,
+                             UserRepository userRepository,
+                             MessageUtil messageUtil) {
+        this.mailSender = mailSender;
+        this.userRepository = userRepository;
+        this.messageUtil = messageUtil;
+    }
+
+    @Override
+    public String name() {
+        return "email";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled && mailSender.getIfAvailable() != null;
+    }
+
+    @Override
+    public Set<Long> deliver(List<BudgetAlert> alerts) {
+        Map<Long, User> users = userRepository.findAllById(alerts.stream().map(BudgetAlert::getUserId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // Alerts of deleted users have no recipient and count as delivered
+        Set<Long> delivered = new HashSet<>();
+        Map<SimpleMailMessage, Long> messages = new IdentityHashMap<>(alerts.size());
+        for (BudgetAlert alert : alerts) {
+            User user = users.get(alert.getUserId());
+            delivered.add(alert.getId());
+            if (user == null) {
+                continue;
+            }
+            Object[] args = {alert.getBudgetName(), String.valueOf(alert.getMonth()), String.valueOf(alert.getYear()),
+                    alert.getSpentAmount().toPlainString(), alert.getAmountLimit().toPlainString(),
+                    String.valueOf(alert.getAlertThreshold())};
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(from);
+            message.setTo(user.getEmail());
+            message.setSubject(messageUtil.getMessage("budget.alert.email.subject", args));
+            message.setText(messageUtil.getMessage("budget.alert.email.body", args));
+            messages.put(message, alert.getId());
+        }
+
+        if (messages.isEmpty()) {
+            return delivered;
+        }
+        try {
+            mailSender.getObject().send(messages.keySet().toArray(SimpleMailMessage[]::new));
+        } catch (MailSendException e) {
+            // Keyed by the original messages; empty when the failure is not per message
+            if (e.getFailedMessages().isEmpty()) {
+                throw e;
+            }
+            e.getFailedMessages().keySet().forEach(failed -> delivered.remove(messages.get(failed)));
+        }
+        return delivered;
+    }
+}
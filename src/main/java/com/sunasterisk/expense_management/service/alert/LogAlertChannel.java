@@ -0,0 +1,42 @@
+package com.sunasterisk.expense_management.service.alert;
+
+import com.sunasterisk.expense_management.entity.BudgetAlert;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Writes each alert to the application log
+ */
+@Slf4j
+@Component
+public class LogAlertChannel implements BudgetAlertChannel {
+
+    @Value("${app.budget.alert.channels.log.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Set<Long> deliver(List<BudgetAlert> alerts) {
+        for (BudgetAlert alert : alerts) {
+            log.info("Budget alert: user {} budget {} ({}) {}/{} spent {} of {} (threshold {}%)",
+                    alert.getUserId(), alert.getBudgetId(), alert.getBudgetName(),
+                    alert.getMonth(), alert.getYear(), alert.getSpentAmount(), alert.getAmountLimit(),
+                    alert.getAlertThreshold());
+        }
+        return alerts.stream().map(BudgetAlert::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,72 @@
+package com.sunasterisk.expense_management.service.alert;
+
+import com.sunasterisk.expense_management.entity.BudgetAlert;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * POSTs each batch of alerts as JSON to a configured URL (disabled while no URL is set).
+ * One request per batch, so the batch is delivered or failed as a whole.
+ */
+@Component
+public class WebhookAlertChannel implements BudgetAlertChannel {
+
+    /**
+     * JSON shape of one alert in the webhook payload
+     */
+    public record Payload(Long alertId, Long budgetId, Long userId, Long categoryId, String budgetName,
+                          Integer year, Integer month, BigDecimal spentAmount, BigDecimal amountLimit,
+                          Integer alertThreshold) {
+
+        static Payload of(BudgetAlert alert) {
+            return new Payload(alert.getId(), alert.getBudgetId(), alert.getUserId(), alert.getCategoryId(),
+                    alert.getBudgetName(), alert.getYear(), alert.getMonth(), alert.getSpentAmount(),
+                    alert.getAmountLimit(), alert.getAlertThreshold());
+        }
+    }
+
+    private final RestClient restClient;
+    private final String url;
+
+    public WebhookAlertChannel(@Value("${app.budget.alert.channels.webhook.url:}") String url,
+                               @Value("${app.budget.alert.channels.webhook.timeout-ms:3000}") long timeoutMs) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(timeoutMs));
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        this.url = url;
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !url.isBlank();
+    }
+
+    @Override
+    public Set<Long> deliver(List<BudgetAlert> alerts) {
+        restClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(alerts.stream().map(Payload::of).toList())
+                .retrieve()
+                .toBodilessEntity();
+        return alerts.stream().map(BudgetAlert::getId).collect(Collectors.toSet());
+    }
+}
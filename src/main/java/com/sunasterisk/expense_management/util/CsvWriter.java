@@ -0,0 +1,262 @@
+package com.sunasterisk.expense_management.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Buffered CSV writer used by the export services.
+ * Escapes values directly into its own char buffer (no intermediate String per field)
+ * and formats dates digit by digit instead of going through DateTimeFormatter.
+ * Not thread-safe - create one instance per export.
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final char BOM = '\ufeff';
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Writer out;
+    private final char[] buffer;
+    private int position;
+    private boolean firstField = true;
+
+    public CsvWriter(Writer out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvWriter(Writer out, int bufferSize) {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("bufferSize must be at least 64, but was: " + bufferSize);
+        }
+        this.out = out;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Write the UTF-8 byte order mark so Excel detects the encoding
+     */
+    public CsvWriter writeBom() throws IOException {
+        append(BOM);
+        return this;
+    }
+
+    /**
+     * Write a pre-rendered line (e.g. a cached header row) followed by a line separator
+     */
+    public CsvWriter writeRawLine(String line) throws IOException {
+        append(line);
+        append(LINE_SEPARATOR);
+        firstField = true;
+        return this;
+    }
+
+    /**
+     * Write a text field, quoting it only if it contains a separator, quote or line break.
+     * Null is written as an empty field.
+     */
+    public CsvWriter field(String value) throws IOException {
+        separate();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (!needsQuoting(value)) {
+            append(value);
+            return this;
+        }
+        append(QUOTE);
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == QUOTE) {
+                append(QUOTE);
+            }
+            append(c);
+        }
+        append(QUOTE);
+        return this;
+    }
+
+    public CsvWriter field(long value) throws IOException {
+        separate();
+        append(Long.toString(value));
+        return this;
+    }
+
+    public CsvWriter field(Long value) throws IOException {
+        return value != null ? field(value.longValue()) : field((String) null);
+    }
+
+    public CsvWriter field(BigDecimal value) throws IOException {
+        return field(value != null ? value.toString() : null);
+    }
+
+    public CsvWriter field(Boolean value) throws IOException {
+        return field(value != null ? value.toString() : null);
+    }
+
+    public CsvWriter field(Enum<?> value) throws IOException {
+        return field(value != null ? value.name() : null);
+    }
+
+    /**
+     * Write a date as yyyy-MM-dd
+     */
+    public CsvWriter field(LocalDate value) throws IOException {
+        separate();
+        if (value != null) {
+            writeDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        }
+        return this;
+    }
+
+    /**
+     * Write a date-time as yyyy-MM-dd HH:mm:ss
+     */
+    public CsvWriter field(LocalDateTime value) throws IOException {
+        separate();
+        if (value != null) {
+            writeDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+            append(' ');
+            writeTwoDigits(value.getHour());
+            append(':');
+            writeTwoDigits(value.getMinute());
+            append(':');
+            writeTwoDigits(value.getSecond());
+        }
+        return this;
+    }
+
+    /**
+     * Write a year-month as yyyy-MM
+     */
+    public CsvWriter yearMonthField(int year, int month) throws IOException {
+        separate();
+        writeFourDigits(year);
+        append('-');
+        writeTwoDigits(month);
+        return this;
+    }
+
+    /**
+     * Terminate the current row
+     */
+    public CsvWriter endRow() throws IOException {
+        append(LINE_SEPARATOR);
+        firstField = true;
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushBuffer();
+        out.close();
+    }
+
+    /**
+     * Render a full row as an escaped CSV line (without line separator).
+     * Intended for values that are computed once and cached, such as header rows.
+     */
+    public static String formatRow(String... values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARATOR);
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (needsQuoting(value)) {
+                sb.append(QUOTE).append(value.replace("\"", "\"\"")).append(QUOTE);
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean needsQuoting(String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == SEPARATOR || c == QUOTE || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void separate() throws IOException {
+        if (firstField) {
+            firstField = false;
+        } else {
+            append(SEPARATOR);
+        }
+    }
+
+    private void writeDate(int year, int month, int day) throws IOException {
+        writeFourDigits(year);
+        append('-');
+        writeTwoDigits(month);
+        append('-');
+        writeTwoDigits(day);
+    }
+
+    private void writeFourDigits(int value) throws IOException {
+        if (value < 0 || value > 9999) {
+            append(Integer.toString(value));
+            return;
+        }
+        append((char) ('0' + value / 1000));
+        append((char) ('0' + value / 100 % 10));
+        append((char) ('0' + value / 10 % 10));
+        append((char) ('0' + value % 10));
+    }
+
+    private void writeTwoDigits(int value) throws IOException {
+        append((char) ('0' + value / 10));
+        append((char) ('0' + value % 10));
+    }
+
+    private void append(char c) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = c;
+    }
+
+    private void append(String value) throws IOException {
+        int length = value.length();
+        int offset = 0;
+        while (offset < length) {
+            if (position == buffer.length) {
+                flushBuffer();
+            }
+            int chunk = Math.min(buffer.length - position, length - offset);
+            value.getChars(offset, offset + chunk, buffer, position);
+            position += chunk;
+            offset += chunk;
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -3,15 +3,15 @@ package com.sunasterisk.expense_management.util;
 import com.sunasterisk.expense_management.entity.User;
 import com.sunasterisk.expense_management.exception.ResourceNotFoundException;
 import com.sunasterisk.expense_management.repository.UserRepository;
+import com.sunasterisk.expense_management.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
 
 /**
- * Request-scoped bean that caches the current authenticated user
- * to avoid redundant database queries within the same request.
+ * Request-scoped resolver of the current authenticated user, shared by all services.
+ * The user is identified from the security principal and returned as a reference proxy,
+ * so no query is issued unless a non-id property is actually read.
  */
 @Component
 @RequestScope
@@ -22,23 +22,46 @@ public class CurrentUserHolder {
     private final MessageUtil messageUtil;
     private User cachedUser;
 
+    /**
+     * Get the id of the current authenticated user, without touching the database.
+     *
+     * @return the current user's id, or null if the request is not authenticated
+     */
+    public Long getCurrentUserId() {
+        AuthenticatedUser principal = AuthenticatedUser.current();
+        return principal != null ? principal.getId() : null;
+    }
+
+    /**
+     * Get the current authenticated principal (id, email, role and active status).
+     *
+     * @return the principal, or null if the request is not authenticated
+     */
+    public AuthenticatedUser getPrincipal() {
+        return AuthenticatedUser.current();
+    }
+
+    /**
+     * Whether the current user has the admin role
+     */
+    public boolean isAdmin() {
+        AuthenticatedUser principal = AuthenticatedUser.current();
+        return principal != null && principal.isAdmin();
+    }
+
     /**
      * Get the current authenticated user, cached for the request lifetime.
+     * The returned entity is a lazy reference - only its id is available without a query.
      *
-     * @return the current authenticated user
-     * @throws ResourceNotFoundException if user not found
+     * @return the current authenticated user, or null if the request is not authenticated
      */
     public User getCurrentUser() {
         if (cachedUser == null) {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated()
-                    || "anonymousUser".equals(authentication.getPrincipal())) {
+            Long userId = getCurrentUserId();
+            if (userId == null) {
                 return null;
             }
-            String email = authentication.getName();
-            cachedUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            messageUtil.getMessage("user.not.found")));
+            cachedUser = userRepository.getReferenceById(userId);
         }
         return cachedUser;
     }
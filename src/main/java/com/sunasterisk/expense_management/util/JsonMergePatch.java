@@ -0,0 +1,75 @@
+package com.sunasterisk.expense_management.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * JSON Merge Patch (RFC 7386) helpers used for compact activity-log payloads.
+ * A patch holds only the changed fields; a removed field is written as null.
+ * Full snapshots are valid patches too, so older logs replay the same way.
+ */
+public final class JsonMergePatch {
+
+    private JsonMergePatch() {
+    }
+
+    /**
+     * Compute the merge patch that turns {@code before} into {@code after}
+     * (field-level comparison, nested objects are diffed recursively).
+     *
+     * @return the patch, empty if nothing changed
+     */
+    public static ObjectNode diff(JsonNode before, JsonNode after) {
+        ObjectNode patch = JsonNodeFactory.instance.objectNode();
+
+        Iterator<Map.Entry<String, JsonNode>> afterFields = after.fields();
+        while (afterFields.hasNext()) {
+            Map.Entry<String, JsonNode> field = afterFields.next();
+            JsonNode oldValue = before.get(field.getKey());
+            JsonNode newValue = field.getValue();
+            if (oldValue == null || !oldValue.equals(newValue)) {
+                if (oldValue != null && oldValue.isObject() && newValue.isObject()) {
+                    patch.set(field.getKey(), diff(oldValue, newValue));
+                } else {
+                    patch.set(field.getKey(), newValue);
+                }
+            }
+        }
+
+        Iterator<String> beforeNames = before.fieldNames();
+        while (beforeNames.hasNext()) {
+            String name = beforeNames.next();
+            if (!after.has(name)) {
+                patch.putNull(name);
+            }
+        }
+        return patch;
+    }
+
+    /**
+     * Apply a merge patch to a copy of the target document
+     */
+    public static JsonNode apply(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch.deepCopy();
+        }
+
+        ObjectNode result = target != null && target.isObject()
+                ? ((ObjectNode) target).deepCopy()
+                : JsonNodeFactory.instance.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), apply(result.get(field.getKey()), field.getValue()));
+            }
+        }
+        return result;
+    }
+}
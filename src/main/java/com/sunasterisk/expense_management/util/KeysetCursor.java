@@ -0,0 +1,63 @@
+package com.sunasterisk.expense_management.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in a list ordered by (created_at, id) descending, used for keyset pagination.
+ * A forward cursor points past the last row of a page (next page); a backward cursor points
+ * before the first row (previous page). Encoded as URL-safe Base64 of "direction|createdAt|id".
+ */
+public final class KeysetCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+    private final boolean backward;
+
+    private KeysetCursor(LocalDateTime createdAt, Long id, boolean backward) {
+        this.createdAt = createdAt;
+        this.id = id;
+        this.backward = backward;
+    }
+
+    public static String encode(LocalDateTime createdAt, Long id, boolean backward) {
+        String raw = (backward ? "p" : "n") + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor token.
+     *
+     * @return the cursor, or null for a missing/blank token (first page)
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !(parts[0].equals("n") || parts[0].equals("p"))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new KeysetCursor(LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]), parts[0].equals("p"));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isBackward() {
+        return backward;
+    }
+}
@@ -0,0 +1,112 @@
+package com.sunasterisk.expense_management.util;
+
+import com.sunasterisk.expense_management.dto.CursorPageResponse;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset (seek) pagination over entities ordered by (createdAt, id) descending.
+ * Each page is read with a range predicate on the sort key and LIMIT size + 1,
+ * so deep pages cost the same as the first one and no COUNT query is issued.
+ */
+public final class KeysetPager {
+
+    private static final String CREATED_AT = "createdAt";
+    private static final String ID = "id";
+
+    private KeysetPager() {
+    }
+
+    /**
+     * Read one page.
+     *
+     * @param repository  repository of the entity
+     * @param filter      filter specification (may be null)
+     * @param cursorToken cursor from a previous page, null or blank for the first page
+     * @param size        page size
+     * @param createdAt   accessor of the entity's creation time
+     * @param id          accessor of the entity's id
+     * @param mapper      entity to response mapper
+     * @param fetchPaths  associations fetched together with the page (avoids N+1 in the mapper)
+     */
+    public static <E, R> CursorPageResponse<R> fetch(JpaSpecificationExecutor<E> repository,
+                                                     Specification<E> filter,
+                                                     String cursorToken,
+                                                     int size,
+                                                     Function<E, LocalDateTime> createdAt,
+                                                     Function<E, Long> id,
+                                                     Function<E, R> mapper,
+                                                     String... fetchPaths) {
+        KeysetCursor cursor = KeysetCursor.decode(cursorToken);
+        boolean backward = cursor != null && cursor.isBackward();
+
+        Specification<E> spec = Specification.where(filter);
+        if (cursor != null) {
+            spec = spec.and(seek(cursor));
+        }
+        Sort sort = backward
+                ? Sort.by(Sort.Order.asc(CREATED_AT), Sort.Order.asc(ID))
+                : Sort.by(Sort.Order.desc(CREATED_AT), Sort.Order.desc(ID));
+
+        List<E> rows = repository.findBy(spec, query -> fetchPaths.length > 0
+                ? query.sortBy(sort).limit(size + 1).project(fetchPaths).all()
+                : query.sortBy(sort).limit(size + 1).all());
+
+        boolean more = rows.size() > size;
+        List<E> page = new ArrayList<>(more ? rows.subList(0, size) : rows);
+        if (backward) {
+            Collections.reverse(page);
+        }
+
+        // Reading forward, a further page exists if we over-read; reading backward, the page we came from is next
+        boolean hasNext = backward || more;
+        boolean hasPrevious = backward ? more : cursor != null;
+
+        String nextCursor = null;
+        String previousCursor = null;
+        if (!page.isEmpty()) {
+            E first = page.get(0);
+            E last = page.get(page.size() - 1);
+            if (hasNext) {
+                nextCursor = KeysetCursor.encode(createdAt.apply(last), id.apply(last), false);
+            }
+            if (hasPrevious) {
+                previousCursor = KeysetCursor.encode(createdAt.apply(first), id.apply(first), true);
+            }
+        }
+
+        return CursorPageResponse.<R>builder()
+                .content(page.stream().map(mapper).toList())
+                .pageSize(size)
+                .nextCursor(nextCursor)
+                .previousCursor(previousCursor)
+                .hasNext(nextCursor != null)
+                .hasPrevious(previousCursor != null)
+                .build();
+    }
+
+    /**
+     * Rows strictly after the cursor in the reading direction
+     */
+    private static <E> Specification<E> seek(KeysetCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor.isBackward()) {
+                return cb.or(
+                        cb.greaterThan(root.get(CREATED_AT), cursor.getCreatedAt()),
+                        cb.and(cb.equal(root.get(CREATED_AT), cursor.getCreatedAt()),
+                                cb.greaterThan(root.get(ID), cursor.getId())));
+            }
+            return cb.or(
+                    cb.lessThan(root.get(CREATED_AT), cursor.getCreatedAt()),
+                    cb.and(cb.equal(root.get(CREATED_AT), cursor.getCreatedAt()),
+                            cb.lessThan(root.get(ID), cursor.getId())));
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.sunasterisk.expense_management.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Masks sensitive values (passwords, tokens, secrets) in request bodies before they are logged.
+ * JSON is streamed token by token in a single pass, so nested objects and arrays are covered
+ * without building a tree or running regular expressions over the body.
+ */
+public final class SensitiveDataMasker {
+
+    public static final String MASK = "***";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // Lower-case field names whose values are never logged
+    private static final Set<String> SENSITIVE_FIELDS = Set.of(
+            "password", "currentpassword", "newpassword", "confirmpassword",
+            "token", "accesstoken", "refreshtoken", "secret", "apikey");
+
+    private SensitiveDataMasker() {
+    }
+
+    /**
+     * Whether a field or parameter name holds a sensitive value
+     */
+    public static boolean isSensitive(String name) {
+        return name != null && SENSITIVE_FIELDS.contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Re-emit a JSON body in compact form with sensitive values replaced by {@value #MASK}.
+     *
+     * @return the masked JSON, or null if the content is not complete, valid JSON
+     */
+    public static String maskJson(byte[] content, int length) {
+        StringWriter writer = new StringWriter(length);
+        try (JsonParser parser = JSON_FACTORY.createParser(content, 0, length);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME && isSensitive(parser.currentName())) {
+                    generator.writeFieldName(parser.currentName());
+                    JsonToken value = parser.nextToken();
+                    if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                    }
+                    generator.writeString(MASK);
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Mask sensitive parameters of an application/x-www-form-urlencoded body in a single pass
+     */
+    public static String maskFormUrlEncoded(String body) {
+        StringBuilder masked = new StringBuilder(body.length());
+        int start = 0;
+        while (start <= body.length()) {
+            int end = body.indexOf('&', start);
+            if (end < 0) {
+                end = body.length();
+            }
+            int equals = body.indexOf('=', start);
+            if (start > 0) {
+                masked.append('&');
+            }
+            if (equals > start && equals < end
+                    && isSensitive(decode(body.substring(start, equals)))) {
+                masked.append(body, start, equals + 1).append(MASK);
+            } else {
+                masked.append(body, start, end);
+            }
+            start = end + 1;
+        }
+        return masked.toString();
+    }
+
+    private static String decode(String name) {
+        try {
+            return URLDecoder.decode(name, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+-- =============================================
+-- Migration: Create token_revocations table
+-- Purpose: Persist JWT revocations (logout, user deactivation) across restarts
+-- Date: 2026-10-19
+-- =============================================
+
+CREATE TABLE IF NOT EXISTS token_revocations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    jti VARCHAR(64) COMMENT 'ID của token bị thu hồi (NULL = mốc thu hồi theo người dùng)',
+    user_id BIGINT COMMENT 'Người dùng sở hữu token',
+    issued_before DATETIME(3) COMMENT 'Thu hồi mọi token phát hành trước thời điểm này',
+    expires_at DATETIME(3) NOT NULL COMMENT 'Thời điểm có thể xóa bản ghi (token đã hết hạn)',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    UNIQUE INDEX idx_revocation_jti (jti),
+    INDEX idx_revocation_user (user_id),
+    INDEX idx_revocation_expires (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Bảng token JWT đã bị thu hồi';
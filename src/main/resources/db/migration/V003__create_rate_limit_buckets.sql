@@ -0,0 +1,14 @@
+-- =============================================
+-- Migration: Create rate_limit_buckets table
+-- Purpose: Shared Bucket4j state for app.security.rate-limit.store=jdbc
+-- Date: 2026-10-19
+-- =============================================
+
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    bucket_key VARCHAR(191) PRIMARY KEY COMMENT 'Khóa bucket (vd: login:ip:<ip>, login:account:<email>)',
+    state VARBINARY(1024) NOT NULL COMMENT 'Trạng thái bucket đã tuần tự hóa (Bucket4j)',
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    INDEX idx_rate_limit_updated (updated_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Bảng trạng thái giới hạn tần suất dùng chung giữa các node';
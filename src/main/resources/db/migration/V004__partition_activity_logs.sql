@@ -0,0 +1,31 @@
+-- =============================================
+-- Migration: Partition activity_logs by month
+-- Purpose: Retention drops whole partitions instead of deleting rows,
+--          and date-filtered admin queries only scan the matching months.
+--          Only the catch-all pmax partition is created here; monthly partitions relative to the
+--          current date are split off pmax by the application (ActivityLogPartitionManager) at startup
+--          and by its daily maintenance job.
+-- Date: 2026-10-19
+-- =============================================
+
+-- Partitioned InnoDB tables cannot have foreign keys; users are detached by the application on delete
+SET @fk_name = (
+    SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'activity_logs' AND CONSTRAINT_TYPE = 'FOREIGN KEY'
+    LIMIT 1
+);
+SET @drop_fk = IF(@fk_name IS NULL, 'SELECT 1',
+    CONCAT('ALTER TABLE activity_logs DROP FOREIGN KEY ', @fk_name));
+PREPARE stmt FROM @drop_fk;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- The partitioning column must be part of the primary key
+ALTER TABLE activity_logs
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE activity_logs
+    PARTITION BY RANGE COLUMNS (created_at) (
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
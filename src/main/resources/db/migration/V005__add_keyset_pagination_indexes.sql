@@ -0,0 +1,12 @@
+-- =============================================
+-- Migration: Add keyset pagination indexes
+-- Purpose: Newest-first cursor pagination on expenses and incomes seeks on (created_at, id),
+--          globally for admin lists and per user for the API
+-- Date: 2026-10-19
+-- =============================================
+
+CREATE INDEX idx_expenses_created ON expenses (created_at, id);
+CREATE INDEX idx_expenses_user_created ON expenses (user_id, created_at, id);
+
+CREATE INDEX idx_incomes_created ON incomes (created_at, id);
+CREATE INDEX idx_incomes_user_created ON incomes (user_id, created_at, id);
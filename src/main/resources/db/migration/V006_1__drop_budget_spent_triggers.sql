@@ -0,0 +1,11 @@
+-- =============================================
+-- Migration: Drop the budget spent-amount triggers
+-- Purpose: Budgets are maintained by atomic spent_amount deltas applied in the same transaction
+--          as the expense write (plus nightly reconciliation); the triggers' full re-sum of the
+--          month on every expense insert/update/delete would double count them.
+-- Date: 2026-10-19
+-- =============================================
+
+DROP TRIGGER IF EXISTS trg_expense_after_insert;
+DROP TRIGGER IF EXISTS trg_expense_after_update;
+DROP TRIGGER IF EXISTS trg_expense_after_delete;
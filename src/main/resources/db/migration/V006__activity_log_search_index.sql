@@ -0,0 +1,39 @@
+-- =============================================
+-- Migration: Activity log search and audit lookup indexes
+-- Purpose: Composite (entity_type, entity_id, created_at) index for per-entity audit history,
+--          and a FULLTEXT-indexed side table for searching descriptions and entity keys
+--          (partitioned tables cannot have FULLTEXT indexes). The side table repeats the columns
+--          the admin list filters on, so filters apply before the search result is capped.
+-- Date: 2026-10-19
+-- =============================================
+
+ALTER TABLE activity_logs
+    DROP INDEX idx_logs_entity,
+    ADD INDEX idx_logs_entity_created (entity_type, entity_id, created_at);
+
+CREATE TABLE IF NOT EXISTS activity_log_search (
+    log_id BIGINT PRIMARY KEY COMMENT 'ID của nhật ký hoạt động',
+    created_at DATETIME NOT NULL COMMENT 'Thời điểm tạo nhật ký (để lọc theo ngày và cắt tỉa phân vùng)',
+    search_text TEXT NOT NULL COMMENT 'Khóa đối tượng (vd: Expense_42) và mô tả',
+    user_id BIGINT COMMENT 'Người thực hiện (sao chép để lọc cùng tìm kiếm)',
+    action VARCHAR(30) NOT NULL COMMENT 'Loại hành động (sao chép để lọc cùng tìm kiếm)',
+    entity_type VARCHAR(50) NOT NULL COMMENT 'Loại đối tượng (sao chép để lọc cùng tìm kiếm)',
+    entity_id BIGINT COMMENT 'ID của đối tượng (sao chép để lọc cùng tìm kiếm)',
+
+    INDEX idx_log_search_created (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Chỉ mục tìm kiếm toàn văn cho nhật ký hoạt động';
+
+-- Backfill existing logs, then build the FULLTEXT index once (faster than maintaining it row by row)
+INSERT IGNORE INTO activity_log_search (log_id, created_at, search_text, user_id, action, entity_type, entity_id)
+SELECT id,
+       created_at,
+       CONCAT(IF(entity_id IS NULL, entity_type, CONCAT(entity_type, '_', entity_id)),
+              IF(description IS NULL, '', CONCAT(' ', description))),
+       user_id,
+       action,
+       entity_type,
+       entity_id
+FROM activity_logs;
+
+ALTER TABLE activity_log_search ADD FULLTEXT INDEX ft_log_search_text (search_text);
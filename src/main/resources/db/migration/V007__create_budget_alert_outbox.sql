@@ -0,0 +1,30 @@
+-- =============================================
+-- Migration: Create budget_alert_outbox table
+-- Purpose: Budget alerts are queued in the expense transaction that crosses the threshold
+--          and delivered in batches by BudgetAlertDispatcher
+-- Date: 2026-10-19
+-- =============================================
+
+CREATE TABLE IF NOT EXISTS budget_alert_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    budget_id BIGINT NOT NULL COMMENT 'Ngân sách vượt ngưỡng',
+    user_id BIGINT NOT NULL COMMENT 'Chủ ngân sách (người nhận cảnh báo)',
+    category_id BIGINT COMMENT 'NULL = ngân sách tổng',
+    budget_name VARCHAR(200) NOT NULL COMMENT 'Tên ngân sách tại thời điểm cảnh báo',
+    year INT NOT NULL COMMENT 'Năm',
+    month INT NOT NULL COMMENT 'Tháng (1-12)',
+    spent_amount DECIMAL(15, 2) NOT NULL COMMENT 'Số tiền đã chi khi vượt ngưỡng',
+    amount_limit DECIMAL(15, 2) NOT NULL COMMENT 'Hạn mức ngân sách',
+    alert_threshold INT NOT NULL COMMENT 'Ngưỡng cảnh báo (%)',
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' COMMENT 'PENDING, IN_PROGRESS, SENT, FAILED',
+    delivered_channels VARCHAR(200) NOT NULL DEFAULT '' COMMENT 'Các kênh đã gửi thành công, phân tách bởi dấu phẩy',
+    attempts INT NOT NULL DEFAULT 0 COMMENT 'Số lần đã thử gửi',
+    last_error VARCHAR(500) COMMENT 'Lỗi của lần gửi gần nhất',
+    claimed_at DATETIME COMMENT 'Thời điểm một tiến trình nhận lô để gửi (IN_PROGRESS)',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    dispatched_at DATETIME COMMENT 'Thời điểm gửi thành công',
+
+    INDEX idx_alert_outbox_status (status, id),
+    INDEX idx_alert_outbox_budget (budget_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Hộp thư đi cảnh báo ngân sách (transactional outbox)';
@@ -0,0 +1,56 @@
+-- =============================================
+-- Migration: Add covering date-range indexes on expenses and incomes
+-- Purpose: Reports filter on user_id plus a half-open date range and aggregate amount,
+--          budget sums additionally filter on category_id; both are answered from the index alone.
+--          The single-column user_id indexes become redundant (the new indexes lead with user_id
+--          and also back the foreign keys).
+-- Date: 2026-10-19
+-- =============================================
+
+CREATE INDEX idx_expenses_user_date ON expenses (user_id, expense_date, category_id, amount);
+CREATE INDEX idx_expenses_user_category_date ON expenses (user_id, category_id, expense_date, amount);
+DROP INDEX idx_expenses_user ON expenses;
+
+CREATE INDEX idx_incomes_user_date ON incomes (user_id, income_date, category_id, amount);
+CREATE INDEX idx_incomes_user_category_date ON incomes (user_id, category_id, income_date, amount);
+DROP INDEX idx_incomes_user ON incomes;
+
+-- Manual recalculation procedure, now on a half-open date range
+DROP PROCEDURE IF EXISTS sp_update_budget_spent_amount;
+
+DELIMITER //
+
+CREATE PROCEDURE sp_update_budget_spent_amount(IN p_user_id BIGINT, IN p_year INT, IN p_month INT)
+BEGIN
+    DECLARE v_from DATE DEFAULT MAKEDATE(p_year, 1) + INTERVAL (p_month - 1) MONTH;
+    DECLARE v_to DATE DEFAULT MAKEDATE(p_year, 1) + INTERVAL p_month MONTH;
+
+    UPDATE budgets b
+    SET b.spent_amount = (
+        SELECT COALESCE(SUM(e.amount), 0)
+        FROM expenses e
+        WHERE e.user_id = p_user_id
+        AND e.expense_date >= v_from
+        AND e.expense_date < v_to
+    )
+    WHERE b.user_id = p_user_id
+    AND b.year = p_year
+    AND b.month = p_month
+    AND b.category_id IS NULL;
+
+    UPDATE budgets b
+    SET b.spent_amount = (
+        SELECT COALESCE(SUM(e.amount), 0)
+        FROM expenses e
+        WHERE e.user_id = p_user_id
+        AND e.category_id = b.category_id
+        AND e.expense_date >= v_from
+        AND e.expense_date < v_to
+    )
+    WHERE b.user_id = p_user_id
+    AND b.year = p_year
+    AND b.month = p_month
+    AND b.category_id IS NOT NULL;
+END //
+
+DELIMITER ;
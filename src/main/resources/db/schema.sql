@@ -77,10 +77,13 @@ CREATE TABLE IF NOT EXISTS expenses (
 
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE RESTRICT,
-    INDEX idx_expenses_user (user_id),
+    INDEX idx_expenses_user_date (user_id, expense_date, category_id, amount),
+    INDEX idx_expenses_user_category_date (user_id, category_id, expense_date, amount),
     INDEX idx_expenses_category (category_id),
     INDEX idx_expenses_date (expense_date),
-    INDEX idx_expenses_amount (amount)
+    INDEX idx_expenses_amount (amount),
+    INDEX idx_expenses_created (created_at, id),
+    INDEX idx_expenses_user_created (user_id, created_at, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
 COMMENT='Bảng chi tiêu';
 
@@ -103,9 +106,12 @@ CREATE TABLE IF NOT EXISTS incomes (
 
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE RESTRICT,
-    INDEX idx_incomes_user (user_id),
+    INDEX idx_incomes_user_date (user_id, income_date, category_id, amount),
+    INDEX idx_incomes_user_category_date (user_id, category_id, income_date, amount),
     INDEX idx_incomes_category (category_id),
-    INDEX idx_incomes_date (income_date)
+    INDEX idx_incomes_date (income_date),
+    INDEX idx_incomes_created (created_at, id),
+    INDEX idx_incomes_user_created (user_id, created_at, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
 COMMENT='Bảng thu nhập';
 
@@ -191,7 +197,7 @@ COMMENT='Bảng file đính kèm';
 -- 9. BẢNG ACTIVITY_LOGS (Nhật ký hoạt động)
 -- =============================================
 CREATE TABLE IF NOT EXISTS activity_logs (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT AUTO_INCREMENT,
     action ENUM('LOGIN', 'LOGOUT', 'CREATE', 'UPDATE', 'DELETE', 'EXPORT', 'IMPORT', 'VIEW')
         NOT NULL COMMENT 'Loại hành động',
     entity_type VARCHAR(50) NOT NULL COMMENT 'Loại đối tượng (User, Expense, Income, etc.)',
@@ -201,16 +207,96 @@ CREATE TABLE IF NOT EXISTS activity_logs (
     new_value TEXT COMMENT 'Giá trị mới (JSON)',
     ip_address VARCHAR(50) COMMENT 'Địa chỉ IP',
     user_agent TEXT COMMENT 'Thông tin trình duyệt',
-    user_id BIGINT COMMENT 'Người thực hiện',
+    user_id BIGINT COMMENT 'Người thực hiện (không có khóa ngoại do bảng được phân vùng)',
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
 
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE SET NULL,
+    PRIMARY KEY (id, created_at),
     INDEX idx_logs_user (user_id),
     INDEX idx_logs_action (action),
-    INDEX idx_logs_entity (entity_type, entity_id),
+    INDEX idx_logs_entity_created (entity_type, entity_id, created_at),
     INDEX idx_logs_created (created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
-COMMENT='Bảng nhật ký hoạt động';
+COMMENT='Bảng nhật ký hoạt động (phân vùng theo tháng, ứng dụng tự tạo phân vùng mới)'
+PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- =============================================
+-- 10. BẢNG TOKEN_REVOCATIONS (Token đã thu hồi)
+-- =============================================
+CREATE TABLE IF NOT EXISTS token_revocations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    jti VARCHAR(64) COMMENT 'ID của token bị thu hồi (NULL = mốc thu hồi theo người dùng)',
+    user_id BIGINT COMMENT 'Người dùng sở hữu token',
+    issued_before DATETIME(3) COMMENT 'Thu hồi mọi token phát hành trước thời điểm này',
+    expires_at DATETIME(3) NOT NULL COMMENT 'Thời điểm có thể xóa bản ghi (token đã hết hạn)',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    UNIQUE INDEX idx_revocation_jti (jti),
+    INDEX idx_revocation_user (user_id),
+    INDEX idx_revocation_expires (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Bảng token JWT đã bị thu hồi';
+
+-- =============================================
+-- 11. BẢNG RATE_LIMIT_BUCKETS (Giới hạn tần suất)
+-- =============================================
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    bucket_key VARCHAR(191) PRIMARY KEY COMMENT 'Khóa bucket (vd: login:ip:<ip>, login:account:<email>)',
+    state VARBINARY(1024) NOT NULL COMMENT 'Trạng thái bucket đã tuần tự hóa (Bucket4j)',
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    INDEX idx_rate_limit_updated (updated_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Bảng trạng thái giới hạn tần suất dùng chung giữa các node';
+
+-- =============================================
+-- 12. BẢNG ACTIVITY_LOG_SEARCH (Chỉ mục tìm kiếm nhật ký)
+-- =============================================
+-- Bảng activity_logs được phân vùng nên không thể có chỉ mục FULLTEXT;
+-- nội dung tìm kiếm được ghi vào bảng riêng (không phân vùng) bởi ActivityLogWriter
+CREATE TABLE IF NOT EXISTS activity_log_search (
+    log_id BIGINT PRIMARY KEY COMMENT 'ID của nhật ký hoạt động',
+    created_at DATETIME NOT NULL COMMENT 'Thời điểm tạo nhật ký (để lọc theo ngày và cắt tỉa phân vùng)',
+    search_text TEXT NOT NULL COMMENT 'Khóa đối tượng (vd: Expense_42) và mô tả',
+    user_id BIGINT COMMENT 'Người thực hiện (sao chép để lọc cùng tìm kiếm)',
+    action VARCHAR(30) NOT NULL COMMENT 'Loại hành động (sao chép để lọc cùng tìm kiếm)',
+    entity_type VARCHAR(50) NOT NULL COMMENT 'Loại đối tượng (sao chép để lọc cùng tìm kiếm)',
+    entity_id BIGINT COMMENT 'ID của đối tượng (sao chép để lọc cùng tìm kiếm)',
+
+    INDEX idx_log_search_created (created_at),
+    FULLTEXT INDEX ft_log_search_text (search_text)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Chỉ mục tìm kiếm toàn văn cho nhật ký hoạt động';
+
+-- =============================================
+-- 13. BẢNG BUDGET_ALERT_OUTBOX (Hộp thư đi cảnh báo ngân sách)
+-- =============================================
+-- Cảnh báo được ghi trong cùng giao dịch với chi tiêu làm ngân sách vượt ngưỡng,
+-- sau đó được BudgetAlertDispatcher gửi theo lô qua các kênh thông báo
+CREATE TABLE IF NOT EXISTS budget_alert_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    budget_id BIGINT NOT NULL COMMENT 'Ngân sách vượt ngưỡng',
+    user_id BIGINT NOT NULL COMMENT 'Chủ ngân sách (người nhận cảnh báo)',
+    category_id BIGINT COMMENT 'NULL = ngân sách tổng',
+    budget_name VARCHAR(200) NOT NULL COMMENT 'Tên ngân sách tại thời điểm cảnh báo',
+    year INT NOT NULL COMMENT 'Năm',
+    month INT NOT NULL COMMENT 'Tháng (1-12)',
+    spent_amount DECIMAL(15, 2) NOT NULL COMMENT 'Số tiền đã chi khi vượt ngưỡng',
+    amount_limit DECIMAL(15, 2) NOT NULL COMMENT 'Hạn mức ngân sách',
+    alert_threshold INT NOT NULL COMMENT 'Ngưỡng cảnh báo (%)',
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' COMMENT 'PENDING, IN_PROGRESS, SENT, FAILED',
+    delivered_channels VARCHAR(200) NOT NULL DEFAULT '' COMMENT 'Các kênh đã gửi thành công, phân tách bởi dấu phẩy',
+    attempts INT NOT NULL DEFAULT 0 COMMENT 'Số lần đã thử gửi',
+    last_error VARCHAR(500) COMMENT 'Lỗi của lần gửi gần nhất',
+    claimed_at DATETIME COMMENT 'Thời điểm một tiến trình nhận lô để gửi (IN_PROGRESS)',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    dispatched_at DATETIME COMMENT 'Thời điểm gửi thành công',
+
+    INDEX idx_alert_outbox_status (status, id),
+    INDEX idx_alert_outbox_budget (budget_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Hộp thư đi cảnh báo ngân sách (transactional outbox)';
 
 -- =============================================
 -- DỮ LIỆU MẪU
@@ -303,17 +389,22 @@ FROM (
 
 DELIMITER //
 
--- Procedure cập nhật số tiền đã chi trong ngân sách
+-- Procedure tính lại số tiền đã chi trong ngân sách (dùng thủ công khi cần đối soát;
+-- ứng dụng cập nhật spent_amount bằng cộng dồn nên không còn trigger gọi procedure này)
 CREATE PROCEDURE sp_update_budget_spent_amount(IN p_user_id BIGINT, IN p_year INT, IN p_month INT)
 BEGIN
+    -- Khoảng ngày nửa mở [đầu tháng, đầu tháng sau) để dùng được chỉ mục (user_id, expense_date, ...)
+    DECLARE v_from DATE DEFAULT MAKEDATE(p_year, 1) + INTERVAL (p_month - 1) MONTH;
+    DECLARE v_to DATE DEFAULT MAKEDATE(p_year, 1) + INTERVAL p_month MONTH;
+
     -- Cập nhật ngân sách tổng
     UPDATE budgets b
     SET b.spent_amount = (
         SELECT COALESCE(SUM(e.amount), 0)
         FROM expenses e
         WHERE e.user_id = p_user_id
-        AND YEAR(e.expense_date) = p_year
-        AND MONTH(e.expense_date) = p_month
+        AND e.expense_date >= v_from
+        AND e.expense_date < v_to
     )
     WHERE b.user_id = p_user_id
     AND b.year = p_year
@@ -327,8 +418,8 @@ BEGIN
         FROM expenses e
         WHERE e.user_id = p_user_id
         AND e.category_id = b.category_id
-        AND YEAR(e.expense_date) = p_year
-        AND MONTH(e.expense_date) = p_month
+        AND e.expense_date >= v_from
+        AND e.expense_date < v_to
     )
     WHERE b.user_id = p_user_id
     AND b.year = p_year
@@ -337,40 +428,3 @@ BEGIN
 END //
 
 DELIMITER ;
-
--- =============================================
--- TRIGGERS
--- =============================================
-
-DELIMITER //
-
--- Trigger cập nhật ngân sách khi thêm chi tiêu
-CREATE TRIGGER trg_expense_after_insert
-AFTER INSERT ON expenses
-FOR EACH ROW
-BEGIN
-    CALL sp_update_budget_spent_amount(NEW.user_id, YEAR(NEW.expense_date), MONTH(NEW.expense_date));
-END //
-
--- Trigger cập nhật ngân sách khi sửa chi tiêu
-CREATE TRIGGER trg_expense_after_update
-AFTER UPDATE ON expenses
-FOR EACH ROW
-BEGIN
-    -- Cập nhật tháng cũ
-    IF OLD.expense_date != NEW.expense_date THEN
-        CALL sp_update_budget_spent_amount(OLD.user_id, YEAR(OLD.expense_date), MONTH(OLD.expense_date));
-    END IF;
-    -- Cập nhật tháng mới
-    CALL sp_update_budget_spent_amount(NEW.user_id, YEAR(NEW.expense_date), MONTH(NEW.expense_date));
-END //
-
--- Trigger cập nhật ngân sách khi xóa chi tiêu
-CREATE TRIGGER trg_expense_after_delete
-AFTER DELETE ON expenses
-FOR EACH ROW
-BEGIN
-    CALL sp_update_budget_spent_amount(OLD.user_id, YEAR(OLD.expense_date), MONTH(OLD.expense_date));
-END //
-
-DELIMITER ;
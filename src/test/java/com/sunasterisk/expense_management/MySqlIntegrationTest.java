@@ -0,0 +1,40 @@
+package com.sunasterisk.expense_management;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Base class for tests that need a real MySQL server (row locks, deadlocks, EXPLAIN plans).
+ * One container is shared by every subclass and initialized from db/schema.sql by the image's
+ * entrypoint (the mysql client understands the DELIMITER blocks of the stored procedures),
+ * so the tests run against the same tables, indexes and partitions as production.
+ * Skipped when no Docker daemon is available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MySqlIntegrationTest {
+
+    @ServiceConnection
+    protected static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("expense_management")
+            .withCopyFileToContainer(MountableFile.forClasspathResource("db/schema.sql"),
+                    "/docker-entrypoint-initdb.d/schema.sql");
+
+    @BeforeAll
+    static void startMySql() {
+        // Started once for all subclasses (start() is a no-op on a running container) and removed with the JVM
+        MYSQL.start();
+    }
+
+    @DynamicPropertySource
+    static void schemaProperties(DynamicPropertyRegistry registry) {
+        // The schema comes from db/schema.sql; Hibernate must not create non-partitioned copies of the tables
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+}
@@ -0,0 +1,95 @@
+package com.sunasterisk.expense_management.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConflictRetryAspectTest {
+
+    private MeterRegistry meterRegistry;
+    private ConflictRetryAspect aspect;
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new ConflictRetryAspect(meterRegistry);
+        ReflectionTestUtils.setField(aspect, "maxAttempts", 3);
+        ReflectionTestUtils.setField(aspect, "backoffMs", 0L);
+
+        Signature signature = mock(Signature.class);
+        when(signature.toShortString()).thenReturn("ExpenseService.updateExpense(..)");
+        joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void retriesUntilTheCallSucceeds() throws Throwable {
+        when(joinPoint.proceed())
+                .thenThrow(new CannotAcquireLockException("deadlock"))
+                .thenReturn("saved");
+
+        assertThat(aspect.retry(joinPoint)).isEqualTo("saved");
+        verify(joinPoint, times(2)).proceed();
+        assertThat(count("retried")).isEqualTo(1);
+        assertThat(count("exhausted")).isZero();
+    }
+
+    @Test
+    void rethrowsTheLastFailureWhenAttemptsAreExhausted() throws Throwable {
+        CannotAcquireLockException last = new CannotAcquireLockException("lock wait timeout");
+        when(joinPoint.proceed())
+                .thenThrow(new CannotAcquireLockException("deadlock"))
+                .thenThrow(new CannotAcquireLockException("deadlock"))
+                .thenThrow(last);
+
+        assertThatThrownBy(() -> aspect.retry(joinPoint)).isSameAs(last);
+        verify(joinPoint, times(3)).proceed();
+        assertThat(count("retried")).isEqualTo(2);
+        assertThat(count("exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThatThrownBy(() -> aspect.retry(joinPoint)).isInstanceOf(DataIntegrityViolationException.class);
+        verify(joinPoint, times(1)).proceed();
+        assertThat(count("retried")).isZero();
+    }
+
+    @Test
+    void skipsRetryInsideAnActiveTransaction() throws Throwable {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        when(joinPoint.proceed()).thenThrow(new CannotAcquireLockException("deadlock"));
+
+        assertThatThrownBy(() -> aspect.retry(joinPoint)).isInstanceOf(CannotAcquireLockException.class);
+        verify(joinPoint, times(1)).proceed();
+        assertThat(count("retried")).isZero();
+        assertThat(count("exhausted")).isZero();
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("app.db.retry").tag("outcome", outcome).counter().count();
+    }
+}
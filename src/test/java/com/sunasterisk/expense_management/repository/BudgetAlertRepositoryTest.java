@@ -0,0 +1,63 @@
+package com.sunasterisk.expense_management.repository;
+
+import com.sunasterisk.expense_management.MySqlIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BudgetAlertRepositoryTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private BudgetAlertRepository budgetAlertRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void queuesTheAlertOfAnEditedBudgetOnlyOnceItsSpentAmountReachesTheThreshold() {
+        long userId = insert("INSERT INTO users (name, email, password) VALUES (?, ?, ?)",
+                "Alert", "alert-" + UUID.randomUUID() + "@example.com", "unused");
+        long budgetId = insert("INSERT INTO budgets (name, amount_limit, spent_amount, year, month, alert_threshold, "
+                + "user_id) VALUES ('Overall', 1000, 700, 2026, 10, 80, ?)", userId);
+
+        assertThat(queue(budgetId)).isZero();
+
+        // The limit is lowered below the spent amount / threshold ratio
+        jdbcTemplate.update("UPDATE budgets SET amount_limit = 800 WHERE id = ?", budgetId);
+        assertThat(queue(budgetId)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT amount_limit FROM budget_alert_outbox WHERE budget_id = ?",
+                Integer.class, budgetId)).isEqualTo(800);
+
+        // Once flagged, the budget is not alerted again
+        jdbcTemplate.update("UPDATE budgets SET is_alert_sent = TRUE WHERE id = ?", budgetId);
+        assertThat(queue(budgetId)).isZero();
+    }
+
+    private int queue(long budgetId) {
+        return transactionTemplate.execute(status -> budgetAlertRepository.queueThresholdAlert(budgetId));
+    }
+
+    private long insert(String sql, Object... args) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+}
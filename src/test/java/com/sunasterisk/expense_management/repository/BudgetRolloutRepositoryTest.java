@@ -0,0 +1,84 @@
+package com.sunasterisk.expense_management.repository;
+
+import com.sunasterisk.expense_management.MySqlIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BudgetRolloutRepositoryTest extends MySqlIntegrationTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2026, 9);
+
+    @Autowired
+    private BudgetRolloutRepository budgetRolloutRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createsMissingBudgetsAndQueuesAlertsOnlyForTheNewOnesOverThreshold() {
+        long spender = insertUser();
+        long saver = insertUser();
+        long food = insertCategory();
+        long travel = insertCategory();
+        long template = insert("INSERT INTO budget_templates (name) VALUES (?)", "Monthly");
+        insert("INSERT INTO budget_template_items (default_amount, budget_template_id, category_id) VALUES (1000, ?, ?)",
+                template, food);
+        insert("INSERT INTO budget_template_items (default_amount, budget_template_id, category_id) VALUES (500, ?, ?)",
+                template, travel);
+        insert("INSERT INTO expenses (name, amount, expense_date, user_id, category_id) VALUES ('Dinner', 900, ?, ?, ?)",
+                MONTH.atDay(10), spender, food);
+        // Existing budget, already alerted and its outbox row since purged: neither re-created nor alerted again
+        insert("INSERT INTO budgets (name, amount_limit, spent_amount, year, month, is_alert_sent, "
+                        + "user_id, category_id) VALUES ('Travel', 500, 450, ?, ?, TRUE, ?, ?)",
+                MONTH.getYear(), MONTH.getMonthValue(), spender, travel);
+
+        long lastBudgetId = budgetRolloutRepository.findMaxBudgetId();
+        int created = budgetRolloutRepository.insertFromTemplate(template, MONTH, null, 80, spender, saver);
+        int queued = budgetRolloutRepository.queueAlertsForCreated(template, MONTH, null, spender, saver,
+                lastBudgetId);
+
+        assertThat(created).isEqualTo(3);
+        assertThat(queued).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM budget_alert_outbox o "
+                        + "JOIN budgets b ON b.id = o.budget_id WHERE b.user_id = ? AND b.category_id = ?",
+                Integer.class, spender, food)).isEqualTo(1);
+
+        // A second run over the same chunk finds every budget in place
+        lastBudgetId = budgetRolloutRepository.findMaxBudgetId();
+        assertThat(budgetRolloutRepository.insertFromTemplate(template, MONTH, null, 80, spender, saver)).isZero();
+        assertThat(budgetRolloutRepository.queueAlertsForCreated(template, MONTH, null, spender, saver,
+                lastBudgetId)).isZero();
+    }
+
+    private long insertUser() {
+        return insert("INSERT INTO users (name, email, password) VALUES (?, ?, ?)",
+                "Rollout", "rollout-" + UUID.randomUUID() + "@example.com", "unused");
+    }
+
+    private long insertCategory() {
+        return insert("INSERT INTO categories (name, type, is_default) VALUES (?, 'EXPENSE', TRUE)",
+                "Rollout " + UUID.randomUUID());
+    }
+
+    private long insert(String sql, Object... args) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+}
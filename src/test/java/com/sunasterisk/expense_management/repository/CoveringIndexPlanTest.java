@@ -0,0 +1,132 @@
+package com.sunasterisk.expense_management.repository;
+
+import com.sunasterisk.expense_management.MySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAIN regression test for the covering date-range indexes of V008: the report and budget sums
+ * (the SQL of the ExpenseRepository/IncomeRepository range queries and of sp_update_budget_spent_amount)
+ * must range-scan idx_*_user_date / idx_*_user_category_date and be answered from the index alone.
+ * Fails if schema.sql drops one of these indexes or one of its columns.
+ */
+class CoveringIndexPlanTest extends MySqlIntegrationTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 4, 1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+    private long categoryId;
+
+    @BeforeEach
+    void seed() {
+        userId = insertUser();
+        long otherUserId = insertUser();
+        List<Long> categories = List.of(insertCategory("EXPENSE"), insertCategory("EXPENSE"), insertCategory("EXPENSE"));
+        long incomeCategory = insertCategory("INCOME");
+        categoryId = categories.get(0);
+
+        // Two years of daily rows per user, so one month is a small, selective range
+        List<Object[]> expenses = new ArrayList<>();
+        List<Object[]> incomes = new ArrayList<>();
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int day = 0; day < 730; day++) {
+            Date date = Date.valueOf(start.plusDays(day));
+            for (long user : List.of(userId, otherUserId)) {
+                expenses.add(new Object[]{"E" + day, BigDecimal.valueOf(day + 1), date, user, categories.get(day % 3)});
+                incomes.add(new Object[]{"I" + day, BigDecimal.valueOf(day + 1), date, user, incomeCategory});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO expenses (name, amount, expense_date, user_id, category_id) "
+                + "VALUES (?, ?, ?, ?, ?)", expenses);
+        jdbcTemplate.batchUpdate("INSERT INTO incomes (name, amount, income_date, user_id, category_id) "
+                + "VALUES (?, ?, ?, ?, ?)", incomes);
+        jdbcTemplate.execute("ANALYZE TABLE expenses, incomes");
+    }
+
+    @Test
+    void expenseSumInDateRangeUsesUserDateIndex() {
+        assertCoveredBy("idx_expenses_user_date",
+                "SELECT COALESCE(SUM(amount), 0) FROM expenses "
+                        + "WHERE user_id = ? AND expense_date >= ? AND expense_date < ?",
+                userId, FROM, TO);
+    }
+
+    @Test
+    void monthlyExpenseTrendUsesUserDateIndex() {
+        assertCoveredBy("idx_expenses_user_date",
+                "SELECT YEAR(expense_date), MONTH(expense_date), COALESCE(SUM(amount), 0), COUNT(*) FROM expenses "
+                        + "WHERE user_id = ? AND expense_date >= ? AND expense_date < ? "
+                        + "GROUP BY YEAR(expense_date), MONTH(expense_date)",
+                userId, FROM, TO.plusMonths(2));
+    }
+
+    @Test
+    void categoryExpenseSumUsesUserCategoryDateIndex() {
+        assertCoveredBy("idx_expenses_user_category_date",
+                "SELECT COALESCE(SUM(amount), 0) FROM expenses "
+                        + "WHERE user_id = ? AND category_id = ? AND expense_date >= ? AND expense_date < ?",
+                userId, categoryId, FROM, TO);
+    }
+
+    @Test
+    void incomeSumInDateRangeUsesUserDateIndex() {
+        assertCoveredBy("idx_incomes_user_date",
+                "SELECT COALESCE(SUM(amount), 0) FROM incomes "
+                        + "WHERE user_id = ? AND income_date >= ? AND income_date < ?",
+                userId, FROM, TO);
+    }
+
+    /**
+     * Assert that the single-table query range-scans the given index without reading table rows
+     */
+    private void assertCoveredBy(String index, String sql, Object... args) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+
+        assertThat(plan).hasSize(1);
+        Map<String, Object> row = plan.get(0);
+        assertThat(row.get("key")).as("index used by %s", sql).isEqualTo(index);
+        assertThat(row.get("type")).as("access type of %s", sql).isEqualTo("range");
+        assertThat((String) row.get("Extra")).as("extra of %s", sql).contains("Using index");
+    }
+
+    private long insertUser() {
+        return insert("INSERT INTO users (name, email, password) VALUES (?, ?, ?)",
+                "Plan", "plan-" + UUID.randomUUID() + "@example.com", "unused");
+    }
+
+    private long insertCategory(String type) {
+        return insert("INSERT INTO categories (name, type) VALUES (?, ?)", "Plan " + type, type);
+    }
+
+    private long insert(String sql, Object... args) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+}
@@ -0,0 +1,94 @@
+package com.sunasterisk.expense_management.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login verification latency per stored hash format, through the same encoder composition as
+ * SecurityConfig (DelegatingPasswordEncoder with a BCrypt default for legacy hashes without an {id}),
+ * called directly and through {@link BoundedPasswordEncoder}, whose pool hand-off should be
+ * negligible next to the hash itself.
+ * Run the main method from the IDE, or {@code java -cp <test classpath> org.openjdk.jmh.Main PasswordEncoderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    /**
+     * Stored hash: {bcrypt} at strength 10 (default) or 12, {pbkdf2} at 310000 iterations,
+     * or a legacy BCrypt hash without prefix
+     */
+    @Param({"bcrypt-10", "bcrypt-12", "pbkdf2-310000", "legacy-bcrypt-10"})
+    private String hash;
+
+    @Param({"direct", "bounded"})
+    private String path;
+
+    private ThreadPoolTaskExecutor executor;
+    private PasswordEncoder encoder;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder bcrypt10 = new BCryptPasswordEncoder(10);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", hash.equals("bcrypt-12") ? new BCryptPasswordEncoder(12) : bcrypt10,
+                "pbkdf2", new Pbkdf2PasswordEncoder("", 16, 310_000,
+                        Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(
+                hash.startsWith("pbkdf2") ? "pbkdf2" : "bcrypt", encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt10);
+
+        encodedPassword = hash.startsWith("legacy") ? bcrypt10.encode(PASSWORD) : delegating.encode(PASSWORD);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(100);
+        executor.initialize();
+        encoder = path.equals("bounded")
+                ? new BoundedPasswordEncoder(delegating, executor, 5000, null)
+                : delegating;
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, encodedPassword);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PasswordEncoderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.sunasterisk.expense_management.security;
+
+import com.sunasterisk.expense_management.MySqlIntegrationTest;
+import com.sunasterisk.expense_management.config.QueryInspector;
+import com.sunasterisk.expense_management.config.QueryInspector.RequestQueries;
+import com.sunasterisk.expense_management.entity.User;
+import com.sunasterisk.expense_management.repository.UserRepository;
+import com.sunasterisk.expense_management.service.TokenRevocationService;
+import com.sunasterisk.expense_management.util.CurrentUserHolder;
+import com.sunasterisk.expense_management.util.MessageUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements an authenticated API request issues to identify its user, through the
+ * inspected DataSource: once the principal is in the {@link PrincipalCache}, the JWT filter and
+ * {@link CurrentUserHolder} must resolve the current user without any query.
+ */
+class PrincipalQueryCountTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private MessageUtil messageUtil;
+
+    @Autowired
+    private QueryInspector queryInspector;
+
+    @Autowired
+    private CurrentUserHolder currentUserHolder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void cachedPrincipalResolvesTheCurrentUserWithoutQueries() throws Exception {
+        User user = userRepository.save(User.builder()
+                .name("Query Count")
+                .email("query-count-" + UUID.randomUUID() + "@example.com")
+                .password("unused")
+                .role(User.Role.USER)
+                .active(true)
+                .build());
+        String token = jwtUtil.generateToken(user);
+        JwtFilter filter = new JwtFilter(jwtUtil, userDetailsService, principalCache, tokenRevocationService, messageUtil);
+
+        // Cache miss: the principal is loaded by primary key (and counted, so inspection is active)
+        assertThat(statementsToResolve(filter, token, user.getId())).isPositive();
+        // Cache hit: neither the filter nor CurrentUserHolder touches the users table
+        assertThat(statementsToResolve(filter, token, user.getId())).isZero();
+    }
+
+    /**
+     * Run one API request through the JWT filter and resolve the current user in the "controller"
+     *
+     * @return the number of statements the request executed
+     */
+    private int statementsToResolve(JwtFilter filter, String token, Long expectedUserId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses");
+        request.addHeader("Authorization", "Bearer " + token);
+        ServletRequestAttributes attributes = new ServletRequestAttributes(request);
+        RequestContextHolder.setRequestAttributes(attributes);
+        AtomicReference<Long> resolvedUserId = new AtomicReference<>();
+
+        RequestQueries queries = queryInspector.beginRequest();
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+                assertThat(currentUserHolder.getCurrentUserId()).isEqualTo(expectedUserId);
+                resolvedUserId.set(currentUserHolder.getCurrentUserOrThrow().getId());
+            });
+        } finally {
+            queryInspector.endRequest(queries, request.getMethod(), request.getRequestURI());
+            attributes.requestCompleted();
+            RequestContextHolder.resetRequestAttributes();
+            SecurityContextHolder.clearContext();
+        }
+
+        assertThat(resolvedUserId.get()).isEqualTo(expectedUserId);
+        return queries.getCount();
+    }
+}
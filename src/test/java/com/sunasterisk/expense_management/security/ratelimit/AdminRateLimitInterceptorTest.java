@@ -0,0 +1,87 @@
+package com.sunasterisk.expense_management.security.ratelimit;
+
+import com.sunasterisk.expense_management.util.MessageUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.support.SessionFlashMapManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdminRateLimitInterceptorTest {
+
+    private AdminRateLimitInterceptor interceptor;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        MessageUtil messageUtil = mock(MessageUtil.class);
+        when(messageUtil.getMessage(eq("error.rate.limit.exceeded"), any())).thenReturn("Too many requests");
+
+        interceptor = new AdminRateLimitInterceptor(new InMemoryRateLimitBucketStore(100, 100), messageUtil);
+        ReflectionTestUtils.setField(interceptor, "enabled", true);
+        ReflectionTestUtils.setField(interceptor, "capacity", 2L);
+        ReflectionTestUtils.setField(interceptor, "periodSeconds", 60L);
+        ReflectionTestUtils.setField(interceptor, "paths",
+                List.of("/admin/*/export", "/admin/*/import", "POST /admin/exports"));
+        handler = new HandlerMethod(this, AdminRateLimitInterceptorTest.class.getDeclaredMethod("setUp"));
+    }
+
+    @Test
+    void redirectsToTheModuleWithAFlashMessageOnceTheQuotaIsUsed() throws Exception {
+        assertThat(preHandle("GET", "/admin/expenses/export").getStatus()).isEqualTo(200);
+        assertThat(preHandle("POST", "/admin/expenses/import").getStatus()).isEqualTo(200);
+
+        MockHttpServletRequest request = request("POST", "/admin/expenses/import");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, handler)).isFalse();
+        assertThat(response.getRedirectedUrl()).isEqualTo("/admin/expenses");
+        assertThat(response.getHeader("Retry-After")).isNotBlank();
+        FlashMap flashMap = (FlashMap) request.getAttribute(DispatcherServlet.OUTPUT_FLASH_MAP_ATTRIBUTE);
+        assertThat(flashMap.get("error")).isEqualTo("Too many requests");
+        assertThat(flashMap.getTargetRequestPath()).isEqualTo("/admin/expenses");
+    }
+
+    @Test
+    void otherAdminPagesDoNotUseTheQuota() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(preHandle("GET", "/admin/expenses").getRedirectedUrl()).isNull();
+            assertThat(preHandle("GET", "/admin/exports").getRedirectedUrl()).isNull();
+        }
+        assertThat(preHandle("POST", "/admin/exports").getRedirectedUrl()).isNull();
+    }
+
+    @Test
+    void backgroundExportRequestsAreLimited() throws Exception {
+        preHandle("POST", "/admin/exports");
+        preHandle("POST", "/admin/exports");
+
+        assertThat(preHandle("POST", "/admin/exports").getRedirectedUrl()).isEqualTo("/admin/exports");
+    }
+
+    private MockHttpServletResponse preHandle(String method, String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request(method, path), response, handler);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr("10.0.0.1");
+        request.setAttribute(DispatcherServlet.OUTPUT_FLASH_MAP_ATTRIBUTE, new FlashMap());
+        request.setAttribute(DispatcherServlet.FLASH_MAP_MANAGER_ATTRIBUTE, new SessionFlashMapManager());
+        return request;
+    }
+}
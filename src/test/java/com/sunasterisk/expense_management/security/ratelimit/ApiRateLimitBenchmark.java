@@ -0,0 +1,75 @@
+package com.sunasterisk.expense_management.security.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency the API quota adds to an allowed request (the common path), per bucket store.
+ * The jdbc variant runs against {@link MapBackedJdbcTemplate}, so it measures the compare-and-swap
+ * proxy (state serialization, read and conditional write) without the database round trips,
+ * which come on top in production.
+ * Run the main method from the IDE, or {@code java -cp <test classpath> org.openjdk.jmh.Main ApiRateLimitBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiRateLimitBenchmark {
+
+    @Param({"memory", "jdbc"})
+    private String store;
+
+    private ApiRateLimitInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private HandlerMethod handler;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        RateLimitBucketStore bucketStore = store.equals("jdbc")
+                ? new JdbcRateLimitBucketStore(new MapBackedJdbcTemplate())
+                : new InMemoryRateLimitBucketStore(10_000, 10_000);
+        interceptor = new ApiRateLimitInterceptor(bucketStore, null);
+        ReflectionTestUtils.setField(interceptor, "enabled", true);
+        // Large enough that every measured request is allowed
+        ReflectionTestUtils.setField(interceptor, "capacity", 1_000_000_000_000L);
+        ReflectionTestUtils.setField(interceptor, "periodSeconds", 3600L);
+        ReflectionTestUtils.setField(interceptor, "heavyCost", 20L);
+        ReflectionTestUtils.setField(interceptor, "heavyPaths", List.of("/api/reports/**"));
+
+        request = new MockHttpServletRequest("GET", "/api/expenses");
+        request.setRemoteAddr("10.0.0.1");
+        response = new MockHttpServletResponse();
+        handler = new HandlerMethod(this, ApiRateLimitBenchmark.class.getMethod("setUp"));
+    }
+
+    @Benchmark
+    public boolean allowedRequest() {
+        return interceptor.preHandle(request, response, handler);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ApiRateLimitBenchmark.class.getSimpleName()).build()).run();
+    }
+}
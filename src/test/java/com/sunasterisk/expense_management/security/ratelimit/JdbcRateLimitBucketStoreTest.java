@@ -0,0 +1,63 @@
+package com.sunasterisk.expense_management.security.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcRateLimitBucketStoreTest {
+
+    private static final Supplier<BucketConfiguration> THREE_PER_MINUTE = () -> BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder().capacity(3).refillIntervally(3, Duration.ofMinutes(1)).build())
+            .build();
+
+    private MapBackedJdbcTemplate jdbcTemplate;
+    private JdbcRateLimitBucketStore store;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new MapBackedJdbcTemplate();
+        store = new JdbcRateLimitBucketStore(jdbcTemplate);
+    }
+
+    @Test
+    void bucketStateIsSharedThroughTheTable() {
+        store.resolve("api:user:1", THREE_PER_MINUTE).tryConsume(2);
+
+        JdbcRateLimitBucketStore otherNode = new JdbcRateLimitBucketStore(jdbcTemplate);
+        assertThat(otherNode.resolve("api:user:1", THREE_PER_MINUTE).tryConsume(1)).isTrue();
+        assertThat(otherNode.resolve("api:user:1", THREE_PER_MINUTE).tryConsume(1)).isFalse();
+    }
+
+    @Test
+    void resetDeletesTheRow() {
+        store.resolve("login:ip:10.0.0.1", THREE_PER_MINUTE).tryConsume(3);
+
+        store.reset("login:ip:10.0.0.1");
+
+        assertThat(jdbcTemplate.rows).doesNotContainKey("login:ip:10.0.0.1");
+        assertThat(store.resolve("login:ip:10.0.0.1", THREE_PER_MINUTE).getAvailableTokens()).isEqualTo(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void asyncBucketsUseTheSameRows() throws Exception {
+        ProxyManager<String> proxyManager = (ProxyManager<String>) ReflectionTestUtils.getField(store, "proxyManager");
+        AsyncBucketProxy bucket = proxyManager.asAsync().builder().build("api:user:2", THREE_PER_MINUTE.get());
+
+        assertThat(bucket.tryConsume(3).get()).isTrue();
+        assertThat(bucket.tryConsume(1).get()).isFalse();
+        assertThat(store.resolve("api:user:2", THREE_PER_MINUTE).getAvailableTokens()).isZero();
+
+        proxyManager.asAsync().removeProxy("api:user:2").get();
+        assertThat(jdbcTemplate.rows).isEmpty();
+    }
+}
@@ -0,0 +1,66 @@
+package com.sunasterisk.expense_management.security.ratelimit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in for the rate_limit_buckets table: answers the statements issued by
+ * {@link JdbcRateLimitBucketStore} from a map, with the same compare-and-swap semantics
+ */
+class MapBackedJdbcTemplate extends JdbcTemplate {
+
+    final Map<String, byte[]> rows = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+        byte[] state = rows.get((String) args[0]);
+        if (state == null) {
+            return List.of();
+        }
+        // Single-column row: the store's row mapper only reads the state bytes
+        ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, methodArgs) -> {
+                    if (method.getName().equals("getBytes")) {
+                        return state;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        try {
+            return List.of(rowMapper.mapRow(resultSet, 0));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int update(String sql, Object... args) {
+        if (sql.startsWith("INSERT IGNORE")) {
+            return rows.putIfAbsent((String) args[0], (byte[]) args[1]) == null ? 1 : 0;
+        }
+        if (sql.startsWith("UPDATE")) {
+            String key = (String) args[1];
+            byte[] expected = (byte[]) args[2];
+            boolean[] swapped = {false};
+            rows.computeIfPresent(key, (k, current) -> {
+                if (Arrays.equals(current, expected)) {
+                    swapped[0] = true;
+                    return (byte[]) args[0];
+                }
+                return current;
+            });
+            return swapped[0] ? 1 : 0;
+        }
+        if (sql.startsWith("DELETE FROM rate_limit_buckets WHERE bucket_key")) {
+            return rows.remove((String) args[0]) != null ? 1 : 0;
+        }
+        throw new UnsupportedOperationException(sql);
+    }
+}
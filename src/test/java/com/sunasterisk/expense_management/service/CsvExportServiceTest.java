@@ -0,0 +1,89 @@
+package com.sunasterisk.expense_management.service;
+
+import com.sunasterisk.expense_management.entity.Expense;
+import com.sunasterisk.expense_management.repository.BudgetRepository;
+import com.sunasterisk.expense_management.repository.BudgetTemplateRepository;
+import com.sunasterisk.expense_management.repository.CategoryRepository;
+import com.sunasterisk.expense_management.repository.ExpenseRepository;
+import com.sunasterisk.expense_management.repository.IncomeRepository;
+import com.sunasterisk.expense_management.repository.UserRepository;
+import com.sunasterisk.expense_management.service.CsvExportService.ExportType;
+import com.sunasterisk.expense_management.util.MessageUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CsvExportServiceTest {
+
+    private ExpenseRepository expenseRepository;
+    private EntityManager entityManager;
+    private CsvExportService service;
+
+    @BeforeEach
+    void setUp() {
+        expenseRepository = mock(ExpenseRepository.class);
+        entityManager = mock(EntityManager.class);
+        MessageUtil messageUtil = mock(MessageUtil.class);
+        when(messageUtil.getMessage(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service = new CsvExportService(mock(UserRepository.class), expenseRepository, mock(IncomeRepository.class),
+                mock(CategoryRepository.class), mock(BudgetRepository.class), mock(BudgetTemplateRepository.class),
+                messageUtil, new CsvMetrics(new SimpleMeterRegistry()), entityManager);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+    }
+
+    @Test
+    void readsExpensesInKeysetBatchesUntilAShortBatch() throws Exception {
+        when(expenseRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(2)))
+                .thenReturn(List.of(expense(3L), expense(7L)));
+        when(expenseRepository.findByIdGreaterThanOrderByIdAsc(7L, PageRequest.ofSize(2)))
+                .thenReturn(List.of(expense(9L)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int rows = service.export(ExportType.EXPENSES, out);
+
+        assertThat(rows).isEqualTo(3);
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(4);
+        verify(expenseRepository, never()).findAll();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void stopsAfterAnEmptyBatchWhenTheLastBatchWasFull() throws Exception {
+        when(expenseRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(2)))
+                .thenReturn(List.of(expense(1L), expense(2L)));
+        when(expenseRepository.findByIdGreaterThanOrderByIdAsc(2L, PageRequest.ofSize(2)))
+                .thenReturn(List.of());
+
+        assertThat(service.export(ExportType.EXPENSES, new ByteArrayOutputStream())).isEqualTo(2);
+        verify(expenseRepository, times(2)).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+
+    private Expense expense(Long id) {
+        return Expense.builder()
+                .id(id)
+                .name("Expense " + id)
+                .amount(BigDecimal.TEN)
+                .expenseDate(LocalDate.of(2026, 10, 1))
+                .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.sunasterisk.expense_management.service;
+
+import com.sunasterisk.expense_management.MySqlIntegrationTest;
+import com.sunasterisk.expense_management.dto.expense.ExpenseRequest;
+import com.sunasterisk.expense_management.dto.expense.ExpenseResponse;
+import com.sunasterisk.expense_management.entity.User;
+import com.sunasterisk.expense_management.security.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent expense writes against the same category budgets and overall budget:
+ * the atomic spent_amount increments must not lose an update, and the fixed lock order
+ * (category budgets, then the overall budget) must not let a deadlock escape ExpenseService.
+ */
+class ExpenseBudgetConcurrencyTest extends MySqlIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int EXPENSES_PER_THREAD = 25;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentExpensesKeepBudgetSpentAmountsExact() throws Exception {
+        String email = "concurrency-" + UUID.randomUUID() + "@example.com";
+        long userId = insertUser(email);
+        long food = insertCategory("Food");
+        long transport = insertCategory("Transport");
+        YearMonth month = YearMonth.now();
+        long foodBudget = insertBudget(userId, food, month);
+        long transportBudget = insertBudget(userId, transport, month);
+        long overallBudget = insertBudget(userId, null, month);
+        AuthenticatedUser principal = new AuthenticatedUser(userId, email, null, User.Role.USER, true);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BigDecimal>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            // Half of the threads write to each category, every thread also moves some of its
+            // expenses to the other category, so transactions lock the budgets from both sides
+            long own = thread % 2 == 0 ? food : transport;
+            long other = thread % 2 == 0 ? transport : food;
+            results.add(pool.submit(() -> {
+                start.await();
+                return asUser(principal, () -> writeExpenses(thread, own, other));
+            }));
+        }
+        start.countDown();
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Future<BigDecimal> result : results) {
+            // A deadlock or lock wait timeout that escaped the retry fails the test here
+            total = total.add(result.get(2, TimeUnit.MINUTES));
+        }
+        pool.shutdown();
+
+        assertThat(total).isPositive();
+        assertThat(expenseTotal(userId, null)).isEqualByComparingTo(total);
+        assertThat(spentAmount(overallBudget)).isEqualByComparingTo(total);
+        assertThat(spentAmount(foodBudget)).isEqualByComparingTo(expenseTotal(userId, food));
+        assertThat(spentAmount(transportBudget)).isEqualByComparingTo(expenseTotal(userId, transport));
+    }
+
+    /**
+     * Create this thread's expenses in its own category, moving every fifth one to the other category
+     *
+     * @return the total amount written by this thread
+     */
+    private BigDecimal writeExpenses(int thread, long ownCategory, long otherCategory) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < EXPENSES_PER_THREAD; i++) {
+            BigDecimal amount = new BigDecimal(thread + 1).add(new BigDecimal(i).movePointLeft(2));
+            ExpenseResponse created = expenseService.createExpense(request("T" + thread + "-" + i, amount, ownCategory));
+            if (i % 5 == 4) {
+                expenseService.updateExpense(created.getId(), request(created.getName(), amount, otherCategory));
+            }
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    /**
+     * Run a task with a request scope (for CurrentUserHolder) and an authenticated principal bound to this thread
+     */
+    private <T> T asUser(AuthenticatedUser principal, Supplier<T> task) {
+        ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+        try {
+            return task.get();
+        } finally {
+            attributes.requestCompleted();
+            RequestContextHolder.resetRequestAttributes();
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private ExpenseRequest request(String name, BigDecimal amount, long categoryId) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setName(name);
+        request.setAmount(amount);
+        request.setExpenseDate(LocalDate.now());
+        request.setCategoryId(categoryId);
+        return request;
+    }
+
+    private long insertUser(String email) {
+        return insert("INSERT INTO users (name, email, password, role, active) VALUES (?, ?, ?, 'USER', TRUE)",
+                "Concurrency", email, "unused");
+    }
+
+    private long insertCategory(String name) {
+        return insert("INSERT INTO categories (name, type, active) VALUES (?, 'EXPENSE', TRUE)", name);
+    }
+
+    private long insertBudget(long userId, Long categoryId, YearMonth month) {
+        return insert("INSERT INTO budgets (name, amount_limit, year, month, user_id, category_id) "
+                        + "VALUES (?, 1000000000, ?, ?, ?, ?)",
+                "Budget " + categoryId, month.getYear(), month.getMonthValue(), userId, categoryId);
+    }
+
+    private long insert(String sql, Object... args) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private BigDecimal spentAmount(long budgetId) {
+        return jdbcTemplate.queryForObject("SELECT spent_amount FROM budgets WHERE id = ?", BigDecimal.class, budgetId);
+    }
+
+    private BigDecimal expenseTotal(long userId, Long categoryId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(amount), 0) FROM expenses "
+                        + "WHERE user_id = ? AND (? IS NULL OR category_id = ?)",
+                BigDecimal.class, userId, categoryId, categoryId);
+    }
+}
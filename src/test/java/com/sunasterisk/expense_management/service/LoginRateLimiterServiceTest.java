@@ -0,0 +1,63 @@
+package com.sunasterisk.expense_management.service;
+
+import com.sunasterisk.expense_management.security.ratelimit.InMemoryRateLimitBucketStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimiterServiceTest {
+
+    private LoginRateLimiterService limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new LoginRateLimiterService(new InMemoryRateLimitBucketStore(100, 100), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(limiter, "maxAttempts", 3);
+        ReflectionTestUtils.setField(limiter, "maxAccountAttempts", 2);
+        ReflectionTestUtils.setField(limiter, "lockoutDurationMinutes", 15);
+    }
+
+    @Test
+    void accountLimitHoldsAcrossIps() {
+        assertThat(limiter.allowLogin("10.0.0.1", "an@example.com")).isTrue();
+        assertThat(limiter.allowLogin("10.0.0.2", "an@example.com")).isTrue();
+
+        assertThat(limiter.allowLogin("10.0.0.3", "AN@example.com ")).isFalse();
+    }
+
+    @Test
+    void rejectionByTheAccountDoesNotChargeTheIp() {
+        limiter.allowLogin("10.0.0.1", "an@example.com");
+        limiter.allowLogin("10.0.0.1", "an@example.com");
+
+        assertThat(limiter.allowLogin("10.0.0.2", "an@example.com")).isFalse();
+        assertThat(limiter.getRemainingAttempts("10.0.0.2")).isEqualTo(3);
+        assertThat(limiter.allowLogin("10.0.0.2", "binh@example.com")).isTrue();
+    }
+
+    @Test
+    void rejectionByTheIpDoesNotChargeTheAccount() {
+        for (int i = 0; i < 3; i++) {
+            limiter.allowLogin("10.0.0.1", "user" + i + "@example.com");
+        }
+
+        assertThat(limiter.allowLogin("10.0.0.1", "an@example.com")).isFalse();
+        assertThat(limiter.allowLogin("10.0.0.2", "an@example.com")).isTrue();
+        assertThat(limiter.allowLogin("10.0.0.3", "an@example.com")).isTrue();
+    }
+
+    @Test
+    void resetRestoresBothLimits() {
+        limiter.allowLogin("10.0.0.1", "an@example.com");
+        limiter.allowLogin("10.0.0.1", "an@example.com");
+
+        limiter.resetLimit("10.0.0.1", "an@example.com");
+
+        assertThat(limiter.getRemainingAttempts("10.0.0.1")).isEqualTo(3);
+        assertThat(limiter.allowLogin("10.0.0.1", "an@example.com")).isTrue();
+        assertThat(limiter.allowLogin("10.0.0.1", "an@example.com")).isTrue();
+    }
+}
@@ -0,0 +1,123 @@
+package com.sunasterisk.expense_management.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to render an expense export of {@code rows} rows, with {@link CsvWriter} and with the
+ * previous approach (PrintWriter, String.join of escaped fields, DateTimeFormatter), into a
+ * discarding Writer so only the formatting is measured.
+ * Run the main method from the IDE, or {@code java -cp <test classpath> org.openjdk.jmh.Main CsvWriterBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvWriterBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Param({"10000"})
+    private int rows;
+
+    private long[] ids;
+    private String[] names;
+    private BigDecimal[] amounts;
+    private LocalDate[] dates;
+    private String[] categories;
+    private String[] notes;
+    private LocalDateTime[] createdAt;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ids = new long[rows];
+        names = new String[rows];
+        amounts = new BigDecimal[rows];
+        dates = new LocalDate[rows];
+        categories = new String[rows];
+        notes = new String[rows];
+        createdAt = new LocalDateTime[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = 100_000L + i;
+            names[i] = "Ăn trưa " + i;
+            amounts[i] = BigDecimal.valueOf(random.nextInt(10_000_000), 2);
+            dates[i] = LocalDate.of(2026, 1, 1).plusDays(random.nextInt(365));
+            categories[i] = i % 3 == 0 ? "Food, drinks" : "Transport";
+            // Every tenth note needs quoting and quote escaping
+            notes[i] = i % 10 == 0 ? "said \"paid\", split" : i % 2 == 0 ? null : "note " + i;
+            createdAt[i] = dates[i].atTime(random.nextInt(24), random.nextInt(60), random.nextInt(60));
+        }
+    }
+
+    @Benchmark
+    public void csvWriter() throws IOException {
+        try (CsvWriter csv = new CsvWriter(Writer.nullWriter())) {
+            csv.writeBom();
+            for (int i = 0; i < rows; i++) {
+                csv.field(ids[i])
+                        .field(names[i])
+                        .field(amounts[i])
+                        .field(dates[i])
+                        .field(categories[i])
+                        .field(notes[i])
+                        .field(createdAt[i])
+                        .endRow();
+            }
+        }
+    }
+
+    @Benchmark
+    public void stringJoin() {
+        try (PrintWriter writer = new PrintWriter(Writer.nullWriter())) {
+            writer.write('\ufeff');
+            for (int i = 0; i < rows; i++) {
+                writer.println(String.join(",",
+                        escape(Long.toString(ids[i])),
+                        escape(names[i]),
+                        escape(amounts[i].toString()),
+                        escape(dates[i].format(DATE_FORMATTER)),
+                        escape(categories[i]),
+                        escape(notes[i] != null ? notes[i] : ""),
+                        escape(createdAt[i].format(DATETIME_FORMATTER))
+                ));
+            }
+        }
+    }
+
+    private static String escape(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CsvWriterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.sunasterisk.expense_management.util;
+
+import com.sunasterisk.expense_management.entity.User.Role;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvWriterTest {
+
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    void plainValuesAreWrittenUnquoted() throws IOException {
+        assertThat(row("lunch", "Hanoi")).isEqualTo("lunch,Hanoi" + NL);
+    }
+
+    @Test
+    void valuesWithSeparatorQuoteOrLineBreakAreQuoted() throws IOException {
+        assertThat(row("a,b")).isEqualTo("\"a,b\"" + NL);
+        assertThat(row("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"" + NL);
+        assertThat(row("line1\nline2")).isEqualTo("\"line1\nline2\"" + NL);
+        assertThat(row("line1\r\nline2")).isEqualTo("\"line1\r\nline2\"" + NL);
+    }
+
+    @Test
+    void nullAndEmptyValuesAreEmptyFields() throws IOException {
+        assertThat(row(null, "", "x")).isEqualTo(",,x" + NL);
+    }
+
+    @Test
+    void typedFieldsUseTheirCanonicalText() throws IOException {
+        StringWriter out = new StringWriter();
+        try (CsvWriter csv = new CsvWriter(out)) {
+            csv.field(42L).field((Long) null).field(new BigDecimal("1234.50")).field(Boolean.TRUE)
+                    .field(Role.ADMIN).endRow();
+        }
+        assertThat(out.toString()).isEqualTo("42,,1234.50,true,ADMIN" + NL);
+    }
+
+    @Test
+    void datesArePaddedToFixedWidth() throws IOException {
+        StringWriter out = new StringWriter();
+        try (CsvWriter csv = new CsvWriter(out)) {
+            csv.field(LocalDate.of(2026, 3, 7))
+                    .field(LocalDateTime.of(2026, 3, 7, 9, 5, 1, 999_000_000))
+                    .yearMonthField(2026, 1)
+                    .field((LocalDate) null)
+                    .endRow();
+        }
+        assertThat(out.toString()).isEqualTo("2026-03-07,2026-03-07 09:05:01,2026-01," + NL);
+    }
+
+    @Test
+    void rowsRestartTheSeparatorAndRawLinesAreWrittenAsIs() throws IOException {
+        StringWriter out = new StringWriter();
+        try (CsvWriter csv = new CsvWriter(out)) {
+            csv.writeBom().writeRawLine("Id,Note").field(1L).field("a").endRow().field(2L).field("b").endRow();
+        }
+        assertThat(out.toString()).isEqualTo("\ufeffId,Note" + NL + "1,a" + NL + "2,b" + NL);
+    }
+
+    @Test
+    void valuesLongerThanTheBufferAreWrittenWhole() throws IOException {
+        String longValue = "x".repeat(200) + ",\"" + "y".repeat(200);
+        StringWriter out = new StringWriter();
+        try (CsvWriter csv = new CsvWriter(out, 64)) {
+            csv.field(longValue).field("z").endRow();
+        }
+        assertThat(out.toString()).isEqualTo("\"" + longValue.replace("\"", "\"\"") + "\",z" + NL);
+    }
+
+    @Test
+    void formatRowEscapesLikeTheWriter() throws IOException {
+        String[] values = {"Id", "Note, text", "say \"hi\"", null, "multi\nline"};
+
+        assertThat(CsvWriter.formatRow(values) + NL).isEqualTo(row(values));
+    }
+
+    @Test
+    void rejectsTinyBuffers() {
+        assertThatThrownBy(() -> new CsvWriter(new StringWriter(), 63)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String row(String... values) throws IOException {
+        StringWriter out = new StringWriter();
+        try (CsvWriter csv = new CsvWriter(out)) {
+            for (String value : values) {
+                csv.field(value);
+            }
+            csv.endRow();
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.sunasterisk.expense_management.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonMergePatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void diffHoldsOnlyChangedFields() {
+        ObjectNode patch = JsonMergePatch.diff(
+                json("{\"amount\":100,\"note\":\"lunch\",\"categoryId\":3}"),
+                json("{\"amount\":120,\"note\":\"lunch\",\"categoryId\":3}"));
+
+        assertThat(patch).isEqualTo(json("{\"amount\":120}"));
+    }
+
+    @Test
+    void diffOfEqualDocumentsIsEmpty() {
+        JsonNode document = json("{\"amount\":100,\"tags\":[\"food\"]}");
+
+        assertThat(JsonMergePatch.diff(document, document.deepCopy()).isEmpty()).isTrue();
+    }
+
+    @Test
+    void diffMarksRemovedFieldsAsNullAndKeepsAddedOnes() {
+        ObjectNode patch = JsonMergePatch.diff(
+                json("{\"amount\":100,\"note\":\"lunch\"}"),
+                json("{\"amount\":100,\"location\":\"Hanoi\"}"));
+
+        assertThat(patch).isEqualTo(json("{\"note\":null,\"location\":\"Hanoi\"}"));
+    }
+
+    @Test
+    void diffRecursesIntoNestedObjectsButReplacesArrays() {
+        ObjectNode patch = JsonMergePatch.diff(
+                json("{\"category\":{\"id\":3,\"name\":\"Food\"},\"tags\":[\"a\",\"b\"]}"),
+                json("{\"category\":{\"id\":3,\"name\":\"Meals\"},\"tags\":[\"a\"]}"));
+
+        assertThat(patch).isEqualTo(json("{\"category\":{\"name\":\"Meals\"},\"tags\":[\"a\"]}"));
+    }
+
+    @Test
+    void applyRemovesNullFieldsAndMergesNestedObjects() {
+        JsonNode result = JsonMergePatch.apply(
+                json("{\"amount\":100,\"note\":\"lunch\",\"category\":{\"id\":3,\"name\":\"Food\"}}"),
+                json("{\"note\":null,\"category\":{\"name\":\"Meals\"}}"));
+
+        assertThat(result).isEqualTo(json("{\"amount\":100,\"category\":{\"id\":3,\"name\":\"Meals\"}}"));
+    }
+
+    @Test
+    void applyDoesNotModifyTheTarget() {
+        JsonNode target = json("{\"amount\":100}");
+
+        JsonMergePatch.apply(target, json("{\"amount\":120}"));
+
+        assertThat(target).isEqualTo(json("{\"amount\":100}"));
+    }
+
+    @Test
+    void applyWithANonObjectPatchReplacesTheTarget() {
+        assertThat(JsonMergePatch.apply(json("{\"amount\":100}"), json("[1,2]"))).isEqualTo(json("[1,2]"));
+        assertThat(JsonMergePatch.apply(null, json("{\"amount\":100}"))).isEqualTo(json("{\"amount\":100}"));
+    }
+
+    @Test
+    void applyingTheDiffRestoresTheNewDocument() {
+        JsonNode before = json("{\"amount\":100,\"note\":\"lunch\",\"category\":{\"id\":3,\"name\":\"Food\"}}");
+        JsonNode after = json("{\"amount\":120,\"category\":{\"id\":4,\"name\":\"Food\"},\"location\":\"Hanoi\"}");
+
+        assertThat(JsonMergePatch.apply(before, JsonMergePatch.diff(before, after))).isEqualTo(after);
+    }
+
+    private JsonNode json(String content) {
+        try {
+            return objectMapper.readTree(content);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.sunasterisk.expense_management.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_000_000);
+
+    @Test
+    void decodesWhatWasEncoded() {
+        KeysetCursor forward = KeysetCursor.decode(KeysetCursor.encode(CREATED_AT, 42L, false));
+        KeysetCursor backward = KeysetCursor.decode(KeysetCursor.encode(CREATED_AT, 42L, true));
+
+        assertThat(forward.getCreatedAt()).isEqualTo(CREATED_AT);
+        assertThat(forward.getId()).isEqualTo(42L);
+        assertThat(forward.isBackward()).isFalse();
+        assertThat(backward.isBackward()).isTrue();
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        String token = KeysetCursor.encode(CREATED_AT, 42L, false);
+
+        assertThat(token).doesNotContain("=", "+", "/");
+    }
+
+    @Test
+    void missingTokenMeansFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(token("n|" + CREATED_AT))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(token("x|" + CREATED_AT + "|1"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(token("n|yesterday|1"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(token("n|" + CREATED_AT + "|one"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,144 @@
+package com.sunasterisk.expense_management.util;
+
+import com.sunasterisk.expense_management.dto.CursorPageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KeysetPagerTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 1, 8, 0);
+    private static final Comparator<Row> KEY_ORDER = Comparator.comparing(Row::createdAt).thenComparing(Row::id);
+
+    // Rows 3 and 4 share a creation time, so their order is decided by id
+    private static final List<Row> ROWS = List.of(
+            new Row(1L, T0),
+            new Row(2L, T0.plusMinutes(1)),
+            new Row(3L, T0.plusMinutes(2)),
+            new Row(4L, T0.plusMinutes(2)),
+            new Row(5L, T0.plusMinutes(3)));
+
+    @Test
+    void firstPageIsNewestFirstWithoutPrevious() {
+        CursorPageResponse<Long> page = fetch(null, 2);
+
+        assertThat(page.getContent()).containsExactly(5L, 4L);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.isHasPrevious()).isFalse();
+    }
+
+    @Test
+    void nextCursorContinuesAfterTheLastRow() {
+        CursorPageResponse<Long> second = fetch(fetch(null, 2).getNextCursor(), 2);
+
+        assertThat(second.getContent()).containsExactly(3L, 2L);
+        assertThat(second.isHasNext()).isTrue();
+        assertThat(second.isHasPrevious()).isTrue();
+    }
+
+    @Test
+    void lastPageHasNoNext() {
+        CursorPageResponse<Long> second = fetch(fetch(null, 2).getNextCursor(), 2);
+        CursorPageResponse<Long> last = fetch(second.getNextCursor(), 2);
+
+        assertThat(last.getContent()).containsExactly(1L);
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+        assertThat(last.isHasPrevious()).isTrue();
+    }
+
+    @Test
+    void previousCursorReturnsThePageBeforeInNewestFirstOrder() {
+        CursorPageResponse<Long> second = fetch(fetch(null, 2).getNextCursor(), 2);
+        CursorPageResponse<Long> last = fetch(second.getNextCursor(), 2);
+
+        CursorPageResponse<Long> back = fetch(last.getPreviousCursor(), 2);
+
+        assertThat(back.getContent()).containsExactly(3L, 2L);
+        assertThat(back.isHasNext()).isTrue();
+        assertThat(back.isHasPrevious()).isTrue();
+    }
+
+    @Test
+    void goingBackToTheFirstPageHasNoPrevious() {
+        CursorPageResponse<Long> second = fetch(fetch(null, 2).getNextCursor(), 2);
+
+        CursorPageResponse<Long> first = fetch(second.getPreviousCursor(), 2);
+
+        assertThat(first.getContent()).containsExactly(5L, 4L);
+        assertThat(first.isHasPrevious()).isFalse();
+        assertThat(first.getPreviousCursor()).isNull();
+        assertThat(first.isHasNext()).isTrue();
+    }
+
+    @Test
+    void emptyResultHasNoCursors() {
+        CursorPageResponse<Long> page = fetch(KeysetCursor.encode(T0, 1L, false), 2);
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.isHasPrevious()).isFalse();
+    }
+
+    private static CursorPageResponse<Long> fetch(String cursorToken, int size) {
+        return KeysetPager.fetch(repository(KeysetCursor.decode(cursorToken)), null, cursorToken, size,
+                Row::createdAt, Row::id, Row::id);
+    }
+
+    /**
+     * In-memory repository that applies the seek predicate of the cursor and the sort and limit set on the query
+     */
+    @SuppressWarnings("unchecked")
+    private static JpaSpecificationExecutor<Row> repository(KeysetCursor cursor) {
+        JpaSpecificationExecutor<Row> repository = mock(JpaSpecificationExecutor.class);
+        when(repository.findBy(any(Specification.class), any(Function.class))).thenAnswer(call -> {
+            AtomicReference<Sort> sort = new AtomicReference<>();
+            AtomicInteger limit = new AtomicInteger(Integer.MAX_VALUE);
+            FetchableFluentQuery<Row> query = mock(FetchableFluentQuery.class, RETURNS_SELF);
+            when(query.sortBy(any(Sort.class))).thenAnswer(sortBy -> {
+                sort.set(sortBy.getArgument(0));
+                return query;
+            });
+            when(query.limit(anyInt())).thenAnswer(limitBy -> {
+                limit.set(limitBy.getArgument(0));
+                return query;
+            });
+            when(query.all()).thenAnswer(all -> {
+                boolean ascending = sort.get().getOrderFor("createdAt").isAscending();
+                Comparator<Row> order = ascending ? KEY_ORDER : KEY_ORDER.reversed();
+                return ROWS.stream()
+                        .filter(row -> cursor == null || afterCursor(row, cursor))
+                        .sorted(order)
+                        .limit(limit.get())
+                        .toList();
+            });
+            Function<FetchableFluentQuery<Row>, List<Row>> queryFunction = call.getArgument(1);
+            return queryFunction.apply(query);
+        });
+        return repository;
+    }
+
+    private static boolean afterCursor(Row row, KeysetCursor cursor) {
+        int compared = KEY_ORDER.compare(row, new Row(cursor.getId(), cursor.getCreatedAt()));
+        return cursor.isBackward() ? compared > 0 : compared < 0;
+    }
+
+    private record Row(Long id, LocalDateTime createdAt) {
+    }
+}
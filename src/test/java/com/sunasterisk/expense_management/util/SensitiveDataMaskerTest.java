@@ -0,0 +1,85 @@
+package com.sunasterisk.expense_management.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SensitiveDataMaskerTest {
+
+    @Test
+    void sensitiveNamesAreMatchedCaseInsensitively() {
+        assertThat(SensitiveDataMasker.isSensitive("password")).isTrue();
+        assertThat(SensitiveDataMasker.isSensitive("newPassword")).isTrue();
+        assertThat(SensitiveDataMasker.isSensitive("REFRESHTOKEN")).isTrue();
+        assertThat(SensitiveDataMasker.isSensitive("email")).isFalse();
+        assertThat(SensitiveDataMasker.isSensitive(null)).isFalse();
+    }
+
+    @Test
+    void masksTopLevelJsonFields() {
+        assertThat(maskJson("{\"email\":\"a@b.com\",\"password\":\"secret1\"}"))
+                .isEqualTo("{\"email\":\"a@b.com\",\"password\":\"***\"}");
+    }
+
+    @Test
+    void masksNestedFieldsAndObjectOrArrayValues() {
+        assertThat(maskJson("{\"user\":{\"name\":\"An\",\"currentPassword\":\"x\"},"
+                + "\"items\":[{\"token\":\"t1\"},{\"apiKey\":\"k\"}],"
+                + "\"secret\":{\"value\":\"s\",\"nested\":[1,2]},\"accessToken\":[\"a\",\"b\"]}"))
+                .isEqualTo("{\"user\":{\"name\":\"An\",\"currentPassword\":\"***\"},"
+                        + "\"items\":[{\"token\":\"***\"},{\"apiKey\":\"***\"}],"
+                        + "\"secret\":\"***\",\"accessToken\":\"***\"}");
+    }
+
+    @Test
+    void masksNonStringValues() {
+        assertThat(maskJson("{\"password\":12345,\"token\":null,\"amount\":10.5}"))
+                .isEqualTo("{\"password\":\"***\",\"token\":\"***\",\"amount\":10.5}");
+    }
+
+    @Test
+    void reemitsJsonInCompactForm() {
+        assertThat(maskJson("{\n  \"note\" : \"lunch\",\n  \"tags\" : [ \"food\" ]\n}"))
+                .isEqualTo("{\"note\":\"lunch\",\"tags\":[\"food\"]}");
+    }
+
+    @Test
+    void onlyTheGivenLengthIsRead() {
+        byte[] content = "{\"password\":\"x\"}trailing".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(SensitiveDataMasker.maskJson(content, 16)).isEqualTo("{\"password\":\"***\"}");
+    }
+
+    @Test
+    void incompleteOrInvalidJsonIsNotReturned() {
+        assertThat(maskJson("{\"email\":\"a@b.com\",\"password\":\"sec")).isNull();
+        assertThat(maskJson("{\"password\" \"x\"}")).isNull();
+    }
+
+    @Test
+    void masksSensitiveFormParameters() {
+        assertThat(SensitiveDataMasker.maskFormUrlEncoded("username=an&password=p%40ss&remember=on"))
+                .isEqualTo("username=an&password=***&remember=on");
+        assertThat(SensitiveDataMasker.maskFormUrlEncoded("newPassword=a&confirmPassword=a"))
+                .isEqualTo("newPassword=***&confirmPassword=***");
+    }
+
+    @Test
+    void matchesUrlEncodedParameterNames() {
+        assertThat(SensitiveDataMasker.maskFormUrlEncoded("pass%77ord=x&note=a%26b"))
+                .isEqualTo("pass%77ord=***&note=a%26b");
+    }
+
+    @Test
+    void keepsParametersWithoutValueAndEmptyBodies() {
+        assertThat(SensitiveDataMasker.maskFormUrlEncoded("password&flag=&=x")).isEqualTo("password&flag=&=x");
+        assertThat(SensitiveDataMasker.maskFormUrlEncoded("")).isEmpty();
+    }
+
+    private static String maskJson(String json) {
+        byte[] content = json.getBytes(StandardCharsets.UTF_8);
+        return SensitiveDataMasker.maskJson(content, content.length);
+    }
+}